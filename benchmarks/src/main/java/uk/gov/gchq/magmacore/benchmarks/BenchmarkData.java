@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import uk.gov.gchq.magmacore.hqdm.model.ClassOfPerson;
+import uk.gov.gchq.magmacore.hqdm.model.KindOfAssociation;
+import uk.gov.gchq.magmacore.hqdm.model.KindOfPerson;
+import uk.gov.gchq.magmacore.hqdm.model.Pattern;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.PointInTime;
+import uk.gov.gchq.magmacore.hqdm.model.PossibleWorld;
+import uk.gov.gchq.magmacore.hqdm.model.RecognizingLanguageCommunity;
+import uk.gov.gchq.magmacore.hqdm.model.RepresentationByPattern;
+import uk.gov.gchq.magmacore.hqdm.model.RepresentationBySign;
+import uk.gov.gchq.magmacore.hqdm.model.Role;
+import uk.gov.gchq.magmacore.hqdm.model.Sign;
+import uk.gov.gchq.magmacore.hqdm.model.StateOfPerson;
+import uk.gov.gchq.magmacore.hqdm.model.StateOfSign;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.ClassOfPersonBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.KindOfAssociationBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.PatternBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.PersonBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.PointInTimeBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.RecognizingLanguageCommunityBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.RepresentationBySignBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.RoleBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.SignBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.StateOfPersonBuilder;
+import uk.gov.gchq.magmacore.hqdm.rdfbuilders.StateOfSignBuilder;
+import uk.gov.gchq.magmacore.hqdm.services.ClassServices;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Generated HQDM data for the benchmarks, built with the canonical {@code rdfbuilders}.
+ *
+ * <p>
+ * Each person has a state, and is represented by a sign through a {@link RepresentationBySign}
+ * that is recognized by a single {@link RecognizingLanguageCommunity}, so the sign-search queries
+ * in {@link uk.gov.gchq.magmacore.service.MagmaCoreService} find one person per sign value. People
+ * are spread evenly across {@value #GROUPS} classes so that class queries return a result whose
+ * size grows with the dataset.
+ * </p>
+ */
+final class BenchmarkData {
+
+    /** The namespace of the generated data. */
+    static final IriBase BASE = new IriBase("bench", "http://example.com/bench#");
+
+    /** The number of classes that people are members of. */
+    static final int GROUPS = 100;
+
+    private final List<Thing> things = new ArrayList<>();
+    private final IRI[] people;
+    private final IRI[] groups = new IRI[GROUPS];
+    private final PossibleWorld possibleWorld;
+    private final Role role;
+    private final KindOfPerson kindOfPerson;
+    private final ClassOfPerson[] classesOfPerson = new ClassOfPerson[GROUPS];
+    private final Pattern pattern;
+    private final RecognizingLanguageCommunity community;
+    private final RepresentationByPattern representationByPattern;
+    private final KindOfAssociation kindOfRepresentation;
+    private final PointInTime begin;
+    private final PointInTime end;
+
+    /**
+     * Generate the reference data and {@code size} people with their signs.
+     *
+     * @param size The number of people.
+     */
+    BenchmarkData(final int size) {
+        // A possible world is part of itself, so it cannot be built before it exists.
+        possibleWorld = add(SpatioTemporalExtentServices.createPossibleWorld(iri("possibleWorld")));
+        possibleWorld.addValue(HQDM.PART_OF_POSSIBLE_WORLD, possibleWorld.getId());
+
+        role = add(new RoleBuilder(iri("naturalRole")).build());
+        // The builders for these two types require predicates that they have no setter for.
+        kindOfPerson = add(ClassServices.createKindOfPerson(iri("kindOfPerson")));
+        kindOfPerson.addStringValue(HQDM.ENTITY_NAME, "Person");
+        for (int i = 0; i < GROUPS; i++) {
+            groups[i] = iri("classOfPerson" + i);
+            classesOfPerson[i] = add(new ClassOfPersonBuilder(groups[i]).build());
+        }
+
+        pattern = add(new PatternBuilder(iri("namePattern")).build());
+        community = add(new RecognizingLanguageCommunityBuilder(iri("community"))
+                .member_Of_Kind_M(role)
+                .part_Of_Possible_World_M(possibleWorld)
+                .build());
+        representationByPattern = add(ClassServices.createRepresentationByPattern(iri("representationByPattern")));
+        representationByPattern.addValue(HQDM.CONSISTS_OF_BY_CLASS, pattern.getId());
+        representationByPattern.addValue(HQDM.CONSISTS_OF_IN_MEMBERS, community.getId());
+        representationByPattern.addValue(HQDM.REPRESENTED, kindOfPerson.getId());
+        kindOfRepresentation = add(new KindOfAssociationBuilder(iri("kindOfRepresentation")).build());
+
+        final Instant now = Instant.now();
+        begin = add(new PointInTimeBuilder(iri("begin")).part_Of_Possible_World_M(possibleWorld).build());
+        begin.addStringValue(HQDM.ENTITY_NAME, now.minus(1, ChronoUnit.DAYS).toString());
+        end = add(new PointInTimeBuilder(iri("end")).part_Of_Possible_World_M(possibleWorld).build());
+        end.addStringValue(HQDM.ENTITY_NAME, now.plus(365, ChronoUnit.DAYS).toString());
+
+        people = new IRI[size];
+        for (int i = 0; i < size; i++) {
+            people[i] = addPerson(i);
+        }
+    }
+
+    /**
+     * Build a person with the same reference data as the generated people, without its sign.
+     *
+     * @param iri   The {@link IRI} of the person.
+     * @param group The index of the class the person is a member of.
+     * @return The {@link Person}.
+     */
+    Person newPerson(final IRI iri, final int group) {
+        final Person person = new PersonBuilder(iri)
+                .natural_Role_M(role)
+                .part_Of_Possible_World_M(possibleWorld)
+                .member_Of_Kind(kindOfPerson)
+                .member_Of(classesOfPerson[group % GROUPS])
+                .build();
+        person.addStringValue(HQDM.ENTITY_NAME, iri.getResource());
+        return person;
+    }
+
+    /**
+     * Copy the predicates of a {@link Thing} to a new object of the same type with a different IRI.
+     *
+     * @param thing The {@link Thing} to copy.
+     * @param iri   The {@link IRI} of the copy.
+     * @return The copy.
+     */
+    static Thing copy(final Thing thing, final IRI iri) {
+        final Thing copy = SpatioTemporalExtentServices.createThing(iri);
+        for (final Map.Entry<IRI, Set<Object>> entry : thing.getPredicates().entrySet()) {
+            for (final Object value : entry.getValue()) {
+                if (value instanceof IRI i) {
+                    copy.addValue(entry.getKey(), i);
+                } else {
+                    copy.addStringValue(entry.getKey(), value.toString());
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Create an {@link IRI} in the benchmark namespace.
+     *
+     * @param name The local name.
+     * @return The {@link IRI}.
+     */
+    static IRI iri(final String name) {
+        return new IRI(BASE, name);
+    }
+
+    /**
+     * The sign value that represents a person.
+     *
+     * @param index The index of the person.
+     * @return The sign value.
+     */
+    static String signValue(final int index) {
+        return "Person " + index;
+    }
+
+    List<Thing> getThings() {
+        return things;
+    }
+
+    IRI getPerson(final int index) {
+        return people[index];
+    }
+
+    int getSize() {
+        return people.length;
+    }
+
+    IRI getGroup(final int index) {
+        return groups[index % GROUPS];
+    }
+
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    RecognizingLanguageCommunity getCommunity() {
+        return community;
+    }
+
+    private IRI addPerson(final int index) {
+        final Person person = add(newPerson(iri("person" + index), index));
+
+        final StateOfPerson stateOfPerson = add(new StateOfPersonBuilder(iri("stateOfPerson" + index))
+                .temporal_Part_Of(person)
+                .part_Of_Possible_World_M(possibleWorld)
+                .build());
+
+        final RepresentationBySign representationBySign = add(
+                new RepresentationBySignBuilder(iri("representationBySign" + index))
+                        .member_Of__M(representationByPattern)
+                        .member_Of_Kind_M(kindOfRepresentation)
+                        .part_Of_Possible_World_M(possibleWorld)
+                        .represents_M(stateOfPerson)
+                        .beginning(begin)
+                        .ending(end)
+                        .build());
+
+        final Sign sign = add(new SignBuilder(iri("sign" + index))
+                .member_Of__M(pattern)
+                .participant_In_M(representationBySign)
+                .part_Of_Possible_World_M(possibleWorld)
+                .build());
+        sign.addStringValue(HQDM.VALUE_, signValue(index));
+
+        final StateOfSign stateOfSign = add(new StateOfSignBuilder(iri("stateOfSign" + index))
+                .temporal_Part_Of(sign)
+                .part_Of_Possible_World_M(possibleWorld)
+                .build());
+        stateOfSign.addValue(HQDM.PARTICIPANT_IN, representationBySign.getId());
+        community.addValue(HQDM.PARTICIPANT_IN, representationBySign.getId());
+
+        return person.getId();
+    }
+
+    private <T extends Thing> T add(final T thing) {
+        things.add(thing);
+        return thing;
+    }
+}
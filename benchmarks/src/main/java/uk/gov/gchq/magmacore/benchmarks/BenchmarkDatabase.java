@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.sys.TDBInternal;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.service.MagmaCoreService;
+import uk.gov.gchq.magmacore.service.MagmaCoreServiceFactory;
+
+/**
+ * A {@link MagmaCoreJenaDatabase} populated with {@link BenchmarkData}, shared by all the threads of
+ * a benchmark. The store and scale are JMH parameters, so each benchmark that uses this state runs
+ * against an in-memory and a TDB2 dataset at each size.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    /** An in-memory transactional dataset. */
+    static final String MEMORY = "memory";
+
+    /** A TDB2 dataset in a temporary directory. */
+    static final String TDB2 = "tdb2";
+
+    @Param({ MEMORY, TDB2 })
+    private String store;
+
+    @Param({ "1000", "10000" })
+    private int size;
+
+    private Path location;
+    private Dataset dataset;
+
+    MagmaCoreJenaDatabase database;
+    MagmaCoreService service;
+    BenchmarkData data;
+
+    /**
+     * Create the dataset and load the generated data in a single transaction.
+     *
+     * @throws IOException If the TDB2 directory cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void populate() throws IOException {
+        if (TDB2.equals(store)) {
+            location = Files.createTempDirectory("magma-core-benchmark");
+            dataset = TDB2Factory.connectDataset(location.toString());
+        } else {
+            dataset = DatasetFactory.createTxnMem();
+        }
+        database = new MagmaCoreJenaDatabase(dataset);
+        data = new BenchmarkData(size);
+
+        // Load directly, before the service exists, so that it never sees a write it did not make.
+        database.beginWrite();
+        data.getThings().forEach(database::create);
+        database.commit();
+        service = MagmaCoreServiceFactory.create(database);
+        service.enableTemporalIndex();
+    }
+
+    /**
+     * Release the dataset and remove any TDB2 files.
+     *
+     * @throws IOException If the TDB2 directory cannot be removed.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        if (location != null) {
+            TDBInternal.expel(dataset.asDatasetGraph());
+            try (Stream<Path> paths = Files.walk(location)) {
+                for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        } else {
+            dataset.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.exception.MagmaCoreException;
+import uk.gov.gchq.magmacore.hqdm.model.PointInTime;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.MagmaCoreService;
+import uk.gov.gchq.magmacore.service.MagmaCoreSession;
+
+/**
+ * Measure the throughput of one {@link MagmaCoreService} shared by several threads, each finding
+ * people by sign value in its own read {@link MagmaCoreSession}, alone and alongside a thread that
+ * commits a new person in each write session.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentReadBenchmark {
+
+    private PointInTime now;
+    private int next;
+
+    /**
+     * Create the point in time that the searches are made at.
+     */
+    @Setup(Level.Trial)
+    public void createPointInTime() {
+        now = SpatioTemporalExtentServices.createPointInTime(BenchmarkData.iri("now"));
+        now.addStringValue(HQDM.ENTITY_NAME, Instant.now().toString());
+    }
+
+    /**
+     * Find a person by sign value on a single thread.
+     *
+     * @param state The populated database.
+     * @return The {@link Thing} objects found.
+     * @throws MagmaCoreException If the search fails.
+     */
+    @Benchmark
+    @Threads(1)
+    public List<? extends Thing> read1Thread(final BenchmarkDatabase state) throws MagmaCoreException {
+        return read(state);
+    }
+
+    /**
+     * Find people by sign value on four threads at once.
+     *
+     * @param state The populated database.
+     * @return The {@link Thing} objects found.
+     * @throws MagmaCoreException If the search fails.
+     */
+    @Benchmark
+    @Threads(4)
+    public List<? extends Thing> read4Threads(final BenchmarkDatabase state) throws MagmaCoreException {
+        return read(state);
+    }
+
+    /**
+     * Find people by sign value on three threads while another thread writes.
+     *
+     * @param state The populated database.
+     * @return The {@link Thing} objects found.
+     * @throws MagmaCoreException If the search fails.
+     */
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public List<? extends Thing> reader(final BenchmarkDatabase state) throws MagmaCoreException {
+        return read(state);
+    }
+
+    /**
+     * Create and commit a new person while other threads read.
+     *
+     * @param state The populated database.
+     */
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public void writer(final BenchmarkDatabase state) {
+        next++;
+        try (MagmaCoreSession session = state.service.openWriteSession()) {
+            state.service.create(state.data.newPerson(BenchmarkData.iri("concurrentPerson" + next), next));
+            session.commit();
+        }
+    }
+
+    private List<? extends Thing> read(final BenchmarkDatabase state) throws MagmaCoreException {
+        next = (next + 7919) % state.data.getSize();
+        try (MagmaCoreSession session = state.service.openReadSession()) {
+            return state.service.findBySignValue(state.data.getCommunity(), state.data.getPattern(),
+                    BenchmarkData.signValue(next), now);
+        }
+    }
+}
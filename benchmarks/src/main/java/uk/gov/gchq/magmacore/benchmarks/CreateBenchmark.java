@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+
+/**
+ * Measure {@link MagmaCoreJenaDatabase#create(Thing)} and
+ * {@link MagmaCoreJenaDatabase#create(List)}. Each iteration runs in one write transaction that is
+ * aborted at the end, so every iteration starts from the same populated dataset.
+ *
+ * <p>
+ * New people are built for every invocation, so {@link #newPerson()} measures that cost on its own.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateBenchmark {
+
+    /** The number of people created by each call to {@code create(List)}. */
+    private static final int BATCH_SIZE = 100;
+
+    private MagmaCoreJenaDatabase database;
+    private BenchmarkData data;
+    private int next;
+
+    /**
+     * Begin a write transaction for the iteration.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Iteration)
+    public void beginWrite(final BenchmarkDatabase state) {
+        database = state.database;
+        data = state.data;
+        database.beginWrite();
+    }
+
+    /**
+     * Discard everything created during the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void abort() {
+        database.abort();
+    }
+
+    /**
+     * Build a new person without storing it.
+     *
+     * @return The new {@link Person}.
+     */
+    @Benchmark
+    public Person newPerson() {
+        next++;
+        return data.newPerson(BenchmarkData.iri("newPerson" + next), next);
+    }
+
+    /**
+     * Create a single new person.
+     */
+    @Benchmark
+    public void createThing() {
+        database.create(newPerson());
+    }
+
+    /**
+     * Create {@value #BATCH_SIZE} new people as one list of {@link DbCreateOperation}.
+     */
+    @Benchmark
+    public void createOperations() {
+        final List<DbCreateOperation> creates = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final Person person = newPerson();
+            for (final Map.Entry<IRI, Set<Object>> entry : person.getPredicates().entrySet()) {
+                for (final Object value : entry.getValue()) {
+                    creates.add(new DbCreateOperation(person.getId(), entry.getKey(), value));
+                }
+            }
+        }
+        database.create(creates);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.verify.DataIntegrityReport;
+
+/**
+ * Measure {@link DataIntegrityReport#verify} over the whole generated dataset, and
+ * {@link DataIntegrityReport#verifyChangeSet} for a small change to it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class DataIntegrityBenchmark {
+
+    /**
+     * Run every data integrity check.
+     *
+     * @param state The populated database.
+     * @return The errors found.
+     */
+    @Benchmark
+    public List<Thing> verify(final BenchmarkDatabase state) {
+        return DataIntegrityReport.verify(state.database);
+    }
+
+    /**
+     * Run every data integrity check for the things affected by a change to one person.
+     *
+     * @param state The populated database.
+     * @return The errors found.
+     */
+    @Benchmark
+    public List<Thing> verifyChangeSet(final BenchmarkDatabase state) {
+        final IRI person = state.data.getPerson(0);
+        final DbChangeSet changeSet = new DbChangeSet(List.of(),
+                List.of(new DbCreateOperation(person, HQDM.ENTITY_NAME, person.getResource())));
+        final List<Thing> errors = new ArrayList<>();
+        DataIntegrityReport.verifyChangeSet(state.database, changeSet, DataIntegrityReport.getCheckNames(),
+                errors::add);
+        return errors;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.service.MagmaCoreService;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbTransformation;
+
+/**
+ * Measure {@link DbTransformation#apply(MagmaCoreService)} for a transformation that creates a
+ * batch of new people, including converting them with
+ * {@link MagmaCoreService#createDbTransformation}, and compare applying a list of
+ * {@link DbCreateOperation} one at a time against {@link DbCreateOperation#applyAll}. Each iteration
+ * runs in one write transaction that is aborted at the end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DbTransformationBenchmark {
+
+    /** The number of people created by each transformation. */
+    private static final int BATCH_SIZE = 10;
+
+    /** The number of triples added to one new subject by each list of operations. */
+    private static final int OPERATIONS = 50;
+
+    private MagmaCoreService service;
+    private BenchmarkData data;
+    private int next;
+
+    /**
+     * Begin a write transaction for the iteration.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Iteration)
+    public void beginWrite(final BenchmarkDatabase state) {
+        service = state.service;
+        data = state.data;
+        service.beginWrite();
+    }
+
+    /**
+     * Discard everything created during the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void abort() {
+        service.abort();
+    }
+
+    /**
+     * Apply a transformation creating {@value #BATCH_SIZE} new people.
+     *
+     * @return The {@link DbTransformation}.
+     */
+    @Benchmark
+    public DbTransformation apply() {
+        final List<Person> people = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            next++;
+            people.add(data.newPerson(BenchmarkData.iri("transformedPerson" + next), next));
+        }
+        final DbTransformation transformation = service.createDbTransformation(people);
+        transformation.apply(service);
+        return transformation;
+    }
+
+    /**
+     * Apply {@value #OPERATIONS} operations adding triples to one new subject, one at a time.
+     */
+    @Benchmark
+    public void applyEachOperation() {
+        createOperations().forEach(create -> create.apply(service));
+    }
+
+    /**
+     * Apply {@value #OPERATIONS} operations adding triples to one new subject together.
+     */
+    @Benchmark
+    public void applyAllOperations() {
+        DbCreateOperation.applyAll(service, createOperations());
+    }
+
+    private List<DbCreateOperation> createOperations() {
+        next++;
+        final IRI subject = BenchmarkData.iri("operationsSubject" + next);
+        final List<DbCreateOperation> creates = new ArrayList<>(OPERATIONS + 1);
+        creates.add(new DbCreateOperation(subject, RDFS.RDF_TYPE, HQDM.PERSON));
+        for (int i = 0; i < OPERATIONS; i++) {
+            creates.add(new DbCreateOperation(subject, HQDM.MEMBER_OF, data.getGroup(i)));
+        }
+        return creates;
+    }
+}
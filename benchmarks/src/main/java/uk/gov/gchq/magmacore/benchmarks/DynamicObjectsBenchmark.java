@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.hqdm.model.Participant;
+import uk.gov.gchq.magmacore.hqdm.model.Party;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.model.impl.ThingImpl;
+import uk.gov.gchq.magmacore.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.services.DynamicObjects;
+
+/**
+ * Compare the classes generated by {@link DynamicObjects} against the {@link Proxy} based
+ * implementation it replaced, for both creating multi-typed objects and calling methods on them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DynamicObjectsBenchmark {
+
+    private static final IriBase BASE = new IriBase("bench", "http://example.com/bench#");
+
+    private static final java.lang.Class<?>[] INTERFACES = { Person.class, Participant.class, Party.class };
+
+    private IRI iri;
+    private Person generated;
+    private Person proxy;
+
+    /**
+     * Create one object using each approach for the invocation benchmarks.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        iri = new IRI(BASE, "person");
+        generated = createGenerated();
+        proxy = createProxy();
+        generated.addStringValue(HQDM.ENTITY_NAME, "person");
+        proxy.addStringValue(HQDM.ENTITY_NAME, "person");
+    }
+
+    /**
+     * Create a multi-typed object with {@link DynamicObjects}.
+     *
+     * @return The new object.
+     */
+    @Benchmark
+    public Person createGenerated() {
+        return DynamicObjects.create(iri, Person.class, (java.lang.Class<Thing>[]) INTERFACES);
+    }
+
+    /**
+     * Create a multi-typed object with a {@link Proxy}, as {@link DynamicObjects} previously did.
+     *
+     * @return The new object.
+     */
+    @Benchmark
+    public Person createProxy() {
+        return (Person) Proxy.newProxyInstance(DynamicObjects.class.getClassLoader(), INTERFACES,
+                new ThingHandler(new ThingImpl(iri)));
+    }
+
+    /**
+     * Call a method on an object created by {@link DynamicObjects}.
+     *
+     * @return The result of the call.
+     */
+    @Benchmark
+    public boolean invokeGenerated() {
+        return generated.hasThisStringValue(HQDM.ENTITY_NAME, "person");
+    }
+
+    /**
+     * Call a method on a {@link Proxy}.
+     *
+     * @return The result of the call.
+     */
+    @Benchmark
+    public boolean invokeProxy() {
+        return proxy.hasThisStringValue(HQDM.ENTITY_NAME, "person");
+    }
+
+    /**
+     * The {@link InvocationHandler} previously used by {@link DynamicObjects}.
+     */
+    private static class ThingHandler implements InvocationHandler {
+
+        private final Map<String, Method> methods = new HashMap<>();
+
+        private final Object target;
+
+        ThingHandler(final Object target) {
+            this.target = target;
+            for (final Method method : HqdmObject.class.getMethods()) {
+                this.methods.put(method.getName(), method);
+            }
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            return methods.get(method.getName()).invoke(target, args);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Compare {@link MagmaCoreJenaDatabase#get(IRI)}, which reads directly from the graph, against the
+ * equivalent SPARQL query materialised through {@code toTopObjects}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetBenchmark {
+
+    private static final IriBase BASE = new IriBase("bench", "http://example.com/bench#");
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private MagmaCoreJenaDatabase database;
+    private IRI[] iris;
+    private int next;
+
+    /**
+     * Populate an in-memory database with {@code size} people.
+     */
+    @Setup(Level.Trial)
+    public void populate() {
+        database = new MagmaCoreJenaDatabase();
+        iris = new IRI[size];
+
+        final IRI classOfPerson = new IRI(BASE, "classOfPerson");
+        final IRI kindOfPerson = new IRI(BASE, "kindOfPerson");
+        final IRI possibleWorld = new IRI(BASE, "possibleWorld");
+
+        database.beginWrite();
+        for (int i = 0; i < size; i++) {
+            iris[i] = new IRI(BASE, "person" + i);
+            final Person person = SpatioTemporalExtentServices.createPerson(iris[i]);
+            person.addValue(HQDM.MEMBER_OF, classOfPerson);
+            person.addValue(HQDM.MEMBER_OF_KIND, kindOfPerson);
+            person.addValue(HQDM.PART_OF_POSSIBLE_WORLD, possibleWorld);
+            person.addValue(HQDM.BEGINNING, new IRI(BASE, "begin" + i));
+            person.addValue(HQDM.ENDING, new IRI(BASE, "end" + i));
+            person.addStringValue(HQDM.ENTITY_NAME, "person " + i);
+            database.create(person);
+        }
+        database.commit();
+    }
+
+    /**
+     * Begin a read transaction for the iteration.
+     */
+    @Setup(Level.Iteration)
+    public void beginRead() {
+        database.beginRead();
+    }
+
+    /**
+     * End the read transaction for the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void endRead() {
+        database.abort();
+    }
+
+    /**
+     * Get a {@link Thing} by reading its statements from the graph.
+     *
+     * @return The {@link Thing}.
+     */
+    @Benchmark
+    public Thing graphApiGet() {
+        return database.get(nextIri());
+    }
+
+    /**
+     * Get a {@link Thing} using the SPARQL query previously used by {@code get}.
+     *
+     * @return The {@link Thing}.
+     */
+    @Benchmark
+    public Thing sparqlGet() {
+        final String query = String.format("SELECT (<%1$s> as ?s) ?p ?o WHERE {<%1$s> ?p ?o.}", nextIri());
+        final List<Thing> things = database.toTopObjects(database.executeQuery(query));
+        return things.isEmpty() ? null : things.get(0);
+    }
+
+    private IRI nextIri() {
+        next = (next + 1) % iris.length;
+        return iris[next];
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.service.GroupCommitWriter;
+
+/**
+ * Compare creating people from several threads with a write transaction each against submitting
+ * them to a {@link GroupCommitWriter}, which commits them in shared transactions. The achieved batch
+ * sizes and commit latencies are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GroupCommitBenchmark {
+
+    private final AtomicInteger next = new AtomicInteger();
+    private GroupCommitWriter writer;
+
+    /**
+     * Start the {@link GroupCommitWriter}.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Trial)
+    public void start(final BenchmarkDatabase state) {
+        writer = new GroupCommitWriter(state.service);
+    }
+
+    /**
+     * Stop the {@link GroupCommitWriter} and print what it achieved.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        writer.close();
+        System.out.println(writer.getStats());
+    }
+
+    /**
+     * Create a person in a write transaction of its own.
+     *
+     * @param state The populated database.
+     */
+    @Benchmark
+    public void transactionPerWrite(final BenchmarkDatabase state) {
+        final Person person = newPerson(state);
+        state.service.runInWriteTransaction(service -> {
+            service.create(person);
+            return service;
+        });
+    }
+
+    /**
+     * Create a person through the {@link GroupCommitWriter} and wait for it to commit.
+     *
+     * @param state The populated database.
+     */
+    @Benchmark
+    public void groupCommit(final BenchmarkDatabase state) {
+        final Person person = newPerson(state);
+        writer.submit(service -> {
+            service.create(person);
+            return service;
+        }).join();
+    }
+
+    private Person newPerson(final BenchmarkDatabase state) {
+        final int index = next.incrementAndGet();
+        return state.data.newPerson(BenchmarkData.iri("groupCommitPerson" + index), index);
+    }
+}
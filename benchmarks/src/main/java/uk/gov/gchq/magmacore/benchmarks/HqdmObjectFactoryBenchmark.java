@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+
+/**
+ * Measure {@link HqdmObjectFactory#create(IRI, List)} for objects with one HQDM type and with
+ * several, using the predicates of a generated person.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HqdmObjectFactoryBenchmark {
+
+    private IRI iri;
+    private List<Pair<IRI, Object>> singleType;
+    private List<Pair<IRI, Object>> multipleTypes;
+
+    /**
+     * Build the predicate lists from a generated person.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        iri = BenchmarkData.iri("person");
+        final Thing person = new BenchmarkData(0).newPerson(iri, 0);
+
+        singleType = new ArrayList<>();
+        for (final Map.Entry<IRI, Set<Object>> entry : person.getPredicates().entrySet()) {
+            for (final Object value : entry.getValue()) {
+                singleType.add(new Pair<>(entry.getKey(), value));
+            }
+        }
+        multipleTypes = new ArrayList<>(singleType);
+        multipleTypes.add(new Pair<>(RDFS.RDF_TYPE, HQDM.PARTICIPANT));
+        multipleTypes.add(new Pair<>(RDFS.RDF_TYPE, HQDM.STATE_OF_PERSON));
+    }
+
+    /**
+     * Create an object with a single HQDM type.
+     *
+     * @return The {@link Thing}.
+     */
+    @Benchmark
+    public Thing createSingleType() {
+        return HqdmObjectFactory.create(iri, singleType);
+    }
+
+    /**
+     * Create an object with three HQDM types.
+     *
+     * @return The {@link Thing}.
+     */
+    @Benchmark
+    public Thing createMultipleTypes() {
+        return HqdmObjectFactory.create(iri, multipleTypes);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.database.query.QueryResultList;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+
+/**
+ * Measure the read paths of {@link MagmaCoreJenaDatabase} and
+ * {@link uk.gov.gchq.magmacore.service.MagmaCoreService}: getting a single {@link Thing}, finding
+ * the members of a class, and materialising query results with {@code toTopObjects}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+
+    /** Select the triples of every member of a class. */
+    private static final String CLASS_MEMBERS_QUERY = "SELECT ?s ?p ?o WHERE { ?s <" + HQDM.MEMBER_OF
+            + "> <%s>. ?s ?p ?o. }";
+
+    private BenchmarkDatabase state;
+    private QueryResultList classMembers;
+    private int next;
+
+    /**
+     * Begin a read transaction for the iteration and run the query whose results are materialised.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Iteration)
+    public void beginRead(final BenchmarkDatabase state) {
+        this.state = state;
+        state.database.beginRead();
+        classMembers = state.database.executeQuery(String.format(CLASS_MEMBERS_QUERY, state.data.getGroup(0)));
+    }
+
+    /**
+     * End the read transaction for the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void endRead() {
+        state.database.abort();
+    }
+
+    /**
+     * Get a person by {@link uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI}.
+     *
+     * @return The {@link Thing}.
+     */
+    @Benchmark
+    public Thing get() {
+        return state.database.get(state.data.getPerson(nextIndex()));
+    }
+
+    /**
+     * Find the members of a class, which is one person in every {@value BenchmarkData#GROUPS}.
+     *
+     * @return The members.
+     */
+    @Benchmark
+    public List<? extends Thing> findByClass() {
+        return state.service.findByClass(state.data.getGroup(nextIndex()));
+    }
+
+    /**
+     * Materialise the triples of the members of a class as {@link Thing} objects.
+     *
+     * @return The {@link Thing} objects.
+     */
+    @Benchmark
+    public List<Thing> toTopObjects() {
+        return state.database.toTopObjects(classMembers);
+    }
+
+    private int nextIndex() {
+        next = (next + 7919) % state.data.getSize();
+        return next;
+    }
+}
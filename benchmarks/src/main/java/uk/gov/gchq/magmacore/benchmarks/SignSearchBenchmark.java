@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.exception.MagmaCoreException;
+import uk.gov.gchq.magmacore.hqdm.model.PointInTime;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.MagmaCoreService;
+
+/**
+ * Measure the sign-search queries of {@link MagmaCoreService}. Each search looks for the sign of a
+ * different person. An exact search returns one person, and a partial search also returns the people
+ * whose sign value starts with the same digits. These queries take seconds per operation at the
+ * larger scales, so there are fewer iterations than in the other benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SignSearchBenchmark {
+
+    private BenchmarkDatabase state;
+    private PointInTime now;
+    private int next;
+
+    /**
+     * Begin a read transaction for the iteration.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Iteration)
+    public void beginRead(final BenchmarkDatabase state) {
+        this.state = state;
+        now = SpatioTemporalExtentServices.createPointInTime(BenchmarkData.iri("now"));
+        now.addStringValue(HQDM.ENTITY_NAME, Instant.now().toString());
+        state.service.beginRead();
+    }
+
+    /**
+     * End the read transaction for the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void endRead() {
+        state.service.abort();
+    }
+
+    /**
+     * Find the person represented by an exact sign value.
+     *
+     * @return The {@link Thing} objects found.
+     * @throws MagmaCoreException If the search fails.
+     */
+    @Benchmark
+    public List<? extends Thing> findBySignValue() throws MagmaCoreException {
+        return state.service.findBySignValue(state.data.getCommunity(), state.data.getPattern(),
+                BenchmarkData.signValue(nextIndex()), now);
+    }
+
+    /**
+     * Find the people represented by a partial sign value, ignoring case.
+     *
+     * @return The {@link Thing} objects found.
+     * @throws MagmaCoreException If the search fails.
+     */
+    @Benchmark
+    public List<? extends Thing> findByPartialSignValue() throws MagmaCoreException {
+        return state.service.findByPartialSignValue(state.data.getCommunity(), state.data.getPattern(),
+                BenchmarkData.signValue(nextIndex()), now);
+    }
+
+    /**
+     * Find the members of a class by a partial sign value, ignoring case.
+     *
+     * @return The {@link Thing} objects found.
+     */
+    @Benchmark
+    public List<? extends Thing> findByPartialSignAndClass() {
+        final int index = nextIndex();
+        return state.service.findByPartialSignAndClass(BenchmarkData.signValue(index), state.data.getGroup(index),
+                now);
+    }
+
+    /**
+     * Find the members of a class by a partial sign value.
+     *
+     * @return The {@link Thing} objects found.
+     */
+    @Benchmark
+    public List<? extends Thing> findByPartialSignAndClassCaseSensitive() {
+        final int index = nextIndex();
+        return state.service.findByPartialSignAndClassCaseSensitive(BenchmarkData.signValue(index),
+                state.data.getGroup(index), now);
+    }
+
+    private int nextIndex() {
+        next = (next + 7919) % state.data.getSize();
+        return next;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.riot.Lang;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.service.MagmaCoreService;
+import uk.gov.gchq.magmacore.service.MagmaCoreServiceFactory;
+
+/**
+ * Compare dumping and loading the whole generated dataset as Turtle with the binary RDF Thrift and
+ * RDF Protobuf syntaxes used by {@link MagmaCoreService#snapshot}.
+ *
+ * <p>
+ * Loads always go into a new in-memory dataset so that they measure parsing rather than the store.
+ * Larger datasets can be compared with, for example,
+ * {@code java -jar benchmarks/target/benchmarks.jar SnapshotBenchmark -p store=memory -p size=100000}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({ "ttl", "thrift", "protobuf" })
+    private String format;
+
+    private Lang language;
+    private byte[] data;
+
+    /**
+     * Dump the dataset once in the chosen syntax, as the input to {@link #load()}.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Trial)
+    public void serialise(final BenchmarkDatabase state) {
+        language = switch (format) {
+            case "thrift" -> Lang.RDFTHRIFT;
+            case "protobuf" -> Lang.RDFPROTO;
+            default -> Lang.TTL;
+        };
+        data = dump(state);
+    }
+
+    /**
+     * Write the whole dataset.
+     *
+     * @param state The populated database.
+     * @return The serialised data.
+     */
+    @Benchmark
+    public byte[] dump(final BenchmarkDatabase state) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.service.exportRdf(out, language);
+        return out.toByteArray();
+    }
+
+    /**
+     * Read the whole dataset into an empty in-memory database.
+     *
+     * @return The loaded database.
+     */
+    @Benchmark
+    public MagmaCoreJenaDatabase load() {
+        final MagmaCoreJenaDatabase database = new MagmaCoreJenaDatabase(DatasetFactory.createTxnMem());
+        MagmaCoreServiceFactory.create(database).importRdf(new ByteArrayInputStream(data), language);
+        return database;
+    }
+}
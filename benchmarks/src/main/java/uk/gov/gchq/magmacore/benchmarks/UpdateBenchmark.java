@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+
+/**
+ * Compare {@link MagmaCoreJenaDatabase#update}, which writes only the triples that differ from those
+ * stored, against deleting and recreating every triple, for a one-value edit to a person with
+ * {@value #VALUES} values. Each iteration runs in one write transaction that is aborted at the end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateBenchmark {
+
+    /** The number of class memberships of the updated person. */
+    private static final int VALUES = 100;
+
+    private MagmaCoreJenaDatabase database;
+    private Person person;
+    private int next;
+
+    /**
+     * Begin a write transaction for the iteration and create the person to update.
+     *
+     * @param state The populated database.
+     */
+    @Setup(Level.Iteration)
+    public void beginWrite(final BenchmarkDatabase state) {
+        database = state.database;
+        person = state.data.newPerson(BenchmarkData.iri("updatedPerson"), 0);
+        for (int i = 0; i < VALUES; i++) {
+            person.addValue(HQDM.MEMBER_OF, state.data.getGroup(i));
+        }
+        database.beginWrite();
+        database.create(person);
+    }
+
+    /**
+     * Discard the changes made during the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void abort() {
+        database.abort();
+    }
+
+    /**
+     * Change the name of the person, writing only the changed triple.
+     *
+     * @return The {@link DbChangeSet} written.
+     */
+    @Benchmark
+    public DbChangeSet updateChanged() {
+        rename();
+        return database.updateWithDiff(person);
+    }
+
+    /**
+     * Change the name of the person, deleting and recreating all of its triples.
+     */
+    @Benchmark
+    public void rewriteAll() {
+        rename();
+        database.delete(person);
+        database.create(person);
+    }
+
+    private void rename() {
+        person.removeValue(HQDM.ENTITY_NAME, person.oneValue(HQDM.ENTITY_NAME));
+        next++;
+        person.addStringValue(HQDM.ENTITY_NAME, "updated person " + next);
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+/**
+ * JMH benchmarks for the Magma Core read, write, materialisation and snapshot paths.
+ *
+ * <p>
+ * Benchmarks that need a database use {@link uk.gov.gchq.magmacore.benchmarks.BenchmarkDatabase},
+ * which is parameterised by {@code store} ({@code memory} or {@code tdb2}) and {@code size} (the
+ * number of generated people). For example, to run only the read benchmarks in memory:
+ * {@code java -jar benchmarks/target/benchmarks.jar ReadBenchmark -p store=memory -p size=1000}.
+ * </p>
+ */
+package uk.gov.gchq.magmacore.benchmarks;
@@ -31,6 +31,7 @@ module uk.gov.gchq.magmacore {
     exports uk.gov.gchq.magmacore.database.query;
     exports uk.gov.gchq.magmacore.database.validation;
     exports uk.gov.gchq.magmacore.exception;
+    exports uk.gov.gchq.magmacore.service.cache;
     exports uk.gov.gchq.magmacore.service.dto;
     exports uk.gov.gchq.magmacore.service.transformation;
     exports uk.gov.gchq.magmacore.service;
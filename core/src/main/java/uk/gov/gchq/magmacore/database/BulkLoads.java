@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+
+import uk.gov.gchq.magmacore.service.dto.BulkLoadProgress;
+
+/**
+ * Utilities for loading RDF files in bulk: files are parsed in parallel into chunks of triples, which
+ * are handed to a single writer in the order they are produced.
+ */
+final class BulkLoads {
+
+    /**
+     * The number of triples in each chunk, which is also the interval between progress reports.
+     */
+    static final int CHUNK_SIZE = 100_000;
+
+    /**
+     * Marks the end of the chunks from one file.
+     */
+    private static final List<Triple> END = new ArrayList<>(0);
+
+    private BulkLoads() {
+    }
+
+    /**
+     * Parse files in parallel, one thread per file up to the number of processors, and pass the
+     * triples to a writer in chunks on the calling thread. Quads are loaded as triples of the default
+     * graph, as {@link MagmaCoreDatabase#load} does.
+     *
+     * @param paths    The files to parse, which may be compressed with gzip or bzip2.
+     * @param language The RDF syntax of the files, or null to detect it from each file name.
+     * @param writer   Receives each chunk of triples.
+     * @param progress Receives progress reports, or null.
+     */
+    static void load(final List<Path> paths, final Lang language, final Consumer<List<Triple>> writer,
+            final Consumer<BulkLoadProgress> progress) {
+        final long start = System.nanoTime();
+        final int parsers = Math.max(1, Math.min(paths.size(), Runtime.getRuntime().availableProcessors()));
+        final BlockingQueue<List<Triple>> chunks = new ArrayBlockingQueue<>(2 * parsers);
+        final ExecutorService executor = Executors.newFixedThreadPool(parsers);
+
+        long triples = 0;
+        try {
+            final List<Future<?>> parses = new ArrayList<>();
+            for (final Path path : paths) {
+                parses.add(executor.submit(() -> {
+                    try {
+                        RDFParser.source(path.toString()).lang(language).parse(new ChunkingStream(chunks));
+                    } finally {
+                        put(chunks, END);
+                    }
+                    return null;
+                }));
+            }
+
+            int running = parses.size();
+            while (running > 0) {
+                final List<Triple> chunk = chunks.take();
+                if (chunk == END) {
+                    running--;
+                } else {
+                    writer.accept(chunk);
+                    triples += chunk.size();
+                    report(progress, triples, start, false);
+                }
+            }
+
+            for (final Future<?> parse : parses) {
+                parse.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during bulk load", e);
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        report(progress, triples, start, true);
+    }
+
+    /**
+     * Report progress, if there is a listener.
+     *
+     * @param progress The listener, or null.
+     * @param triples  The number of triples loaded.
+     * @param start    The {@link System#nanoTime()} when the load started.
+     * @param finished Whether the load has finished.
+     */
+    private static void report(final Consumer<BulkLoadProgress> progress, final long triples, final long start,
+            final boolean finished) {
+        if (progress != null) {
+            progress.accept(new BulkLoadProgress(triples, Duration.ofNanos(System.nanoTime() - start), finished));
+        }
+    }
+
+    /**
+     * Put a chunk on the queue, waiting for space.
+     *
+     * @param chunks The queue.
+     * @param chunk  The chunk.
+     */
+    private static void put(final BlockingQueue<List<Triple>> chunks, final List<Triple> chunk) {
+        try {
+            chunks.put(chunk);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during bulk load", e);
+        }
+    }
+
+    /**
+     * A {@link org.apache.jena.riot.system.StreamRDF} that collects triples into chunks of
+     * {@link #CHUNK_SIZE} and puts each full chunk on a queue.
+     */
+    private static final class ChunkingStream extends StreamRDFBase {
+        private final BlockingQueue<List<Triple>> chunks;
+        private List<Triple> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        /**
+         * Constructs a ChunkingStream.
+         *
+         * @param chunks The queue to put chunks on.
+         */
+        private ChunkingStream(final BlockingQueue<List<Triple>> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void triple(final Triple triple) {
+            chunk.add(triple);
+            if (chunk.size() == CHUNK_SIZE) {
+                put(chunks, chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+
+        @Override
+        public void quad(final Quad quad) {
+            triple(quad.asTriple());
+        }
+
+        @Override
+        public void finish() {
+            if (!chunk.isEmpty()) {
+                put(chunks, chunk);
+                chunk = new ArrayList<>(0);
+            }
+        }
+    }
+}
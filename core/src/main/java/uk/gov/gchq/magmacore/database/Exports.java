@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+
+/**
+ * Utilities for streaming the contents of a database to an {@link OutputStream} without building a
+ * {@link org.apache.jena.rdf.model.Model}.
+ */
+final class Exports {
+
+    private static final String EXPORT_ALL = """
+            CONSTRUCT { ?s ?p ?o }
+            WHERE {
+                ?s ?p ?o.
+            }
+            """;
+
+    private static final String EXPORT_CLASS = """
+            PREFIX hqdm: <https://hqdmtop.github.io/hqdm#>
+            PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+
+            CONSTRUCT { ?s ?p ?o }
+            WHERE {
+                {
+                    ?s hqdm:member_of <%s>.
+                }
+                UNION
+                {
+                    ?s rdf:type <%s>.
+                    FILTER NOT EXISTS {
+                        ?s hqdm:member_of <%s>.
+                    }
+                }
+                ?s ?p ?o.
+            }
+            """;
+
+    private Exports() {
+    }
+
+    /**
+     * Get the CONSTRUCT query for an export.
+     *
+     * @param classIri The class whose members (by {@code hqdm:member_of} or {@code rdf:type}) should be
+     *                 exported, or null to export everything.
+     * @return The {@link Query}.
+     */
+    static Query query(final IRI classIri) {
+        if (classIri == null) {
+            return QueryFactory.create(EXPORT_ALL);
+        }
+        return PreparedQuery.of(EXPORT_CLASS).bind(classIri, classIri, classIri);
+    }
+
+    /**
+     * Check that triples can be written to a stream in a language.
+     *
+     * @param language The RDF {@link Lang}.
+     * @throws IllegalArgumentException if the language has no streaming writer.
+     */
+    static void checkStreamable(final Lang language) {
+        if (!StreamRDFWriter.registered(language)) {
+            throw new IllegalArgumentException("No streaming writer for " + language.getName());
+        }
+    }
+
+    /**
+     * Write triples to an {@link OutputStream} as they are read.
+     *
+     * @param triples  The triples.
+     * @param out      The {@link OutputStream}, which is flushed but not closed.
+     * @param language The RDF {@link Lang}, which must have a streaming writer.
+     * @return The number of triples written.
+     */
+    static long write(final Iterator<Triple> triples, final OutputStream out, final Lang language) {
+        final StreamRDF writer = StreamRDFWriter.getWriterStream(out, language);
+        long count = 0;
+        writer.start();
+        while (triples.hasNext()) {
+            writer.triple(triples.next());
+            count++;
+        }
+        writer.finish();
+        return count;
+    }
+}
@@ -15,15 +15,26 @@
 package uk.gov.gchq.magmacore.database;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.apache.jena.query.Query;
 import org.apache.jena.riot.Lang;
 
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
+import uk.gov.gchq.magmacore.database.query.QueryResult;
 import uk.gov.gchq.magmacore.database.query.QueryResultList;
 import uk.gov.gchq.magmacore.database.validation.ValidationReportEntry;
 import uk.gov.gchq.magmacore.hqdm.model.Thing;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.service.dto.BulkLoadProgress;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
 import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
 import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
 
@@ -69,6 +80,24 @@ public interface MagmaCoreDatabase {
      */
     Thing get(IRI iri);
 
+    /**
+     * Get several objects from the collection in a single operation.
+     *
+     * @param iris IRIs of the objects to get.
+     * @return A {@link Map} of {@link IRI} to the fetched HQDM objects. IRIs with no triples are not
+     *         included.
+     */
+    Map<IRI, Thing> getAll(Collection<IRI> iris);
+
+    /**
+     * Find all objects with any of the given {@link uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM#ENTITY_NAME}
+     * values in a single operation.
+     *
+     * @param entityNames Entity names to search for.
+     * @return A {@link Map} of {@link IRI} to the HQDM objects found.
+     */
+    Map<IRI, Thing> findByEntityNames(Collection<String> entityNames);
+
     /**
      * Add an entity to the collection.
      *
@@ -84,12 +113,29 @@ public interface MagmaCoreDatabase {
     void create(List<DbCreateOperation> creates);
 
     /**
-     * Update an existing entity within the collection.
+     * Update an existing entity within the collection, writing only the triples that differ from those
+     * stored for it.
      *
      * @param object The HQDM object being updated.
      */
     void update(Thing object);
 
+    /**
+     * Update an existing entity as {@link #update(Thing)} does, and return the change that was made.
+     *
+     * @param object The HQDM object being updated.
+     * @return The {@link DbChangeSet} of the triples that were deleted and created.
+     */
+    DbChangeSet updateWithDiff(Thing object);
+
+    /**
+     * Find the triples that {@link #update(Thing)} would delete and create, without writing them.
+     *
+     * @param object The HQDM object.
+     * @return The {@link DbChangeSet} of the triples to delete and create.
+     */
+    DbChangeSet diff(Thing object);
+
     /**
      * Delete an entity from the collection.
      *
@@ -121,6 +167,27 @@ public interface MagmaCoreDatabase {
      */
     List<Thing> findByPredicateIriOnly(IRI predicateIri);
 
+    /**
+     * Find object(s) that have a specific object associated with them, assembling each {@link Thing}
+     * as soon as all of its triples have been read. The {@link Stream} must be consumed and closed
+     * within the current transaction.
+     *
+     * @param predicateIri IRI of the predicate being queried.
+     * @param objectIri    IRI of the object to match.
+     * @return A {@link Stream} of the {@link Thing}(s) found, which must be closed by the caller.
+     */
+    Stream<Thing> findByPredicateIriAsStream(IRI predicateIri, IRI objectIri);
+
+    /**
+     * Find object(s) that have a specific HQDM-defined predication, assembling each {@link Thing} as
+     * soon as all of its triples have been read. The {@link Stream} must be consumed and closed within
+     * the current transaction.
+     *
+     * @param predicateIri IRI of the HQDM relationship type being queried.
+     * @return A {@link Stream} of the {@link Thing}(s) found, which must be closed by the caller.
+     */
+    Stream<Thing> findByPredicateIriOnlyAsStream(IRI predicateIri);
+
     /**
      * Find object(s) that have a specific value attribute associated with them.
      *
@@ -156,6 +223,21 @@ public interface MagmaCoreDatabase {
      */
     void dump(final PrintStream out, final Lang language);
 
+    /**
+     * Write the database to an {@link OutputStream} as each triple is read, in bounded memory. Unlike
+     * {@link #dump(PrintStream, Lang)} no model or pretty-printing state is built, so the language
+     * must have a streaming writer, such as N-Triples, N-Quads, RDF Thrift or RDF Protobuf. This reads
+     * in its own transaction, so must not be called within one.
+     *
+     * @param out      The {@link OutputStream}, which is not closed.
+     * @param language The RDF {@link Lang}.
+     * @param classIri Only export the objects that are a {@code hqdm:member_of} or {@code rdf:type} of
+     *                 this class, or null to export everything.
+     * @return The number of triples written.
+     * @throws IllegalArgumentException if the language has no streaming writer.
+     */
+    long exportStream(final OutputStream out, final Lang language, final IRI classIri);
+
     /**
      * Import data into the model.
      *
@@ -164,6 +246,27 @@ public interface MagmaCoreDatabase {
      */
     void load(final InputStream in, final Lang language);
 
+    /**
+     * Replace the whole contents of the database with the data from an {@link InputStream}, in a
+     * single write transaction so that readers see either the old or the new data. This manages its
+     * own transaction, so must not be called within one.
+     *
+     * @param in       {@link InputStream} to read from.
+     * @param language The RDF {@link Lang} of the data.
+     */
+    void restore(final InputStream in, final Lang language);
+
+    /**
+     * Load RDF files in bulk. This is much faster than {@link #load(InputStream, Lang)} for large
+     * files, but is not atomic: it manages its own writes, must not be called within a transaction,
+     * and leaves the data loaded so far in place if it fails.
+     *
+     * @param language The RDF syntax of the files, or null to detect it from each file name.
+     * @param progress Receives the number of triples loaded and the load rate periodically, or null.
+     * @param paths    The files to load, which may be compressed with gzip or bzip2.
+     */
+    void bulkLoad(final Lang language, final Consumer<BulkLoadProgress> progress, final Path... paths);
+
     /**
      * Perform a SPARQL query on the dataset.
      *
@@ -172,6 +275,37 @@ public interface MagmaCoreDatabase {
      */
     QueryResultList executeQuery(final String sparqlQueryString);
 
+    /**
+     * Perform a SPARQL query that has already been parsed, such as a bound {@link PreparedQuery}.
+     *
+     * @param query SPARQL {@link Query} to execute.
+     * @return Results of the query.
+     */
+    default QueryResultList executeQuery(final Query query) {
+        return executeQuery(query.serialize());
+    }
+
+    /**
+     * Perform a SPARQL query on the dataset and stream the results rather than holding them all in
+     * memory. The {@link Stream} must be consumed and closed within the transaction that was active
+     * when it was created, preferably with a try-with-resources block.
+     *
+     * @param sparqlQueryString SPARQL query to execute.
+     * @return A {@link Stream} of {@link QueryResult} that must be closed by the caller.
+     */
+    Stream<QueryResult> executeQueryAsStream(final String sparqlQueryString);
+
+    /**
+     * Perform a SPARQL query that has already been parsed and stream the results. The {@link Stream}
+     * must be consumed and closed within the transaction that was active when it was created.
+     *
+     * @param query SPARQL {@link Query} to execute.
+     * @return A {@link Stream} of {@link QueryResult} that must be closed by the caller.
+     */
+    default Stream<QueryResult> executeQueryAsStream(final Query query) {
+        return executeQueryAsStream(query.serialize());
+    }
+
     /**
      * Convert a {@link QueryResultList} to a {@link List} of {@link Thing}.
      *
@@ -180,6 +314,16 @@ public interface MagmaCoreDatabase {
      */
     List<Thing> toTopObjects(final QueryResultList queryResultsList);
 
+    /**
+     * Execute a SELECT query returning subject, predicate and object columns, in that order, and
+     * stream the results as {@link Thing} objects. The rows must be ordered by subject (e.g. using
+     * {@code ORDER BY ?s}) so that each {@link Thing} can be emitted as soon as its subject changes.
+     *
+     * @param sparqlQueryString SELECT query ordered by subject.
+     * @return A {@link Stream} of {@link Thing} that must be closed by the caller.
+     */
+    Stream<Thing> executeQueryForThingsAsStream(final String sparqlQueryString);
+
     /**
      * Execute a CONSTRUCT query.
      *
@@ -15,29 +15,36 @@
 package uk.gov.gchq.magmacore.database;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.jena.graph.Graph;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QueryFactory;
-import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.query.TxnType;
 import org.apache.jena.rdf.model.InfModel;
-import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.ResIterator;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
@@ -47,21 +54,30 @@ import org.apache.jena.reasoner.rulesys.GenericRuleReasoner;
 import org.apache.jena.reasoner.rulesys.Rule;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.loader.DataLoader;
+import org.apache.jena.tdb2.loader.LoaderFactory;
+import org.apache.jena.tdb2.sys.TDBInternal;
 import org.apache.jena.update.UpdateExecutionFactory;
 import org.apache.jena.update.UpdateFactory;
 import org.apache.jena.update.UpdateProcessor;
 import org.apache.jena.update.UpdateRequest;
 import org.apache.jena.util.PrintUtil;
 
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
 import uk.gov.gchq.magmacore.database.query.QueryResult;
 import uk.gov.gchq.magmacore.database.query.QueryResultList;
 import uk.gov.gchq.magmacore.database.validation.ValidationReportEntry;
 import uk.gov.gchq.magmacore.hqdm.model.Thing;
 import uk.gov.gchq.magmacore.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
 import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+import uk.gov.gchq.magmacore.service.dto.BulkLoadProgress;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
 import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
 import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
 
@@ -71,6 +87,16 @@ import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
  */
 public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
 
+    private static final String FIND_BY_PREDICATE_AND_IRI = "SELECT ?s ?p ?o WHERE { ?s ?p ?o. ?s <%s> <%s>.}";
+
+    private static final String FIND_BY_PREDICATE_AND_STRING = "SELECT ?s ?p ?o WHERE { ?s ?p ?o. ?s <%s> \"%s\".}";
+
+    private static final String FIND_BY_PREDICATE_AND_STRING_CASE_INSENSITIVE = """
+            SELECT ?s ?p ?o WHERE {
+                { SELECT ?s ?p ?o WHERE { ?s ?p ?o. } }
+                { SELECT ?s WHERE { ?s <%s> ?o. BIND(LCASE(?o) AS ?lcase) FILTER(?lcase = "%s") } }
+            }""";
+
     private final Dataset dataset;
 
     /**
@@ -181,16 +207,67 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
      */
     @Override
     public Thing get(final IRI iri) {
-        final String query = String.format("SELECT (<%1$s> as ?s) ?p ?o WHERE {<%1$s> ?p ?o.}", iri.toString());
-        final QueryResultList list = executeQuery(query);
-        final List<Thing> objects = toTopObjects(list);
-        if (!objects.isEmpty()) {
-            return objects.get(0);
+        // Read the subject's statements directly from the graph rather than building and parsing a
+        // SPARQL query, since this is the most frequently used lookup.
+        final Model model = dataset.getDefaultModel();
+        final Resource subject = model.createResource(iri.getIri());
+        final List<Pair<IRI, Object>> pairs = new ArrayList<>();
+
+        final StmtIterator statements = model.listStatements(subject, null, (RDFNode) null);
+        try {
+            while (statements.hasNext()) {
+                final Statement statement = statements.nextStatement();
+                pairs.add(QueryResultStreams.toPair(statement.getPredicate(), statement.getObject()));
+            }
+        } finally {
+            statements.close();
+        }
+
+        if (!pairs.isEmpty()) {
+            return HqdmObjectFactory.create(iri, pairs);
         } else {
             return null;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<IRI, Thing> getAll(final Collection<IRI> iris) {
+        final Map<IRI, Thing> result = new HashMap<>();
+        for (final IRI iri : iris) {
+            if (!result.containsKey(iri)) {
+                final Thing thing = get(iri);
+                if (thing != null) {
+                    result.put(iri, thing);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<IRI, Thing> findByEntityNames(final Collection<String> entityNames) {
+        final Model model = dataset.getDefaultModel();
+        final Property entityName = model.createProperty(HQDM.ENTITY_NAME.getIri());
+        final Set<IRI> subjects = new HashSet<>();
+
+        for (final String name : entityNames) {
+            final ResIterator resources = model.listResourcesWithProperty(entityName, model.createLiteral(name));
+            try {
+                resources.filterKeep(Resource::isURIResource)
+                        .forEachRemaining(r -> subjects.add(IRI.of(r.getURI())));
+            } finally {
+                resources.close();
+            }
+        }
+        return getAll(subjects);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -241,8 +318,44 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
      */
     @Override
     public void update(final Thing object) {
-        delete(object);
-        create(object);
+        updateWithDiff(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DbChangeSet updateWithDiff(final Thing object) {
+        final ThingDiff diff = storedDiff(object);
+        final Graph graph = dataset.getDefaultModel().getGraph();
+        diff.getRemoved().forEach(graph::delete);
+        create(diff.getChangeSet().getCreates());
+        return diff.getChangeSet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DbChangeSet diff(final Thing object) {
+        return storedDiff(object).getChangeSet();
+    }
+
+    /**
+     * Compare a {@link Thing} with the statements stored for its subject.
+     *
+     * @param object The {@link Thing}.
+     * @return The {@link ThingDiff}.
+     */
+    private ThingDiff storedDiff(final Thing object) {
+        final Model model = dataset.getDefaultModel();
+        final StmtIterator stored = model.listStatements(model.createResource(object.getId().getIri()), null,
+                (RDFNode) null);
+        try {
+            return ThingDiff.of(object, stored);
+        } finally {
+            stored.close();
+        }
     }
 
     /**
@@ -306,16 +419,29 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
      * {@inheritDoc}
      */
     @Override
-    public List<Thing> findByPredicateIriAndValue(final IRI predicateIri, final Object value) {
-        final String query;
+    public Stream<Thing> findByPredicateIriAsStream(final IRI predicateIri, final IRI objectIri) {
+        final String query = "SELECT ?s ?p ?o WHERE {?s ?p ?o. ?s <" + predicateIri.toString() + "> <"
+                + objectIri.toString() + ">.} ORDER BY ?s";
+        return executeQueryForThingsAsStream(query);
+    }
 
-        if (value instanceof IRI) {
-            query = "SELECT ?s ?p ?o WHERE { ?s ?p ?o.  ?s <" + predicateIri.toString() + "> <" + value
-                    + ">.}";
-        } else {
-            query = "SELECT ?s ?p ?o WHERE { ?s ?p ?o.  ?s <" + predicateIri.toString() + "> \"\"\"" + value
-                    + "\"\"\".}";
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Thing> findByPredicateIriOnlyAsStream(final IRI predicateIri) {
+        final String query = "SELECT ?s ?p ?o WHERE {{select distinct ?s where {?s <"
+                + predicateIri.toString() + "> ?o.}} ?s ?p ?o.} ORDER BY ?s";
+        return executeQueryForThingsAsStream(query);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Thing> findByPredicateIriAndValue(final IRI predicateIri, final Object value) {
+        final String template = value instanceof IRI ? FIND_BY_PREDICATE_AND_IRI : FIND_BY_PREDICATE_AND_STRING;
+        final Query query = PreparedQuery.of(template).bind(predicateIri, value);
         final QueryResultList list = executeQuery(query);
         return toTopObjects(list);
     }
@@ -325,9 +451,7 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
      */
     @Override
     public List<Thing> findByPredicateIriAndStringCaseInsensitive(final IRI predicateIri, final String value) {
-        final String query = "SELECT ?s ?p ?o WHERE {{ SELECT ?s ?p ?o where { ?s ?p ?o.}}{select ?s where {?s <"
-                + predicateIri.toString() + "> ?o. BIND(LCASE(?o) AS ?lcase) FILTER(?lcase= \"\"\"" + value
-                + "\"\"\")}}}";
+        final Query query = PreparedQuery.of(FIND_BY_PREDICATE_AND_STRING_CASE_INSENSITIVE).bind(predicateIri, value);
         final QueryResultList list = executeQuery(query);
         return toTopObjects(list);
     }
@@ -340,12 +464,9 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
      */
     public List<Thing> executeConstruct(final String sparqlQueryString) {
         final Query query = QueryFactory.create(sparqlQueryString);
-        final QueryExecution queryExec = QueryExecutionFactory.create(query, dataset);
-
-        final Model model = queryExec.execConstruct();
-        final Query selectAllQuery = QueryFactory.create("select ?s ?p ?o where { ?s ?p ?o. }");
-        final QueryExecution selectAllQueryExec = QueryExecutionFactory.create(selectAllQuery, model);
-        return toTopObjects(getQueryResultList(selectAllQueryExec));
+        try (QueryExecution queryExec = QueryExecutionFactory.create(query, dataset)) {
+            return QueryResultStreams.toThings(queryExec.execConstruct());
+        }
     }
 
     /**
@@ -371,6 +492,44 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
         return getQueryResultList(queryExec);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueryResultList executeQuery(final Query query) {
+        final QueryExecution queryExec = QueryExecutionFactory.create(query, dataset);
+        return getQueryResultList(queryExec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<QueryResult> executeQueryAsStream(final String sparqlQueryString) {
+        final Query query = QueryFactory.create(sparqlQueryString);
+        final QueryExecution queryExec = QueryExecutionFactory.create(query, dataset);
+        return QueryResultStreams.stream(queryExec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<QueryResult> executeQueryAsStream(final Query query) {
+        final QueryExecution queryExec = QueryExecutionFactory.create(query, dataset);
+        return QueryResultStreams.stream(queryExec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Thing> executeQueryForThingsAsStream(final String sparqlQueryString) {
+        final Query query = QueryFactory.create(sparqlQueryString);
+        final QueryExecution queryExec = QueryExecutionFactory.create(query, dataset);
+        return QueryResultStreams.streamThings(queryExec);
+    }
+
     /**
      * Execute a SPARQL query and construct a list of HQDM objects from the
      * resulting RDF triples.
@@ -383,16 +542,7 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
         final List<QueryResult> queryResults = new ArrayList<>();
         final QueryResultList queryResultList = new QueryResultList(resultSet.getResultVars(), queryResults);
         while (resultSet.hasNext()) {
-            final QuerySolution querySolution = resultSet.next();
-            final Iterator<String> varNames = querySolution.varNames();
-            final QueryResult queryResult = new QueryResult();
-
-            while (varNames.hasNext()) {
-                final String varName = varNames.next();
-                final RDFNode node = querySolution.get(varName);
-                queryResult.set(varName, node);
-            }
-            queryResults.add(queryResult);
+            queryResults.add(QueryResultStreams.toQueryResult(resultSet.next()));
         }
         queryExec.close();
         return queryResultList;
@@ -424,19 +574,13 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
                 dataModelObject = new ArrayList<>();
                 objectMap.put(subjectValue, dataModelObject);
             }
-            if (objectValue instanceof Literal) {
-                dataModelObject.add(new Pair<>(new IRI(predicateValue.toString()), objectValue.toString()));
-            } else if (objectValue instanceof Resource) {
-                dataModelObject.add(new Pair<>(new IRI(predicateValue.toString()), new IRI(objectValue.toString())));
-            } else {
-                throw new RuntimeException("objectValue is of unknown type: " + objectValue.getClass());
-            }
+            dataModelObject.add(QueryResultStreams.toPair(predicateValue, objectValue));
         });
 
         return objectMap
                 .entrySet()
                 .stream()
-                .map(entry -> HqdmObjectFactory.create(new IRI(entry.getKey().toString()), entry.getValue()))
+                .map(entry -> HqdmObjectFactory.create(IRI.of(entry.getKey().toString()), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
@@ -468,6 +612,20 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
         abort();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exportStream(final OutputStream out, final Lang language, final IRI classIri) {
+        Exports.checkStreamable(language);
+        beginRead();
+        try (QueryExecution queryExec = QueryExecutionFactory.create(Exports.query(classIri), dataset)) {
+            return Exports.write(queryExec.execConstructTriples(), out, language);
+        } finally {
+            abort();
+        }
+    }
+
     /**
      * Import data into the model.
      *
@@ -481,6 +639,65 @@ public class MagmaCoreJenaDatabase implements MagmaCoreDatabase {
         commit();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(final InputStream in, final Lang language) {
+        beginWrite();
+        try {
+            final DatasetGraph dsg = dataset.asDatasetGraph();
+            dsg.clear();
+            RDFDataMgr.read(dsg.getDefaultGraph(), in, language);
+            commit();
+        } catch (final RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * A TDB2 dataset is loaded with the TDB2 parallel loader, which builds its indexes in parallel.
+     * Other datasets are loaded in chunks, each in its own write transaction. In both cases the files
+     * are parsed in parallel.
+     * </p>
+     */
+    @Override
+    public void bulkLoad(final Lang language, final Consumer<BulkLoadProgress> progress, final Path... paths) {
+        final DatasetGraph dsg = dataset.asDatasetGraph();
+        if (!TDBInternal.isTDB2(dsg)) {
+            BulkLoads.load(List.of(paths), language, chunk -> {
+                beginWrite();
+                try {
+                    final Graph graph = dsg.getDefaultGraph();
+                    chunk.forEach(graph::add);
+                    commit();
+                } catch (final RuntimeException e) {
+                    abort();
+                    throw e;
+                }
+            }, progress);
+            return;
+        }
+
+        final DataLoader loader = LoaderFactory.parallelLoader(dsg, (fmt, args) -> {
+        });
+        loader.startBulk();
+        try {
+            final StreamRDF stream = loader.stream();
+            stream.start();
+            BulkLoads.load(List.of(paths), language, chunk -> chunk.forEach(stream::triple), progress);
+            stream.finish();
+            loader.finishBulk();
+        } catch (final RuntimeException e) {
+            loader.finishException(e);
+            throw e;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -15,28 +15,36 @@
 package uk.gov.gchq.magmacore.database;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
-import org.apache.jena.query.QueryExecutionFactory;
-import org.apache.jena.query.QueryFactory;
-import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.query.TxnType;
 import org.apache.jena.rdf.model.InfModel;
-import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
@@ -50,15 +58,25 @@ import org.apache.jena.reasoner.rulesys.Rule;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.modify.request.QuadDataAcc;
+import org.apache.jena.sparql.modify.request.UpdateDataDelete;
+import org.apache.jena.sparql.modify.request.UpdateDataInsert;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.jena.update.UpdateRequest;
 import org.apache.jena.util.PrintUtil;
 
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
 import uk.gov.gchq.magmacore.database.query.QueryResult;
 import uk.gov.gchq.magmacore.database.query.QueryResultList;
 import uk.gov.gchq.magmacore.database.validation.ValidationReportEntry;
 import uk.gov.gchq.magmacore.hqdm.model.Thing;
 import uk.gov.gchq.magmacore.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
 import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+import uk.gov.gchq.magmacore.service.dto.BulkLoadProgress;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
 import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
 import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
 
@@ -67,16 +85,70 @@ import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
  */
 public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
 
+    private static final String FIND_BY_PREDICATE_AND_IRI = "SELECT ?s ?p ?o WHERE { ?s ?p ?o. ?s <%s> <%s>.}";
+
+    private static final String FIND_BY_PREDICATE_AND_STRING = "SELECT ?s ?p ?o WHERE { ?s ?p ?o. ?s <%s> \"%s\".}";
+
+    private static final String FIND_BY_PREDICATE_AND_STRING_CASE_INSENSITIVE = """
+            SELECT ?s ?p ?o WHERE {
+                { SELECT ?s ?p ?o WHERE { ?s ?p ?o. } }
+                { SELECT ?s WHERE { ?s <%s> ?o. BIND(LCASE(?o) AS ?lcase) FILTER(?lcase = "%s") } }
+            }""";
+
+    /** The default maximum number of triples sent in each create or delete request. */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
     private final RDFConnection connection;
+    private final int batchSize;
+    private final int maxRequestsInFlight;
 
     /**
-     * Constructs a MagmaCoreRemoteSparqlDatabase connection to a SPARQL server.
+     * Constructs a MagmaCoreRemoteSparqlDatabase connection to a SPARQL server, sending up to
+     * {@value #DEFAULT_BATCH_SIZE} triples per write request, one request at a time.
      *
      * @param serviceUrl The URL of the SPARQL update endpoint.
      */
     public MagmaCoreRemoteSparqlDatabase(final String serviceUrl) {
-        connection = RDFConnectionRemote.newBuilder().destination(serviceUrl).queryEndpoint("query")
-                .updateEndpoint("update").triplesFormat(RDFFormat.RDFJSON).build();
+        this(serviceUrl, DEFAULT_BATCH_SIZE, 1);
+    }
+
+    /**
+     * Constructs a MagmaCoreRemoteSparqlDatabase connection to a SPARQL server with a limit on the size
+     * of the requests made by {@link #create(List)} and {@link #delete(List)}. Larger lists are split
+     * into batches, and up to {@code maxRequestsInFlight} batches are sent concurrently.
+     *
+     * <p>
+     * Concurrent batches are not atomic: if one fails, the others may already have been applied.
+     * </p>
+     *
+     * @param serviceUrl          The URL of the SPARQL update endpoint.
+     * @param batchSize           The maximum number of triples in each request.
+     * @param maxRequestsInFlight The maximum number of requests to send at once.
+     * @throws IllegalArgumentException if either limit is less than one.
+     */
+    public MagmaCoreRemoteSparqlDatabase(final String serviceUrl, final int batchSize,
+            final int maxRequestsInFlight) {
+        this(RDFConnectionRemote.newBuilder().destination(serviceUrl).queryEndpoint("query")
+                .updateEndpoint("update").triplesFormat(RDFFormat.NTRIPLES).build(), batchSize,
+                maxRequestsInFlight);
+    }
+
+    /**
+     * Constructs a MagmaCoreRemoteSparqlDatabase over an existing {@link RDFConnection}.
+     *
+     * @param connection          The {@link RDFConnection}.
+     * @param batchSize           The maximum number of triples in each request.
+     * @param maxRequestsInFlight The maximum number of requests to send at once.
+     * @throws IllegalArgumentException if either limit is less than one.
+     */
+    MagmaCoreRemoteSparqlDatabase(final RDFConnection connection, final int batchSize,
+            final int maxRequestsInFlight) {
+        if (batchSize < 1 || maxRequestsInFlight < 1) {
+            throw new IllegalArgumentException("Batch size and requests in flight must be at least one");
+        }
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.maxRequestsInFlight = maxRequestsInFlight;
     }
 
     /**
@@ -164,6 +236,53 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<IRI, Thing> getAll(final Collection<IRI> iris) {
+        if (iris.isEmpty()) {
+            return Map.of();
+        }
+        final String values = iris
+                .stream()
+                .distinct()
+                .map(iri -> "<" + iri.getIri() + ">")
+                .collect(Collectors.joining(" "));
+        final String query = "SELECT ?s ?p ?o WHERE { VALUES ?s { " + values + " } ?s ?p ?o. }";
+        return toMap(toTopObjects(executeQuery(query)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<IRI, Thing> findByEntityNames(final Collection<String> entityNames) {
+        if (entityNames.isEmpty()) {
+            return Map.of();
+        }
+        final String values = entityNames
+                .stream()
+                .distinct()
+                .map(name -> FmtUtils.stringForNode(NodeFactory.createLiteral(name)))
+                .collect(Collectors.joining(" "));
+        final String query = "SELECT ?s ?p ?o WHERE { VALUES ?name { " + values + " } ?s <"
+                + HQDM.ENTITY_NAME.getIri() + "> ?name. ?s ?p ?o. }";
+        return toMap(toTopObjects(executeQuery(query)));
+    }
+
+    /**
+     * Index a {@link List} of {@link Thing} by {@link IRI}.
+     *
+     * @param things The {@link Thing} objects.
+     * @return A {@link Map} of {@link IRI} to {@link Thing}.
+     */
+    private static Map<IRI, Thing> toMap(final List<Thing> things) {
+        final Map<IRI, Thing> result = new HashMap<>();
+        things.forEach(t -> result.put(t.getId(), t));
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -190,24 +309,11 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
      */
     @Override
     public void create(final List<DbCreateOperation> creates) {
-        final Model forCreation = ModelFactory.createDefaultModel();
-
-        creates.forEach(create -> {
-            final Resource s = forCreation.createResource(create.subject.getIri());
-            final Property p = forCreation.createProperty(create.predicate.getIri());
-            final Object value = create.object;
-
-            final RDFNode o;
-
-            if (value instanceof IRI) {
-                o = forCreation.createResource(value.toString());
-            } else {
-                o = forCreation.createLiteral(value.toString());
-            }
-            forCreation.add(forCreation.createStatement(s, p, o));
+        sendInBatches(creates, batch -> {
+            final Graph graph = GraphFactory.createDefaultGraph();
+            batch.forEach(create -> graph.add(toTriple(create.subject, create.predicate, create.object)));
+            connection.load(ModelFactory.createModelForGraph(graph));
         });
-
-        connection.load(forCreation);
     }
 
     /**
@@ -215,8 +321,58 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
      */
     @Override
     public void update(final Thing object) {
-        delete(object);
-        create(object);
+        updateWithDiff(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DbChangeSet updateWithDiff(final Thing object) {
+        final ThingDiff diff = storedDiff(object);
+        final UpdateRequest request = new UpdateRequest();
+        if (!diff.getRemoved().isEmpty()) {
+            final QuadDataAcc data = new QuadDataAcc();
+            diff.getRemoved().forEach(data::addTriple);
+            request.add(new UpdateDataDelete(data));
+        }
+        final List<DbCreateOperation> creates = diff.getChangeSet().getCreates();
+        if (!creates.isEmpty()) {
+            final QuadDataAcc data = new QuadDataAcc();
+            creates.forEach(create -> data.addTriple(toTriple(create.subject, create.predicate, create.object)));
+            request.add(new UpdateDataInsert(data));
+        }
+        if (!request.getOperations().isEmpty()) {
+            connection.update(request);
+        }
+        return diff.getChangeSet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DbChangeSet diff(final Thing object) {
+        return storedDiff(object).getChangeSet();
+    }
+
+    /**
+     * Compare a {@link Thing} with the statements stored for its subject, fetched with one CONSTRUCT
+     * query.
+     *
+     * @param object The {@link Thing}.
+     * @return The {@link ThingDiff}.
+     */
+    private ThingDiff storedDiff(final Thing object) {
+        final String query = String.format("CONSTRUCT {<%1$s> ?p ?o} WHERE {<%1$s> ?p ?o}", object.getId());
+        try (QueryExecution queryExec = connection.query(query)) {
+            final StmtIterator stored = queryExec.execConstruct().listStatements();
+            try {
+                return ThingDiff.of(object, stored);
+            } finally {
+                stored.close();
+            }
+        }
     }
 
     /**
@@ -233,34 +389,64 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
      */
     @Override
     public void delete(final List<DbDeleteOperation> deletes) {
-        if (deletes.isEmpty()) {
+        sendInBatches(deletes, batch -> {
+            final QuadDataAcc data = new QuadDataAcc();
+            batch.forEach(delete -> data.addTriple(toTriple(delete.subject, delete.predicate, delete.object)));
+            connection.update(new UpdateRequest(new UpdateDataDelete(data)));
+        });
+    }
+
+    /**
+     * Send a list of operations in batches of at most {@code batchSize}, with up to
+     * {@code maxRequestsInFlight} batches in progress at once. Each batch is only built when it is
+     * sent, so a large list is never serialised as a whole.
+     *
+     * @param <T>        The type of operation.
+     * @param operations The operations.
+     * @param send       Sends one batch.
+     */
+    private <T> void sendInBatches(final List<T> operations, final Consumer<List<T>> send) {
+        final List<List<T>> batches = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i += batchSize) {
+            batches.add(operations.subList(i, Math.min(i + batchSize, operations.size())));
+        }
+        if (batches.size() <= 1 || maxRequestsInFlight == 1) {
+            batches.forEach(send);
             return;
         }
 
-        final StringBuilder statement = new StringBuilder();
-        statement.append("delete data { ");
-        deletes.forEach(delete -> {
-            statement.append("<");
-            statement.append(delete.subject.getIri());
-            statement.append("> ");
-
-            statement.append("<");
-            statement.append(delete.predicate.getIri());
-            statement.append("> ");
-
-            if (delete.object instanceof IRI) {
-                statement.append("<");
-                statement.append(delete.object.toString());
-                statement.append(">.");
-            } else {
-                statement.append("\"");
-                statement.append(delete.object.toString());
-                statement.append("\".");
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(batches.size(), maxRequestsInFlight));
+        try {
+            final List<Future<?>> requests = new ArrayList<>();
+            for (final List<T> batch : batches) {
+                requests.add(executor.submit(() -> send.accept(batch)));
             }
-        });
-        statement.append("}");
+            for (final Future<?> request : requests) {
+                request.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending updates", e);
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-        executeUpdate(statement.toString());
+    /**
+     * Convert the parts of an operation to a {@link Triple}, with plain literals for values that are
+     * not {@link IRI}s.
+     *
+     * @param subject   The subject {@link IRI}.
+     * @param predicate The predicate {@link IRI}.
+     * @param object    The object, an {@link IRI} or a value.
+     * @return The {@link Triple}.
+     */
+    private static Triple toTriple(final IRI subject, final IRI predicate, final Object object) {
+        final Node o = object instanceof IRI ? NodeFactory.createURI(object.toString())
+                : NodeFactory.createLiteral(object.toString());
+        return Triple.create(NodeFactory.createURI(subject.getIri()), NodeFactory.createURI(predicate.getIri()), o);
     }
 
     /**
@@ -289,16 +475,29 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
      * {@inheritDoc}
      */
     @Override
-    public List<Thing> findByPredicateIriAndValue(final IRI predicateIri, final Object value) {
-        final String query;
+    public Stream<Thing> findByPredicateIriAsStream(final IRI predicateIri, final IRI objectIri) {
+        final String query = "SELECT ?s ?p ?o WHERE {?s ?p ?o. ?s <" + predicateIri.toString() + "> <"
+                + objectIri.toString() + ">.} ORDER BY ?s";
+        return executeQueryForThingsAsStream(query);
+    }
 
-        if (value instanceof IRI) {
-            query = "SELECT ?s ?p ?o WHERE { ?s ?p ?o.  ?s <" + predicateIri.toString() + "> <" + value
-                    + ">.}";
-        } else {
-            query = "SELECT ?s ?p ?o WHERE { ?s ?p ?o.  ?s <" + predicateIri.toString() + "> \"\"\"" + value
-                    + "\"\"\".}";
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Thing> findByPredicateIriOnlyAsStream(final IRI predicateIri) {
+        final String query = "SELECT ?s ?p ?o WHERE {{select distinct ?s where {?s <"
+                + predicateIri.toString() + "> ?o.}} ?s ?p ?o.} ORDER BY ?s";
+        return executeQueryForThingsAsStream(query);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Thing> findByPredicateIriAndValue(final IRI predicateIri, final Object value) {
+        final String template = value instanceof IRI ? FIND_BY_PREDICATE_AND_IRI : FIND_BY_PREDICATE_AND_STRING;
+        final Query query = PreparedQuery.of(template).bind(predicateIri, value);
 
         final QueryResultList list = executeQuery(query);
         return toTopObjects(list);
@@ -310,9 +509,7 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
     @Override
     public List<Thing> findByPredicateIriAndStringCaseInsensitive(final IRI predicateIri,
             final String value) {
-        final String query = "SELECT ?s ?p ?o WHERE {{ SELECT ?s ?p ?o where { ?s ?p ?o.}}{select ?s where {?s <"
-                + predicateIri.toString() + "> ?o. BIND(LCASE(?o) AS ?lcase) FILTER(?lcase= \"\"\"" + value
-                + "\"\"\")}}}";
+        final Query query = PreparedQuery.of(FIND_BY_PREDICATE_AND_STRING_CASE_INSENSITIVE).bind(predicateIri, value);
         final QueryResultList list = executeQuery(query);
         return toTopObjects(list);
     }
@@ -324,12 +521,9 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
      * @return a List of {@link Thing}
      */
     public List<Thing> executeConstruct(final String sparqlQueryString) {
-        final QueryExecution queryExec = connection.query(sparqlQueryString);
-
-        final Model model = queryExec.execConstruct();
-        final Query selectAllQuery = QueryFactory.create("select ?s ?p ?o where { ?s ?p ?o. }");
-        final QueryExecution selectAllQueryExec = QueryExecutionFactory.create(selectAllQuery, model);
-        return toTopObjects(getQueryResultList(selectAllQueryExec));
+        try (QueryExecution queryExec = connection.query(sparqlQueryString)) {
+            return QueryResultStreams.toThings(queryExec.execConstruct());
+        }
     }
 
     /**
@@ -354,6 +548,42 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
         return getQueryResultList(queryExec);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueryResultList executeQuery(final Query query) {
+        final QueryExecution queryExec = connection.query(query);
+        return getQueryResultList(queryExec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<QueryResult> executeQueryAsStream(final String sparqlQueryString) {
+        final QueryExecution queryExec = connection.query(sparqlQueryString);
+        return QueryResultStreams.stream(queryExec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<QueryResult> executeQueryAsStream(final Query query) {
+        final QueryExecution queryExec = connection.query(query);
+        return QueryResultStreams.stream(queryExec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Thing> executeQueryForThingsAsStream(final String sparqlQueryString) {
+        final QueryExecution queryExec = connection.query(sparqlQueryString);
+        return QueryResultStreams.streamThings(queryExec);
+    }
+
     /**
      * Execute a SPARQL query and construct a list of HQDM objects from the
      * resulting RDF triples.
@@ -368,17 +598,7 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
                 queryResults);
 
         while (resultSet.hasNext()) {
-            final QuerySolution querySolution = resultSet.next();
-            final Iterator<String> varNames = querySolution.varNames();
-            final QueryResult queryResult = new QueryResult();
-
-            while (varNames.hasNext()) {
-                final String varName = varNames.next();
-                final RDFNode node = querySolution.get(varName);
-                queryResult.set(varName, node);
-            }
-
-            queryResults.add(queryResult);
+            queryResults.add(QueryResultStreams.toQueryResult(resultSet.next()));
         }
 
         queryExec.close();
@@ -410,20 +630,13 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
                 dataModelObject = new ArrayList<>();
                 objectMap.put(subjectValue, dataModelObject);
             }
-            if (objectValue instanceof Literal) {
-                dataModelObject.add(new Pair<>(new IRI(predicateValue.toString()), objectValue.toString()));
-            } else if (objectValue instanceof Resource) {
-                dataModelObject.add(new Pair<>(new IRI(predicateValue.toString()),
-                        new IRI(objectValue.toString())));
-            } else {
-                throw new RuntimeException("objectValue is of unknown type: " + objectValue.getClass());
-            }
+            dataModelObject.add(QueryResultStreams.toPair(predicateValue, objectValue));
         });
 
         return objectMap
                 .entrySet()
                 .stream()
-                .map(entry -> HqdmObjectFactory.create(new IRI(entry.getKey().toString()), entry.getValue()))
+                .map(entry -> HqdmObjectFactory.create(IRI.of(entry.getKey().toString()), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
@@ -453,6 +666,17 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
         RDFDataMgr.write(out, dataset.getDefaultModel(), language);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exportStream(final OutputStream out, final Lang language, final IRI classIri) {
+        Exports.checkStreamable(language);
+        try (QueryExecution queryExec = connection.query(Exports.query(classIri))) {
+            return Exports.write(queryExec.execConstructTriples(), out, language);
+        }
+    }
+
     /**
      * Import data into the model.
      *
@@ -468,6 +692,38 @@ public class MagmaCoreRemoteSparqlDatabase implements MagmaCoreDatabase {
         commit();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The data is parsed locally and then replaces the default graph of the server with a single
+     * request, so other named graphs on the server are left unchanged.
+     * </p>
+     */
+    @Override
+    public void restore(final InputStream in, final Lang language) {
+        final Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, in, language);
+        connection.put(model);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The files are parsed in parallel and each chunk of triples is added to the default graph of the
+     * server with a separate request.
+     * </p>
+     */
+    @Override
+    public void bulkLoad(final Lang language, final Consumer<BulkLoadProgress> progress, final Path... paths) {
+        BulkLoads.load(List.of(paths), language, chunk -> {
+            final Model model = ModelFactory.createDefaultModel();
+            chunk.forEach(model.getGraph()::add);
+            connection.load(model);
+        }, progress);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+
+import uk.gov.gchq.magmacore.database.query.QueryResult;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+
+/**
+ * Utilities for reading SPARQL SELECT results lazily rather than materialising them into a
+ * {@link uk.gov.gchq.magmacore.database.query.QueryResultList}.
+ */
+final class QueryResultStreams {
+
+    private QueryResultStreams() {
+    }
+
+    /**
+     * Execute a SELECT query and expose the results as a {@link Stream} of {@link QueryResult}. Each
+     * row is only converted when it is consumed, and closing the {@link Stream} closes the
+     * {@link QueryExecution}.
+     *
+     * @param queryExec The {@link QueryExecution} to run.
+     * @return A {@link Stream} of {@link QueryResult} which must be closed by the caller.
+     */
+    static Stream<QueryResult> stream(final QueryExecution queryExec) {
+        final ResultSet resultSet = execSelect(queryExec);
+        return toStream(rows(resultSet)).onClose(queryExec::close);
+    }
+
+    /**
+     * Execute a SELECT query whose first three columns are subject, predicate and object, and whose
+     * rows are ordered by subject, and assemble a {@link Thing} each time the subject changes. Only the
+     * triples of the current subject are held in memory, so the query should use {@code ORDER BY} on
+     * the subject column (or otherwise guarantee that the triples for a subject are contiguous).
+     *
+     * @param queryExec The {@link QueryExecution} to run.
+     * @return A {@link Stream} of {@link Thing} which must be closed by the caller.
+     */
+    static Stream<Thing> streamThings(final QueryExecution queryExec) {
+        final ResultSet resultSet = execSelect(queryExec);
+        final List<String> varNames = resultSet.getResultVars();
+        return toStream(groupBySubject(rows(resultSet), varNames.get(0), varNames.get(1), varNames.get(2)))
+                .onClose(queryExec::close);
+    }
+
+    /**
+     * Convert a single {@link QuerySolution} to a {@link QueryResult}.
+     *
+     * @param querySolution The {@link QuerySolution} to convert.
+     * @return The {@link QueryResult}.
+     */
+    static QueryResult toQueryResult(final QuerySolution querySolution) {
+        final Iterator<String> varNames = querySolution.varNames();
+        final QueryResult queryResult = new QueryResult();
+
+        while (varNames.hasNext()) {
+            final String varName = varNames.next();
+            queryResult.set(varName, querySolution.get(varName));
+        }
+        return queryResult;
+    }
+
+    /**
+     * Convert the statements of a {@link Model}, such as the result of a CONSTRUCT query, to one
+     * {@link Thing} per subject, reading the model directly rather than querying it again.
+     *
+     * @param model The {@link Model}.
+     * @return A {@link List} of {@link Thing}.
+     */
+    static List<Thing> toThings(final Model model) {
+        final Map<Resource, List<Pair<IRI, Object>>> objectMap = new LinkedHashMap<>();
+        final StmtIterator statements = model.listStatements();
+        try {
+            while (statements.hasNext()) {
+                final Statement statement = statements.nextStatement();
+                objectMap.computeIfAbsent(statement.getSubject(), subject -> new ArrayList<>())
+                        .add(toPair(statement.getPredicate(), statement.getObject()));
+            }
+        } finally {
+            statements.close();
+        }
+
+        final List<Thing> things = new ArrayList<>(objectMap.size());
+        objectMap.forEach((subject, pairs) -> things.add(HqdmObjectFactory.create(IRI.of(subject.toString()), pairs)));
+        return things;
+    }
+
+    /**
+     * Convert a predicate and object node from a query result to the {@link Pair} representation used
+     * by {@link HqdmObjectFactory}.
+     *
+     * @param predicateValue The predicate {@link RDFNode}.
+     * @param objectValue    The object {@link RDFNode}.
+     * @return A {@link Pair} of predicate {@link IRI} and value.
+     */
+    static Pair<IRI, Object> toPair(final RDFNode predicateValue, final RDFNode objectValue) {
+        if (objectValue instanceof Literal) {
+            return new Pair<>(IRI.of(predicateValue.toString()), objectValue.toString());
+        } else if (objectValue instanceof Resource) {
+            return new Pair<>(IRI.of(predicateValue.toString()), IRI.of(objectValue.toString()));
+        } else {
+            throw new RuntimeException("objectValue is of unknown type: " + objectValue.getClass());
+        }
+    }
+
+    /**
+     * Run the SELECT query, closing the {@link QueryExecution} if it fails to start.
+     *
+     * @param queryExec The {@link QueryExecution} to run.
+     * @return The {@link ResultSet}.
+     */
+    private static ResultSet execSelect(final QueryExecution queryExec) {
+        try {
+            return queryExec.execSelect();
+        } catch (final RuntimeException e) {
+            queryExec.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wrap a {@link ResultSet} as a lazy {@link Iterator} of {@link QueryResult}.
+     *
+     * @param resultSet The {@link ResultSet}.
+     * @return An {@link Iterator} of {@link QueryResult}.
+     */
+    private static Iterator<QueryResult> rows(final ResultSet resultSet) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return resultSet.hasNext();
+            }
+
+            @Override
+            public QueryResult next() {
+                return toQueryResult(resultSet.next());
+            }
+        };
+    }
+
+    /**
+     * Group contiguous rows with the same subject into {@link Thing} objects.
+     *
+     * @param rows             The rows, ordered by subject.
+     * @param subjectVarName   The name of the subject column.
+     * @param predicateVarName The name of the predicate column.
+     * @param objectVarName    The name of the object column.
+     * @return An {@link Iterator} of {@link Thing}.
+     */
+    private static Iterator<Thing> groupBySubject(
+            final Iterator<QueryResult> rows,
+            final String subjectVarName,
+            final String predicateVarName,
+            final String objectVarName) {
+
+        return new Iterator<>() {
+            private QueryResult pending;
+
+            @Override
+            public boolean hasNext() {
+                if (pending == null && rows.hasNext()) {
+                    pending = rows.next();
+                }
+                return pending != null;
+            }
+
+            @Override
+            public Thing next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final RDFNode subject = pending.get(subjectVarName);
+                final List<Pair<IRI, Object>> pairs = new ArrayList<>();
+
+                while (pending != null && subject.equals(pending.get(subjectVarName))) {
+                    pairs.add(toPair(pending.get(predicateVarName), pending.get(objectVarName)));
+                    pending = rows.hasNext() ? rows.next() : null;
+                }
+                return HqdmObjectFactory.create(IRI.of(subject.toString()), pairs);
+            }
+        };
+    }
+
+    /**
+     * Wrap an {@link Iterator} as a sequential, ordered {@link Stream}.
+     *
+     * @param <T>      The element type.
+     * @param iterator The {@link Iterator}.
+     * @return A {@link Stream}.
+     */
+    private static <T> Stream<T> toStream(final Iterator<T> iterator) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+}
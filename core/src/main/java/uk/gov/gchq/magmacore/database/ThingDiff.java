@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Statement;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
+
+/**
+ * The difference between the statements stored for a subject and the predicates of a {@link Thing},
+ * so that the {@link Thing} can be updated by writing only the triples that have changed.
+ *
+ * <p>
+ * Stored values are compared in the form that {@link MagmaCoreDatabase#get(IRI)} returns them, so a
+ * value that was read from the database and is written back unchanged, such as a typed literal, is
+ * left as it is.
+ * </p>
+ */
+final class ThingDiff {
+
+    private final List<Triple> removed;
+    private final DbChangeSet changeSet;
+
+    /**
+     * Constructs a ThingDiff.
+     *
+     * @param removed   The stored triples to remove.
+     * @param changeSet The {@link DbChangeSet} describing the change.
+     */
+    private ThingDiff(final List<Triple> removed, final DbChangeSet changeSet) {
+        this.removed = removed;
+        this.changeSet = changeSet;
+    }
+
+    /**
+     * Compare the statements stored for a subject with a {@link Thing}.
+     *
+     * @param thing  The {@link Thing}.
+     * @param stored The statements stored for the subject of the {@link Thing}.
+     * @return The ThingDiff.
+     */
+    static ThingDiff of(final Thing thing, final Iterator<Statement> stored) {
+        final Map<Value, Statement> storedValues = new LinkedHashMap<>();
+        stored.forEachRemaining(statement -> {
+            final Pair<IRI, Object> pair = QueryResultStreams.toPair(statement.getPredicate(),
+                    statement.getObject());
+            storedValues.put(new Value(pair.getLeft(), pair.getRight()), statement);
+        });
+
+        final Map<Value, Object> values = new LinkedHashMap<>();
+        thing.getPredicates().forEach((predicate, objects) -> objects
+                .forEach(object -> values.put(new Value(predicate, object), object)));
+
+        final IRI subject = thing.getId();
+        final List<Triple> removed = new ArrayList<>();
+        final List<DbDeleteOperation> deletes = new ArrayList<>();
+        storedValues.forEach((value, statement) -> {
+            if (!values.containsKey(value)) {
+                removed.add(statement.asTriple());
+                final Pair<IRI, Object> pair = QueryResultStreams.toPair(statement.getPredicate(),
+                        statement.getObject());
+                deletes.add(new DbDeleteOperation(subject, pair.getLeft(), pair.getRight()));
+            }
+        });
+        final List<DbCreateOperation> creates = new ArrayList<>();
+        values.forEach((value, object) -> {
+            if (!storedValues.containsKey(value)) {
+                creates.add(new DbCreateOperation(subject, IRI.of(value.predicate()), object));
+            }
+        });
+        return new ThingDiff(removed, new DbChangeSet(deletes, creates));
+    }
+
+    /**
+     * Get the stored triples to remove, with their values exactly as stored.
+     *
+     * @return A {@link List} of {@link Triple}.
+     */
+    List<Triple> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Get the change as a {@link DbChangeSet}, whose creates are the triples to add.
+     *
+     * @return The {@link DbChangeSet}.
+     */
+    DbChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    /**
+     * A predicate and value, compared by their string forms.
+     *
+     * @param predicate The predicate IRI.
+     * @param iri       Whether the value is an {@link IRI}.
+     * @param value     The value.
+     */
+    private record Value(String predicate, boolean iri, String value) {
+
+        /**
+         * Constructs a Value from a predicate and a value of a {@link Thing}.
+         *
+         * @param predicate The predicate {@link IRI}.
+         * @param value     The value.
+         */
+        Value(final IRI predicate, final Object value) {
+            this(predicate.getIri(), value instanceof IRI, value.toString());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database.query;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+
+/**
+ * A SPARQL query template that is parsed once and then bound to parameter values for each use.
+ *
+ * <p>
+ * Templates use the same placeholders as {@link String#format(String, Object...)}, so existing query
+ * text can be prepared unchanged: {@code <%s>} is an IRI parameter and {@code "%s"} is a string
+ * literal parameter. Each placeholder is replaced by a variable when the template is parsed, and
+ * values are substituted for those variables as RDF terms rather than spliced into the query text, so
+ * a value cannot change the structure of the query.
+ * </p>
+ */
+public final class PreparedQuery {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("<%s>|\"%s\"");
+
+    private static final String PARAMETER_PREFIX = "_param";
+
+    private static final Map<String, PreparedQuery> CACHE = new ConcurrentHashMap<>();
+
+    private final Query query;
+    private final List<Var> parameters;
+    private final List<Boolean> iriParameters;
+
+    /**
+     * Constructs a PreparedQuery.
+     *
+     * @param query         The parsed {@link Query} with a variable for each parameter.
+     * @param parameters    The parameter variables, in order.
+     * @param iriParameters Whether each parameter is an IRI rather than a string literal.
+     */
+    private PreparedQuery(final Query query, final List<Var> parameters, final List<Boolean> iriParameters) {
+        this.query = query;
+        this.parameters = parameters;
+        this.iriParameters = iriParameters;
+    }
+
+    /**
+     * Get the PreparedQuery for a template, parsing it the first time it is used. Prepared queries are
+     * cached for the life of the application, so templates should be constants.
+     *
+     * @param template A SPARQL query template.
+     * @return The PreparedQuery.
+     * @throws org.apache.jena.query.QueryParseException if the template is not a valid query.
+     */
+    public static PreparedQuery of(final String template) {
+        return CACHE.computeIfAbsent(template, PreparedQuery::prepare);
+    }
+
+    /**
+     * Parse a template, replacing each placeholder with a parameter variable.
+     *
+     * @param template A SPARQL query template.
+     * @return The PreparedQuery.
+     */
+    private static PreparedQuery prepare(final String template) {
+        final List<Var> parameters = new ArrayList<>();
+        final List<Boolean> iriParameters = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+
+        final Matcher matcher = PLACEHOLDER.matcher(template);
+        while (matcher.find()) {
+            final Var parameter = Var.alloc(PARAMETER_PREFIX + (parameters.size() + 1));
+            parameters.add(parameter);
+            iriParameters.add(matcher.group().startsWith("<"));
+            matcher.appendReplacement(text, Matcher.quoteReplacement(parameter.toString()));
+        }
+        matcher.appendTail(text);
+
+        return new PreparedQuery(QueryFactory.create(text.toString()), List.copyOf(parameters),
+                List.copyOf(iriParameters));
+    }
+
+    /**
+     * Get the number of parameters that must be bound.
+     *
+     * @return The number of parameters.
+     */
+    public int getParameterCount() {
+        return parameters.size();
+    }
+
+    /**
+     * Bind values to the parameters, in the order of the placeholders in the template. Values for IRI
+     * parameters become IRIs and values for string parameters become string literals, converting each
+     * value with {@link String#valueOf(Object)} as {@link String#format(String, Object...)} would.
+     *
+     * @param values The parameter values.
+     * @return A new {@link Query} with the values substituted.
+     * @throws IllegalArgumentException if the number of values does not match the number of parameters.
+     */
+    public Query bind(final Object... values) {
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + parameters.size() + " parameter values but got " + values.length);
+        }
+        final Map<Var, Node> substitutions = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            final String value = String.valueOf(values[i]);
+            substitutions.put(parameters.get(i),
+                    iriParameters.get(i) ? NodeFactory.createURI(value) : NodeFactory.createLiteral(value));
+        }
+        return QueryTransformOps.transform(query, substitutions);
+    }
+}
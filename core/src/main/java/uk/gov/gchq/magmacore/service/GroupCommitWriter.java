@@ -0,0 +1,281 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import uk.gov.gchq.magmacore.service.dto.GroupCommitStats;
+
+/**
+ * Applies small writes submitted by many threads to a {@link MagmaCoreService} in shared write
+ * transactions, so that a high rate of writes does not pay for a transaction and commit each.
+ *
+ * <p>
+ * Writes are queued and applied in order by a single thread. A batch is committed when it holds
+ * {@code maxBatchSize} writes, or when {@code maxDelay} has passed since its first write was
+ * submitted, whichever is sooner. The {@link CompletableFuture} returned for each write completes
+ * when the transaction containing it has committed. If a write fails, its batch is aborted and each
+ * of its writes is retried in a transaction of its own, so only the failing write's future completes
+ * exceptionally. Writes may therefore be applied more than once, and should only change the
+ * database through the {@link MagmaCoreService} they are given. If a write throws an {@link Error},
+ * or the committing thread is interrupted, the writer closes itself and every write not yet
+ * committed completes exceptionally.
+ * </p>
+ */
+public final class GroupCommitWriter implements AutoCloseable {
+
+    /** The default largest number of writes in a transaction. */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /** The default longest time that a write waits for others to share its transaction. */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(5);
+
+    /** The number of recent commit latencies that the percentiles are calculated from. */
+    private static final int LATENCY_SAMPLES = 10_000;
+
+    /** Queued by {@link #close()} to stop the committing thread once earlier writes are applied. */
+    private static final PendingWrite STOP = new PendingWrite(null, 0, null);
+
+    private final MagmaCoreService service;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService executor;
+    private boolean closed;
+
+    private long batches;
+    private long writes;
+    private long failures;
+    private int largestBatch;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long latencyCount;
+
+    /**
+     * Constructs a GroupCommitWriter with the default batch size and delay.
+     *
+     * @param service The {@link MagmaCoreService} to write to.
+     */
+    public GroupCommitWriter(final MagmaCoreService service) {
+        this(service, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Constructs a GroupCommitWriter and starts its committing thread.
+     *
+     * @param service      The {@link MagmaCoreService} to write to.
+     * @param maxBatchSize The largest number of writes in a transaction.
+     * @param maxDelay     The longest time that a write waits for others to share its transaction.
+     * @throws IllegalArgumentException if {@code maxBatchSize} is less than 1 or {@code maxDelay} is
+     *                                  negative.
+     */
+    public GroupCommitWriter(final MagmaCoreService service, final int maxBatchSize, final Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1: " + maxBatchSize);
+        }
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+        }
+        this.service = service;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "magma-core-group-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::run);
+    }
+
+    /**
+     * Queue a write, such as a {@link uk.gov.gchq.magmacore.service.transformation.DbChangeSet}, to be
+     * applied in a shared transaction.
+     *
+     * @param write The write to apply.
+     * @return A {@link CompletableFuture} that completes when the write has committed, or
+     *         exceptionally with the exception thrown by the write or the commit.
+     * @throws IllegalStateException if the writer has been closed.
+     */
+    public CompletableFuture<Void> submit(final Function<MagmaCoreService, MagmaCoreService> write) {
+        final PendingWrite pending = new PendingWrite(write, System.nanoTime(), new CompletableFuture<>());
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The GroupCommitWriter has been closed");
+            }
+            queue.add(pending);
+        }
+        return pending.future();
+    }
+
+    /**
+     * Get the batch sizes and commit latencies achieved so far.
+     *
+     * @return {@link GroupCommitStats}.
+     */
+    public synchronized GroupCommitStats getStats() {
+        final long[] sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        Arrays.sort(sorted);
+        return new GroupCommitStats(batches, writes, failures, largestBatch, percentile(sorted, 50),
+                percentile(sorted, 95), percentile(sorted, 99));
+    }
+
+    /**
+     * Stop accepting writes, and wait for those already submitted to be committed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for writes to commit", e);
+        }
+    }
+
+    /**
+     * Collect writes into batches and commit them until {@link #STOP} is taken from the queue.
+     */
+    private void run() {
+        final List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                final PendingWrite first = queue.take();
+                if (first == STOP) {
+                    return;
+                }
+                batch.add(first);
+
+                // Wait until the first write's delay has passed for others, but take any already queued.
+                final long deadline = first.submitted() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    final long wait = deadline - System.nanoTime();
+                    final PendingWrite next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    } else if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(batch, new RuntimeException("Interrupted before the write was committed", e));
+        } catch (final Error e) {
+            abandon(batch, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Close the writer after the committing thread has failed, and fail every write that has not been
+     * committed.
+     *
+     * @param batch The writes in the batch that was being committed.
+     * @param cause The reason the writes failed.
+     */
+    private void abandon(final List<PendingWrite> batch, final Throwable cause) {
+        synchronized (this) {
+            closed = true;
+        }
+        executor.shutdown();
+        batch.forEach(pending -> pending.future().completeExceptionally(cause));
+        queue.forEach(pending -> {
+            if (pending != STOP) {
+                pending.future().completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Apply a batch of writes in one transaction, retrying them one at a time if any of them fails.
+     *
+     * @param batch The writes.
+     */
+    private void commit(final List<PendingWrite> batch) {
+        try (MagmaCoreSession session = service.openWriteSession()) {
+            batch.forEach(pending -> pending.write().apply(service));
+            session.commit();
+        } catch (final RuntimeException e) {
+            if (batch.size() > 1) {
+                batch.forEach(pending -> commit(List.of(pending)));
+            } else {
+                synchronized (this) {
+                    failures++;
+                }
+                batch.get(0).future().completeExceptionally(e);
+            }
+            return;
+        }
+
+        final long now = System.nanoTime();
+        synchronized (this) {
+            batches++;
+            writes += batch.size();
+            largestBatch = Math.max(largestBatch, batch.size());
+            for (final PendingWrite pending : batch) {
+                latencies[(int) (latencyCount++ % LATENCY_SAMPLES)] = now - pending.submitted();
+            }
+        }
+        batch.forEach(pending -> pending.future().complete(null));
+    }
+
+    /**
+     * Get a percentile of sorted latencies by the nearest-rank method.
+     *
+     * @param sorted     The latencies in nanoseconds, in ascending order.
+     * @param percentile The percentile, from 1 to 100.
+     * @return The latency, or {@link Duration#ZERO} if there are none.
+     */
+    private static Duration percentile(final long[] sorted, final int percentile) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * A write waiting to be committed.
+     *
+     * @param write     The write to apply.
+     * @param submitted The {@link System#nanoTime()} when it was submitted.
+     * @param future    Completed when the write has committed or failed.
+     */
+    private record PendingWrite(Function<MagmaCoreService, MagmaCoreService> write, long submitted,
+            CompletableFuture<Void> future) {
+    }
+}
@@ -14,24 +14,41 @@
 
 package uk.gov.gchq.magmacore.service;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.jena.query.Query;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDFWriter;
 
 import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
 import uk.gov.gchq.magmacore.database.query.QueryResult;
 import uk.gov.gchq.magmacore.database.query.QueryResultList;
 import uk.gov.gchq.magmacore.database.validation.ValidationReportEntry;
+import uk.gov.gchq.magmacore.exception.DbTransformationException;
 import uk.gov.gchq.magmacore.exception.MagmaCoreException;
 import uk.gov.gchq.magmacore.hqdm.model.Individual;
 import uk.gov.gchq.magmacore.hqdm.model.KindOfAssociation;
@@ -44,6 +61,8 @@ import uk.gov.gchq.magmacore.hqdm.model.Role;
 import uk.gov.gchq.magmacore.hqdm.model.Thing;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.service.cache.ThingCache;
+import uk.gov.gchq.magmacore.service.dto.BulkLoadProgress;
 import uk.gov.gchq.magmacore.service.dto.ParticipantDetails;
 import uk.gov.gchq.magmacore.service.dto.SignPatternDto;
 import uk.gov.gchq.magmacore.service.sparql.MagmaCoreServiceQueries;
@@ -72,18 +91,111 @@ import uk.gov.gchq.magmacore.service.verify.DataIntegrityReport;
  * progress before
  * using any of the above methods.
  * </p>
+ * <p>
+ * Point-in-time queries can be restricted using an index of the beginnings and endings in the
+ * database, enabled with {@link #enableTemporalIndex()}. It is built when first needed and discarded
+ * by writes through this service that change them. Changes made to the database by other means are
+ * not seen by the index, which can then exclude objects whose beginning has since been moved earlier
+ * or ending moved later, so it should only be enabled when this service is the only writer.
+ * </p>
+ * <p>
+ * The partial sign searches can also be restricted using a text index of sign values, enabled with
+ * {@link #enableSignTextIndex()}. It is built when first needed and kept up to date by writes through
+ * this service, and likewise does not see values added to the database by other means.
+ * </p>
+ * <p>
+ * Resolving exact sign values to the objects they represent, and objects to their signs, can be
+ * answered from an index of every representation by sign, enabled with
+ * {@link #enableSignResolutionIndex()}. Writes through this service are applied to it incrementally
+ * before the next lookup; writes by other means are not seen.
+ * </p>
+ * <p>
+ * A service can be shared by many threads. Transactions are bound to the thread that begins them, so
+ * each thread should open its own {@link MagmaCoreSession} with {@link #openReadSession()} or
+ * {@link #openWriteSession()}, or use the methods above. Any number of threads can read while one
+ * thread writes. The indexes and cache are shared only by transactions that see the latest committed
+ * state; while a write through this service is in progress, other transactions query the database
+ * directly instead.
+ * </p>
  */
 public class MagmaCoreService {
 
+    /** The RDF syntax of the files written by {@link #snapshot(Path)}. */
+    private static final Lang SNAPSHOT_LANG = Lang.RDFTHRIFT;
+
     private final MagmaCoreDatabase database;
 
+    private final ThingCache cache;
+
+    /**
+     * Counts the transactions that have written through this service. It is odd while such a
+     * transaction is in progress, and is incremented again when that transaction ends.
+     */
+    private final AtomicLong writeEpoch = new AtomicLong();
+
+    /** The transaction in progress on each thread. */
+    private final ThreadLocal<TransactionState> transaction = new ThreadLocal<>();
+
+    /** Guards the indexes, which are shared by all threads. */
+    private final Object indexLock = new Object();
+
+    private volatile boolean temporalIndexEnabled;
+    private TemporalIndex temporalIndex;
+    private boolean temporalIndexProvisional;
+
+    private volatile boolean signTextIndexEnabled;
+    private SignTextIndex signTextIndex;
+
+    private volatile boolean signResolutionIndexEnabled;
+    private SignResolutionIndex signResolutionIndex;
+
     /**
      * Constructs a MagmaCoreService for a {@link MagmaCoreDatabase}.
      *
      * @param database {@link MagmaCoreDatabase} to build the service for.
      */
     MagmaCoreService(final MagmaCoreDatabase database) {
+        this(database, null);
+    }
+
+    /**
+     * Constructs a MagmaCoreService for a {@link MagmaCoreDatabase} with a read-through
+     * {@link ThingCache}.
+     *
+     * @param database {@link MagmaCoreDatabase} to build the service for.
+     * @param cache    {@link ThingCache} for {@link #get(IRI)} and {@link #getAll(Collection)}, or null
+     *                 for no caching.
+     */
+    MagmaCoreService(final MagmaCoreDatabase database, final ThingCache cache) {
         this.database = database;
+        this.cache = cache;
+    }
+
+    /**
+     * Use an in-memory index of beginnings and endings to restrict point-in-time queries to the objects
+     * that are valid at that time, rather than filtering every result after the query. This suits
+     * databases that are only written through this service.
+     */
+    public void enableTemporalIndex() {
+        temporalIndexEnabled = true;
+    }
+
+    /**
+     * Use an in-memory text index of sign values to find the candidates for the partial sign searches,
+     * rather than scanning every sign in the database. This suits databases that are only written
+     * through this service.
+     */
+    public void enableSignTextIndex() {
+        signTextIndexEnabled = true;
+    }
+
+    /**
+     * Use an in-memory index of every representation by sign for {@code findBySignValue} and
+     * {@code findSignsForEntity}, rather than joining the signs, states of sign and representations in
+     * the database for each lookup. This suits databases that are only written through this service.
+     */
+    public void enableSignResolutionIndex() {
+        signResolutionIndexEnabled = true;
     }
 
     /**
@@ -103,31 +215,140 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTime.oneValue(HQDM.ENTITY_NAME));
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_PARTICIPANT_DETAILS_QUERY, individual1.getId(),
-                        individual2.getId(),
-                        kind.getId(), individual1.getId(), individual2.getId(), kind.getId()));
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_PARTICIPANT_DETAILS_QUERY)
+                .bind(individual1.getId(), individual2.getId(), kind.getId(),
+                        individual1.getId(), individual2.getId(), kind.getId());
+        final QueryResultList queryResults = executeQueryAt(when, query);
+
+        final List<Thing> participants = database.toTopObjects(queryResults);
 
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Fetch the Roles of all of the Participants in one go rather than one at a time.
+        final Map<IRI, Thing> roles = getAll(participants
+                .stream()
+                .flatMap(p -> p.values(HQDM.MEMBER_OF_KIND).stream())
+                .map(o -> (IRI) o)
+                .collect(Collectors.toSet()));
 
         // Process all of the participants.
-        return database.toTopObjects(queryResults)
+        return participants
                 .stream()
                 // Map them to ParticipantDetails objects.
                 .map(p -> {
                     // Get the Roles of the Participant.
-                    final Set<Role> roles = p.values(HQDM.MEMBER_OF_KIND)
+                    final Set<Role> participantRoles = p.values(HQDM.MEMBER_OF_KIND)
                             .stream()
                             .map(o -> (IRI) o)
-                            .map(roleIri -> database.get(roleIri))
+                            .map(roles::get)
                             .map(role -> (Role) role)
                             .collect(Collectors.toSet());
-                    return new ParticipantDetails((Participant) p, roles);
+                    return new ParticipantDetails((Participant) p, participantRoles);
                 })
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Execute a SELECT query restricted by the {@link TemporalIndex} to objects that are valid at an
+     * {@link Instant}, then filter the results by their `start` and `finish` columns.
+     *
+     * @param when  {@link Instant}.
+     * @param query a SELECT {@link Query}.
+     * @return {@link QueryResultList}.
+     */
+    private QueryResultList executeQueryAt(final Instant when, final Query query) {
+        final TemporalIndex index = temporalIndex();
+        if (index == null) {
+            return filterByPointInTime(when, database.executeQuery(query), Instant::parse);
+        }
+        final QueryResultList queryResultList = database.executeQuery(index.restrict(query, when));
+        return filterByPointInTime(when, queryResultList, index::instant);
+    }
+
+    /**
+     * Restrict the partial sign searches of a query using the {@link SignTextIndex}, if it is enabled and
+     * holds the state that the calling thread's transaction sees.
+     *
+     * @param query         a SELECT {@link Query}.
+     * @param text          The text that the query searches for.
+     * @param caseSensitive Whether the query searches case sensitively.
+     * @return The restricted {@link Query}.
+     */
+    private Query restrictToSigns(final Query query, final String text, final boolean caseSensitive) {
+        if (!signTextIndexEnabled || text == null) {
+            return query;
+        }
+        synchronized (indexLock) {
+            if (!canShareIndexes()) {
+                return query;
+            }
+            if (signTextIndex == null) {
+                signTextIndex = SignTextIndex.build(database);
+            }
+            return signTextIndex.restrict(query, text, caseSensitive);
+        }
+    }
+
+    /**
+     * Apply a write to the {@link SignTextIndex}, if it has been built.
+     *
+     * @param update The change to make to the {@link SignTextIndex}.
+     */
+    private void updateSignTextIndex(final Consumer<SignTextIndex> update) {
+        synchronized (indexLock) {
+            if (signTextIndex != null) {
+                update.accept(signTextIndex);
+            }
+        }
+    }
+
+    /**
+     * Answer a lookup from the {@link SignResolutionIndex}, building it if necessary or applying the
+     * writes made since it was last used.
+     *
+     * @param <T>    The type of the result.
+     * @param lookup The lookup to make.
+     * @return The result, or null if the index is not enabled or does not hold the state that the
+     *         calling thread's transaction sees.
+     */
+    private <T> T lookupSignResolution(final Function<SignResolutionIndex, T> lookup) {
+        if (!signResolutionIndexEnabled) {
+            return null;
+        }
+        synchronized (indexLock) {
+            if (!canShareIndexes()) {
+                return null;
+            }
+            if (signResolutionIndex == null || !signResolutionIndex.refresh(database)) {
+                signResolutionIndex = SignResolutionIndex.build(database);
+            }
+            return lookup.apply(signResolutionIndex);
+        }
+    }
+
+    /**
+     * Get the {@link TemporalIndex}, building it if necessary.
+     *
+     * @return {@link TemporalIndex}, or null if it is not enabled or does not hold the state that the
+     *         calling thread's transaction sees.
+     */
+    private TemporalIndex temporalIndex() {
+        if (!temporalIndexEnabled) {
+            return null;
+        }
+        synchronized (indexLock) {
+            if (!canShareIndexes()) {
+                return null;
+            }
+            if (temporalIndex == null) {
+                temporalIndex = TemporalIndex.build(database);
+                // An index built from uncommitted writes must not outlive the transaction.
+                temporalIndexProvisional = hasWritten();
+            }
+            return temporalIndex;
+        }
+    }
+
     /**
      * Filter a {@link QueryResultList} by a {@link PointInTime}. The
      * {@link QueryResultList} should
@@ -135,17 +356,20 @@ public class MagmaCoreService {
      *
      * @param when            {@link Instant}.
      * @param queryResultList {@link QueryResultList}.
+     * @param parser          Parses the `start` and `finish` values, such as
+     *                        {@link TemporalIndex#instant(String)} to reuse already parsed instants.
      * @return {@link QueryResultList}.
      */
-    private QueryResultList filterByPointInTime(final Instant when, final QueryResultList queryResultList) {
+    private static QueryResultList filterByPointInTime(final Instant when, final QueryResultList queryResultList,
+            final Function<String, Instant> parser) {
         final List<QueryResult> queryResults = queryResultList.getQueryResults()
                 .stream()
                 .filter(qr -> {
                     final RDFNode start = qr.get("start");
                     final RDFNode finish = qr.get("finish");
-                    final Instant from = (start != null) ? Instant.parse(start.toString())
+                    final Instant from = (start != null) ? parser.apply(start.toString())
                             : Instant.MIN;
-                    final Instant to = (finish != null) ? Instant.parse(finish.toString())
+                    final Instant to = (finish != null) ? parser.apply(finish.toString())
                             : Instant.MAX;
 
                     return (when.equals(from) || when.isAfter(from))
@@ -187,14 +411,17 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_BY_SIGN_VALUE_QUERY,
-                        value,
-                        community.getId(),
-                        pattern.getId()));
+        final Set<IRI> represented = lookupSignResolution(index -> index.findRepresented(community.getId(),
+                pattern.getId(), String.valueOf(value), when, Instant::parse));
+        if (represented != null) {
+            return new ArrayList<>(getAll(represented).values());
+        }
 
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_BY_SIGN_VALUE_QUERY)
+                .bind(value, community.getId(), pattern.getId());
+        final QueryResultList queryResults = executeQueryAt(when, query);
 
         return database.toTopObjects(queryResults);
     }
@@ -232,14 +459,11 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_BY_PARTIAL_SIGN_VALUE_CASE_INSENSITIVE_QUERY,
-                        value,
-                        community.getId(),
-                        pattern.getId()));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_BY_PARTIAL_SIGN_VALUE_CASE_INSENSITIVE_QUERY)
+                .bind(value, community.getId(), pattern.getId());
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, value, false));
 
         return database.toTopObjects(queryResults);
     }
@@ -267,12 +491,12 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_OBJECTS_BY_TYPE_CLASS_AND_SIGN_PATTERN,
-                        type, clazz, pattern, type, clazz, pattern));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_OBJECTS_BY_TYPE_CLASS_AND_SIGN_PATTERN)
+                .bind(type, clazz, pattern,
+                        type, clazz, pattern);
+        final QueryResultList queryResults = executeQueryAt(when, query);
 
         return database.toTopObjects(queryResults);
     }
@@ -300,12 +524,12 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_OBJECTS_BY_TYPE_AND_SIGN_PATTERN,
-                        type, kind, pattern, type, kind, pattern));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_OBJECTS_BY_TYPE_AND_SIGN_PATTERN)
+                .bind(type, kind, pattern,
+                        type, kind, pattern);
+        final QueryResultList queryResults = executeQueryAt(when, query);
 
         return database.toTopObjects(queryResults);
     }
@@ -328,12 +552,11 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_BY_KIND_OF_ASSOCIATION,
-                        kindOfAssociation, kindOfAssociation, kindOfAssociation));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_BY_KIND_OF_ASSOCIATION)
+                .bind(kindOfAssociation, kindOfAssociation, kindOfAssociation);
+        final QueryResultList queryResults = executeQueryAt(when, query);
 
         return database.toTopObjects(queryResults);
 
@@ -348,11 +571,12 @@ public class MagmaCoreService {
      */
     public List<? extends Thing> findAssociated(final IRI item, final IRI kindOfAssociation) {
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_ASSOCIATED,
-                        kindOfAssociation, item, item,
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_ASSOCIATED)
+                .bind(kindOfAssociation, item, item,
                         kindOfAssociation, item, item,
-                        kindOfAssociation, item, item));
+                        kindOfAssociation, item, item);
+        final QueryResultList queryResultList = database.executeQuery(query);
 
         return database.toTopObjects(queryResultList);
 
@@ -377,13 +601,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(String.format(MagmaCoreServiceQueries.FIND_ASSOCIATED,
-                        kindOfAssociation, item, item,
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_ASSOCIATED)
+                .bind(kindOfAssociation, item, item,
                         kindOfAssociation, item, item,
-                        kindOfAssociation, item, item));
-
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+                        kindOfAssociation, item, item);
+        final QueryResultList queryResults = executeQueryAt(when, query);
         return database.toTopObjects(queryResults);
 
     }
@@ -408,15 +632,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(
-                        String.format(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_PARTIAL_SIGN_CASE_SENSITIVE,
-                                text, classIri,
-                                text, classIri,
-                                text, classIri));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_PARTIAL_SIGN_CASE_SENSITIVE)
+                .bind(text, classIri,
+                        text, classIri,
+                        text, classIri);
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, text, true));
 
         return database.toTopObjects(queryResults);
 
@@ -442,15 +664,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database
-                .executeQuery(
-                        String.format(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_PARTIAL_SIGN_CASE_INSENSITIVE,
-                                text, classIri,
-                                text, classIri,
-                                text, classIri));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_PARTIAL_SIGN_CASE_INSENSITIVE)
+                .bind(text, classIri,
+                        text, classIri,
+                        text, classIri);
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, text, false));
 
         return database.toTopObjects(queryResults);
 
@@ -479,14 +699,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database.executeQuery(String.format(
-                MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_ACTIVITY_AND_PARTIAL_SIGN_CASE_INSENSITIVE,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_ACTIVITY_AND_PARTIAL_SIGN_CASE_INSENSITIVE)
+                .bind(text, classIri, wholeIri,
+                        text, classIri, wholeIri,
+                        text, classIri, wholeIri);
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, text, false));
 
         return database.toTopObjects(queryResults);
 
@@ -515,14 +734,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database.executeQuery(String.format(
-                MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_ACTIVITY_AND_PARTIAL_SIGN_CASE_SENSITIVE,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_ACTIVITY_AND_PARTIAL_SIGN_CASE_SENSITIVE)
+                .bind(text, classIri, wholeIri,
+                        text, classIri, wholeIri,
+                        text, classIri, wholeIri);
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, text, true));
 
         return database.toTopObjects(queryResults);
 
@@ -551,14 +769,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database.executeQuery(String.format(
-                MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_COMPOSITION_AND_PARTIAL_SIGN_CASE_SENSITIVE,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_COMPOSITION_AND_PARTIAL_SIGN_CASE_SENSITIVE)
+                .bind(text, classIri, wholeIri,
+                        text, classIri, wholeIri,
+                        text, classIri, wholeIri);
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, text, true));
 
         return database.toTopObjects(queryResults);
 
@@ -587,14 +804,13 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database.executeQuery(String.format(
-                MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_COMPOSITION_AND_PARTIAL_SIGN_CASE_INSENSITIVE,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri,
-                text, classIri, wholeIri));
-
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_MEMBERS_OF_CLASS_BY_COMPOSITION_AND_PARTIAL_SIGN_CASE_INSENSITIVE)
+                .bind(text, classIri, wholeIri,
+                        text, classIri, wholeIri,
+                        text, classIri, wholeIri);
+        final QueryResultList queryResults = executeQueryAt(when, restrictToSigns(query, text, false));
 
         return database.toTopObjects(queryResults);
 
@@ -616,11 +832,17 @@ public class MagmaCoreService {
 
         final Instant when = Instant.parse(pointInTimeValue);
 
-        final QueryResultList queryResultList = database.executeQuery(String.format(
-                MagmaCoreServiceQueries.FIND_SIGNS_FOR_ENTITY, entityIri));
+        final List<SignPatternDto> signs = lookupSignResolution(index -> index.findSigns(entityIri, when,
+                Instant::parse));
+        if (signs != null) {
+            return signs;
+        }
 
-        // Filter by the pointInTime
-        final QueryResultList queryResults = filterByPointInTime(when, queryResultList);
+        // Restrict and filter by the pointInTime
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_SIGNS_FOR_ENTITY)
+                .bind(entityIri);
+        final QueryResultList queryResults = executeQueryAt(when, query);
         return queryResults.getQueryResults()
                 .stream()
                 .map(MagmaCoreService::toSignPatternDto)
@@ -642,8 +864,10 @@ public class MagmaCoreService {
             final Object fieldValue,
             final IRI classIri) {
 
-        final QueryResultList queryResultList = database.executeQuery(String.format(
-                MagmaCoreServiceQueries.FIND_BY_FIELD_VALUE_AND_CLASS, fieldIri, fieldValue, classIri));
+        final Query query = PreparedQuery
+                .of(MagmaCoreServiceQueries.FIND_BY_FIELD_VALUE_AND_CLASS)
+                .bind(fieldIri, fieldValue, classIri);
+        final QueryResultList queryResultList = database.executeQuery(query);
 
         return database.toTopObjects(queryResultList);
     }
@@ -681,6 +905,36 @@ public class MagmaCoreService {
         }
     }
 
+    /**
+     * Find objects by their {@link HQDM#ENTITY_NAME} values using a single query.
+     *
+     * @param <T>         HQDM entity type.
+     * @param entityNames Entity name values to search for.
+     * @return {@link Map} of entity name to the {@link Thing} that was found.
+     * @throws RuntimeException If no or multiple results were found for any of the names.
+     */
+    public <T extends Thing> Map<String, T> findByEntityNames(final Collection<String> entityNames) {
+        final Map<String, List<Thing>> found = new HashMap<>();
+        database.findByEntityNames(entityNames)
+                .values()
+                .forEach(thing -> thing.values(HQDM.ENTITY_NAME)
+                        .forEach(name -> found.computeIfAbsent(name.toString(), k -> new ArrayList<>()).add(thing)));
+
+        final Map<String, T> result = new HashMap<>();
+        for (final String entityName : entityNames) {
+            final List<Thing> searchResult = found.getOrDefault(entityName, List.of());
+
+            if (searchResult.size() == 1) {
+                result.put(entityName, (T) searchResult.get(0));
+            } else if (searchResult.isEmpty()) {
+                throw new RuntimeException("No entity found with name: " + entityName);
+            } else {
+                throw new RuntimeException("Multiple entities found with name: " + entityName);
+            }
+        }
+        return result;
+    }
+
     /**
      * Find objects by a predicate.
      *
@@ -692,6 +946,18 @@ public class MagmaCoreService {
         return (List<T>) database.findByPredicateIriOnly(predicate);
     }
 
+    /**
+     * Find objects by a predicate, streaming each {@link Thing} as soon as all of its triples have
+     * been read. The {@link Stream} must be consumed and closed within the current transaction.
+     *
+     * @param <T>       HQDM entity type.
+     * @param predicate the predicate {@link IRI}
+     * @return a {@link Stream} of {@link Thing} that must be closed by the caller.
+     */
+    public <T extends Thing> Stream<T> findByPredicateIriOnlyAsStream(final IRI predicate) {
+        return (Stream<T>) database.findByPredicateIriOnlyAsStream(predicate);
+    }
+
     /**
      * Find objects by a predicate value.
      *
@@ -714,12 +980,26 @@ public class MagmaCoreService {
         return database.findByPredicateIri(HQDM.MEMBER_OF, classIri);
     }
 
+    /**
+     * Find members of a given class, streaming each {@link Thing} as soon as all of its triples have
+     * been read. The {@link Stream} must be consumed and closed within the current transaction.
+     *
+     * @param classIri The class {@link IRI}.
+     * @return A {@link Stream} of {@link Thing} that must be closed by the caller.
+     */
+    public Stream<? extends Thing> findByClassAsStream(final IRI classIri) {
+        return database.findByPredicateIriAsStream(HQDM.MEMBER_OF, classIri);
+    }
+
     /**
      * Create a new {@link Thing} in the database.
      *
      * @param thing {@link Thing} to create.
      */
     public void create(final Thing thing) {
+        invalidate(thing.getId());
+        invalidateIndexes(thing);
+        updateSignTextIndex(index -> index.add(thing));
         database.create(thing);
     }
 
@@ -729,6 +1009,9 @@ public class MagmaCoreService {
      * @param object Entity to delete.
      */
     void delete(final Thing object) {
+        invalidate(object.getId());
+        invalidateIndexes(object);
+        updateSignTextIndex(index -> index.remove(object.getId()));
         database.delete(object);
     }
 
@@ -738,6 +1021,8 @@ public class MagmaCoreService {
      * @param deletes a {@link List} of {@link DbDeleteOperation}
      */
     void delete(final List<DbDeleteOperation> deletes) {
+        deletes.forEach(d -> invalidate(d.subject));
+        deletes.forEach(d -> invalidateIndexes(d.subject, d.predicate));
         database.delete(deletes);
     }
 
@@ -782,12 +1067,13 @@ public class MagmaCoreService {
     }
 
     /**
-     * Update an existing {@link Thing} in the database.
+     * Update an existing {@link Thing} in the database, writing only the triples that differ from those
+     * stored for it.
      *
      * @param thing {@link Thing} to update.
      */
     public void update(final Thing thing) {
-        database.update(thing);
+        updateWithDiff(thing);
     }
 
     /**
@@ -797,10 +1083,93 @@ public class MagmaCoreService {
      * @param creates A {@link List} of {@link DbCreateOperation}.
      */
     public void update(final List<DbDeleteOperation> deletes, final List<DbCreateOperation> creates) {
+        deletes.forEach(d -> invalidate(d.subject));
+        creates.forEach(c -> invalidate(c.subject));
+        deletes.forEach(d -> invalidateIndexes(d.subject, d.predicate));
+        creates.forEach(c -> invalidateIndexes(c.subject, c.predicate));
+        updateSignTextIndex(index -> creates.stream()
+                .filter(c -> HQDM.VALUE_.equals(c.predicate))
+                .forEach(c -> index.add(c.subject, c.object)));
         database.delete(deletes);
         database.create(creates);
     }
 
+    /**
+     * Update an existing {@link Thing} as {@link #update(Thing)} does, and return the change that was
+     * made.
+     *
+     * @param thing {@link Thing} to update.
+     * @return The {@link DbChangeSet} of the triples that were deleted and created, which can be
+     *         inverted with {@link DbChangeSet#invert(DbChangeSet)} to undo the update.
+     */
+    public DbChangeSet updateWithDiff(final Thing thing) {
+        invalidate(thing.getId());
+        invalidateIndexes(thing);
+        updateSignTextIndex(index -> {
+            index.remove(thing.getId());
+            index.add(thing);
+        });
+        return database.updateWithDiff(thing);
+    }
+
+    /**
+     * Find the triples that {@link #update(Thing)} would delete and create, without writing them.
+     *
+     * @param thing The {@link Thing}.
+     * @return The {@link DbChangeSet} of the triples to delete and create.
+     */
+    public DbChangeSet diff(final Thing thing) {
+        return database.diff(thing);
+    }
+
+    /**
+     * Apply a set of deletes then a set of creates, checking them all against the database first.
+     *
+     * <p>
+     * This has the same checks as applying each {@link DbDeleteOperation} and {@link DbCreateOperation}
+     * in turn, but reads the subjects of all the operations at once and then writes only the triples
+     * that are deleted or created, rather than reading and rewriting the whole subject for each triple.
+     * </p>
+     *
+     * @param deletes A {@link List} of {@link DbDeleteOperation}.
+     * @param creates A {@link List} of {@link DbCreateOperation}.
+     * @throws DbTransformationException listing every triple to be deleted that does not exist and every
+     *                                   triple to be created that already exists, in which case nothing
+     *                                   is written.
+     */
+    public void applyOperations(final List<DbDeleteOperation> deletes, final List<DbCreateOperation> creates) {
+        final Set<IRI> subjects = new HashSet<>();
+        deletes.forEach(d -> subjects.add(d.subject));
+        creates.forEach(c -> subjects.add(c.subject));
+        final Map<IRI, Thing> existing = getAll(subjects);
+
+        final List<String> conflicts = new ArrayList<>();
+        final Set<DbDeleteOperation> deleted = new HashSet<>();
+        for (final DbDeleteOperation d : deletes) {
+            final Thing thing = existing.get(d.subject);
+            if (thing == null || !thing.hasThisValue(d.predicate, d.object) || !deleted.add(d)) {
+                conflicts.add(String.format("Triple not found for delete: %s, %s, %s", d.subject, d.predicate,
+                        d.object));
+            }
+        }
+        final Set<DbCreateOperation> created = new HashSet<>();
+        for (final DbCreateOperation c : creates) {
+            final Thing thing = existing.get(c.subject);
+            final boolean exists = thing != null && thing.hasThisValue(c.predicate, c.object)
+                    && !deleted.contains(DbCreateOperation.invert(c));
+            if (exists || !created.add(c)) {
+                conflicts.add(String.format("Triple already exists: %s, %s, %s", c.subject, c.predicate,
+                        c.object));
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new DbTransformationException(
+                    conflicts.size() + " operations conflict with the database:\n" + String.join("\n", conflicts));
+        }
+
+        update(deletes, creates);
+    }
+
     /**
      * Get a {@link Thing} by its IRI.
      *
@@ -808,9 +1177,32 @@ public class MagmaCoreService {
      * @return {@link Thing} to get.
      */
     public Thing get(final IRI iri) {
+        if (cache != null) {
+            // Read the epoch first, so that nothing is cached if a write commits after the check.
+            final long cacheEpoch = cache.getEpoch();
+            if (isCurrent()) {
+                return cache.get(iri, cacheEpoch, database::get);
+            }
+        }
         return database.get(iri);
     }
 
+    /**
+     * Get several {@link Thing} objects by their IRIs using a single query.
+     *
+     * @param iris IRIs of the things.
+     * @return {@link Map} of {@link IRI} to {@link Thing}. IRIs that were not found are not included.
+     */
+    public Map<IRI, Thing> getAll(final Collection<IRI> iris) {
+        if (cache != null) {
+            final long cacheEpoch = cache.getEpoch();
+            if (isCurrent()) {
+                return cache.getAll(iris, cacheEpoch, database::getAll);
+            }
+        }
+        return database.getAll(iris);
+    }
+
     /**
      * Get a {@link Thing} by its {@link IRI} in a transactional database.
      *
@@ -819,12 +1211,12 @@ public class MagmaCoreService {
      */
     public Thing getInTransaction(final IRI iri) {
         try {
-            database.beginRead();
-            final Thing result = database.get(iri);
-            database.commit();
+            beginRead();
+            final Thing result = get(iri);
+            commit();
             return result;
         } catch (final Exception e) {
-            database.abort();
+            abort();
             throw e;
         }
     }
@@ -835,13 +1227,9 @@ public class MagmaCoreService {
      * @param func {@link Function} to run.
      */
     public void runInReadTransaction(final Function<MagmaCoreService, MagmaCoreService> func) {
-        try {
-            database.beginRead();
+        try (MagmaCoreSession session = openReadSession()) {
             func.apply(this);
-            database.commit();
-        } catch (final Exception e) {
-            database.abort();
-            throw e;
+            session.commit();
         }
     }
 
@@ -851,13 +1239,9 @@ public class MagmaCoreService {
      * @param func {@link Function} to run.
      */
     public void runInWriteTransaction(final Function<MagmaCoreService, MagmaCoreService> func) {
-        try {
-            database.beginWrite();
+        try (MagmaCoreSession session = openWriteSession()) {
             func.apply(this);
-            database.commit();
-        } catch (final Exception e) {
-            database.abort();
-            throw e;
+            session.commit();
         }
     }
 
@@ -869,18 +1253,13 @@ public class MagmaCoreService {
      */
     public Map<String, Thing> findByEntityNameInTransaction(final List<String> entityNames) {
         try {
-            database.beginRead();
-            final HashMap<String, Thing> result = new HashMap<String, Thing>();
-
-            for (final String name : entityNames) {
-                result.put(name, findByEntityName(name));
-            }
-
-            database.commit();
+            beginRead();
+            final Map<String, Thing> result = findByEntityNames(entityNames);
+            commit();
 
             return result;
         } catch (final Exception e) {
-            database.abort();
+            abort();
             throw e;
         }
     }
@@ -894,13 +1273,131 @@ public class MagmaCoreService {
         database.dump(out, Lang.TTL);
     }
 
+    /**
+     * Export the database in a streaming RDF syntax, writing each triple as it is read so that large
+     * databases can be exported in bounded memory.
+     *
+     * @param out      The {@link OutputStream}, which is not closed.
+     * @param language A {@link Lang} with a streaming writer, such as {@link Lang#NTRIPLES},
+     *                 {@link Lang#NQUADS}, {@link Lang#RDFTHRIFT} or {@link Lang#RDFPROTO}.
+     * @param classIri Only export the members of this class, by {@link HQDM#MEMBER_OF} or
+     *                 {@code rdf:type}, or null to export everything.
+     * @return The number of triples written.
+     */
+    public long exportStream(final OutputStream out, final Lang language, final IRI classIri) {
+        return database.exportStream(out, language, classIri);
+    }
+
+    /**
+     * Export the database to a file in a streaming RDF syntax, compressing it with gzip if the file
+     * name ends with {@code .gz}.
+     *
+     * @param path     The file to write.
+     * @param language A {@link Lang} with a streaming writer.
+     * @param classIri Only export the members of this class, or null to export everything.
+     * @return The number of triples written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long exportStream(final Path path, final Lang language, final IRI classIri) throws IOException {
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(path));
+                OutputStream out = path.toString().endsWith(".gz") ? new GZIPOutputStream(file) : file) {
+            return exportStream(out, language, classIri);
+        }
+    }
+
     /**
      * Load TTL data from an {@link InputStream}.
      *
      * @param in An {@link InputStream} of TTL data.
      */
     public void importTtl(final InputStream in) {
-        database.load(in, Lang.TTL);
+        invalidateAll();
+        try {
+            database.load(in, Lang.TTL);
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Load RDF files in bulk, using the TDB2 parallel loader when the database is TDB2. This must not
+     * be called within a transaction, and is not atomic: data loaded before a failure stays loaded.
+     *
+     * @param language The RDF syntax of the files, or null to detect it from each file name.
+     * @param progress Receives the number of triples loaded and the load rate periodically, or null.
+     * @param paths    The files to load, which may be compressed with gzip or bzip2.
+     */
+    public void importBulk(final Lang language, final Consumer<BulkLoadProgress> progress, final Path... paths) {
+        invalidateAll();
+        try {
+            database.bulkLoad(language, progress, paths);
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Export the whole database in any RDF syntax. Binary syntaxes such as {@link Lang#RDFTHRIFT} and
+     * {@link Lang#RDFPROTO} are much faster to write and read back than {@link Lang#TTL}, and are
+     * streamed as for {@link #exportStream(OutputStream, Lang, IRI)}.
+     *
+     * @param out      The {@link OutputStream}, which is not closed.
+     * @param language The RDF {@link Lang}.
+     */
+    public void exportRdf(final OutputStream out, final Lang language) {
+        if (StreamRDFWriter.registered(language)) {
+            database.exportStream(out, language, null);
+        } else {
+            final PrintStream printStream = new PrintStream(out);
+            database.dump(printStream, language);
+            printStream.flush();
+        }
+    }
+
+    /**
+     * Load data in any RDF syntax from an {@link InputStream}, adding it to the database.
+     *
+     * @param in       An {@link InputStream} of RDF data.
+     * @param language The RDF {@link Lang} of the data, such as {@link Lang#RDFTHRIFT}.
+     */
+    public void importRdf(final InputStream in, final Lang language) {
+        invalidateAll();
+        try {
+            database.load(in, language);
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Write a snapshot of the whole database to a file in {@link Lang#RDFTHRIFT}, compressing it with
+     * gzip if the file name ends with {@code .gz}. The snapshot can be loaded with
+     * {@link #restore(Path)}.
+     *
+     * @param path The file to write.
+     * @return The number of triples written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long snapshot(final Path path) throws IOException {
+        return exportStream(path, SNAPSHOT_LANG, null);
+    }
+
+    /**
+     * Replace the contents of the database with a snapshot written by {@link #snapshot(Path)}, in a
+     * single write transaction. This must not be called within a transaction.
+     *
+     * @param path The snapshot file, which is decompressed with gzip if its name ends with
+     *             {@code .gz}.
+     * @throws IOException if the file cannot be read.
+     */
+    public void restore(final Path path) throws IOException {
+        invalidateAll();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path));
+                InputStream in = path.toString().endsWith(".gz") ? new GZIPInputStream(file) : file) {
+            database.restore(in, SNAPSHOT_LANG);
+        } finally {
+            endTransaction();
+        }
     }
 
     /**
@@ -912,18 +1409,102 @@ public class MagmaCoreService {
         return DataIntegrityReport.verify(database);
     }
 
+    /**
+     * Run the named model integrity checks concurrently, passing each error to a {@link Consumer} as
+     * soon as the check that found it finishes.
+     *
+     * @param checkNames The names of the checks to run, from {@link DataIntegrityReport#getCheckNames()}.
+     * @param errors     Receives each {@link Thing} representing a model integrity error.
+     * @throws IllegalArgumentException if a check name is not known.
+     */
+    public void verifyModel(final Collection<String> checkNames, final Consumer<Thing> errors) {
+        DataIntegrityReport.verify(database, checkNames, errors);
+    }
+
+    /**
+     * Run the model integrity checks only for the things that an applied {@link DbChangeSet} can have
+     * affected: the subjects and objects of its operations and the things that refer to its subjects.
+     * This is much faster than {@link #verifyModel()} for a small change to a large database.
+     *
+     * @param changeSet A {@link DbChangeSet} that has been applied.
+     * @return A {@link List} of {@link Thing} representing model integrity errors.
+     */
+    public List<Thing> verifyChangeSet(final DbChangeSet changeSet) {
+        final List<Thing> errors = new ArrayList<>();
+        DataIntegrityReport.verifyChangeSet(database, changeSet, DataIntegrityReport.getCheckNames(), errors::add);
+        return errors;
+    }
+
+    /**
+     * Run the model integrity checks only for the things that an applied {@link DbTransformation} can
+     * have affected.
+     *
+     * @param transformation A {@link DbTransformation} that has been applied.
+     * @return A {@link List} of {@link Thing} representing model integrity errors.
+     */
+    public List<Thing> verifyIncremental(final DbTransformation transformation) {
+        final List<DbDeleteOperation> deletes = new ArrayList<>();
+        final List<DbCreateOperation> creates = new ArrayList<>();
+        transformation.getChangeSets().forEach(changeSet -> {
+            deletes.addAll(changeSet.getDeletes());
+            creates.addAll(changeSet.getCreates());
+        });
+        return verifyChangeSet(new DbChangeSet(deletes, creates));
+    }
+
+    /**
+     * Open a read transaction on the calling thread, to be used with try-with-resources. Any number of
+     * threads can read concurrently, each seeing the database as it was when its session was opened.
+     *
+     * @return The {@link MagmaCoreSession}, which ends the transaction when it is closed.
+     */
+    public MagmaCoreSession openReadSession() {
+        beginRead();
+        return new MagmaCoreSession(this);
+    }
+
+    /**
+     * Open a write transaction on the calling thread, to be used with try-with-resources. Only one
+     * thread can write at a time, and readers do not see its changes until
+     * {@link MagmaCoreSession#commit()} is called. Closing the session without committing aborts it.
+     *
+     * @return The {@link MagmaCoreSession}, which ends the transaction when it is closed.
+     */
+    public MagmaCoreSession openWriteSession() {
+        beginWrite();
+        return new MagmaCoreSession(this);
+    }
+
     /**
      * Start a transaction in READ mode.
      */
     public void beginRead() {
+        final long startEpoch = writeEpoch.get();
         database.beginRead();
+        began(startEpoch);
     }
 
     /**
      * Start a transaction in Write mode.
      */
     public void beginWrite() {
+        final long startEpoch = writeEpoch.get();
         database.beginWrite();
+        began(startEpoch);
+    }
+
+    /**
+     * Record the transaction that the calling thread has just begun.
+     *
+     * @param startEpoch The write epoch before the transaction began, so that a write committed
+     *                   while it was beginning is assumed not to be visible to it.
+     */
+    private void began(final long startEpoch) {
+        if (transaction.get() != null) {
+            // The previous transaction on this thread was ended through the database, not this service.
+            endTransaction();
+        }
+        transaction.set(new TransactionState(startEpoch));
     }
 
     /**
@@ -932,7 +1513,11 @@ public class MagmaCoreService {
      * "write" transaction).
      */
     public void commit() {
-        database.commit();
+        try {
+            database.commit();
+        } finally {
+            endTransaction();
+        }
     }
 
     /**
@@ -940,7 +1525,155 @@ public class MagmaCoreService {
      * "write" transaction).
      */
     public void abort() {
-        database.abort();
+        try {
+            database.abort();
+        } finally {
+            // The sign indexes may hold the effects of the aborted writes.
+            if (hasWritten()) {
+                synchronized (indexLock) {
+                    signTextIndex = null;
+                    signResolutionIndex = null;
+                }
+            }
+            endTransaction();
+        }
+    }
+
+    /**
+     * Invalidate any cached copy of a subject that is about to be written.
+     *
+     * @param iri The subject {@link IRI}.
+     */
+    private void invalidate(final IRI iri) {
+        if (cache != null) {
+            cache.invalidate(iri);
+        }
+    }
+
+    /**
+     * Discard the {@link TemporalIndex} if a {@link Thing} that is about to be written could change it,
+     * and report the write to the {@link SignResolutionIndex}.
+     *
+     * @param thing The {@link Thing}.
+     */
+    private void invalidateIndexes(final Thing thing) {
+        synchronized (indexLock) {
+            markWritten();
+            if (temporalIndex != null && temporalIndex.affects(thing)) {
+                temporalIndex = null;
+            }
+            if (signResolutionIndex != null) {
+                signResolutionIndex.touch(thing);
+            }
+        }
+    }
+
+    /**
+     * Discard the {@link TemporalIndex} if a triple that is about to be written could change it, and
+     * report the write to the {@link SignResolutionIndex}.
+     *
+     * @param subject   The subject {@link IRI}.
+     * @param predicate The predicate {@link IRI}.
+     */
+    private void invalidateIndexes(final IRI subject, final IRI predicate) {
+        synchronized (indexLock) {
+            markWritten();
+            if (temporalIndex != null && temporalIndex.affects(subject, predicate)) {
+                temporalIndex = null;
+            }
+            if (signResolutionIndex != null) {
+                signResolutionIndex.touch(subject, predicate);
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached objects, e.g. before loading data in bulk.
+     */
+    private void invalidateAll() {
+        synchronized (indexLock) {
+            markWritten();
+            temporalIndex = null;
+            signTextIndex = null;
+            signResolutionIndex = null;
+        }
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Record that the calling thread's transaction writes to the database, so that other transactions
+     * stop using the shared indexes and cache until it ends. This must be called holding
+     * the index lock.
+     */
+    private void markWritten() {
+        TransactionState state = transaction.get();
+        if (state == null) {
+            state = new TransactionState(writeEpoch.get());
+            transaction.set(state);
+        }
+        if (!state.written) {
+            state.written = true;
+            writeEpoch.incrementAndGet();
+        }
+    }
+
+    /**
+     * Whether the calling thread's transaction has written through this service.
+     *
+     * @return true if it has written.
+     */
+    private boolean hasWritten() {
+        final TransactionState state = transaction.get();
+        return state != null && state.written;
+    }
+
+    /**
+     * Whether the calling thread's transaction sees the latest committed state, i.e. nothing has been
+     * written through this service since it began and no write is in progress. Transactions begun on
+     * the database rather than through this service are assumed to have begun now.
+     *
+     * @return true if the shared cache holds the state that the transaction sees.
+     */
+    private boolean isCurrent() {
+        final TransactionState state = transaction.get();
+        final long epoch = writeEpoch.get();
+        final long startEpoch = state != null ? state.startEpoch : epoch;
+        return startEpoch % 2 == 0 && startEpoch == epoch;
+    }
+
+    /**
+     * Whether the shared indexes hold the state that the calling thread's transaction sees: either it is
+     * the transaction that is writing, whose writes are applied to them, or it {@link #isCurrent()}.
+     * This must be called holding the index lock.
+     *
+     * @return true if the shared indexes can be used.
+     */
+    private boolean canShareIndexes() {
+        return hasWritten() || isCurrent();
+    }
+
+    /**
+     * Forget the transaction that has just ended on the calling thread and, if it wrote, invalidate
+     * cached copies of all subjects it wrote and let other transactions use the shared indexes again.
+     */
+    private void endTransaction() {
+        final TransactionState state = transaction.get();
+        transaction.remove();
+        if (state == null || !state.written) {
+            return;
+        }
+        synchronized (indexLock) {
+            if (temporalIndexProvisional) {
+                temporalIndex = null;
+                temporalIndexProvisional = false;
+            }
+            if (cache != null) {
+                cache.endTransaction();
+            }
+            writeEpoch.incrementAndGet();
+        }
     }
 
     /**
@@ -953,6 +1686,23 @@ public class MagmaCoreService {
         return database.executeQuery(query);
     }
 
+    /**
+     * Execute a SELECT query and stream the results so that they can be processed in constant memory.
+     * The {@link Stream} must be consumed and closed before the current transaction ends, e.g.
+     *
+     * <pre>
+     * try (Stream&lt;QueryResult&gt; results = service.executeQueryAsStream(query)) {
+     *     results.forEach(...);
+     * }
+     * </pre>
+     *
+     * @param query a SELECT query {@link String}
+     * @return a {@link Stream} of {@link QueryResult} that must be closed by the caller.
+     */
+    public Stream<QueryResult> executeQueryAsStream(final String query) {
+        return database.executeQueryAsStream(query);
+    }
+
     /**
      * SPARQL queries restricted to having 3 columns for the subject, predicate, and
      * object, with any names but they must be in that order. E.g.
@@ -976,6 +1726,20 @@ public class MagmaCoreService {
         return result;
     }
 
+    /**
+     * Stream the results of a SPARQL query as {@link Thing} objects. The query has the same column
+     * restrictions as {@link #executeQueryForThings(String)} and must also be ordered by the subject
+     * column, e.g. SELECT ?s ?p ?o WHERE {...} ORDER BY ?s, so that each {@link Thing} can be emitted
+     * as soon as its subject changes. The {@link Stream} must be consumed and closed within the
+     * current transaction.
+     *
+     * @param query a SELECT query {@link String} ordered by subject.
+     * @return a {@link Stream} of {@link Thing} that must be closed by the caller.
+     */
+    public Stream<Thing> executeQueryForThingsAsStream(final String query) {
+        return database.executeQueryForThingsAsStream(query);
+    }
+
     /**
      * Apply a set of inference rules to a subset of the model and return a
      * MagmaCoreService attached to
@@ -1023,6 +1787,32 @@ public class MagmaCoreService {
      * @param stream {@link InputStream}
      */
     public void loadTtl(final InputStream stream) {
-        database.load(stream, Lang.TTL);
+        invalidateAll();
+        try {
+            database.load(stream, Lang.TTL);
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * The state of the transaction in progress on a thread.
+     */
+    private static final class TransactionState {
+
+        /** The write epoch when the transaction began. */
+        private final long startEpoch;
+
+        /** Whether the transaction has written through this service. */
+        private boolean written;
+
+        /**
+         * Constructs a TransactionState.
+         *
+         * @param startEpoch The write epoch when the transaction began.
+         */
+        TransactionState(final long startEpoch) {
+            this.startEpoch = startEpoch;
+        }
     }
 }
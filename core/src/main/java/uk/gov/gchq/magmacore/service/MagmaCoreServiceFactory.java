@@ -14,8 +14,10 @@
 
 package uk.gov.gchq.magmacore.service;
 
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
 import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
 import uk.gov.gchq.magmacore.database.MagmaCoreRemoteSparqlDatabase;
+import uk.gov.gchq.magmacore.service.cache.ThingCache;
 
 /**
  * Factory for creating MagmaCoreService instances. This removes the need to expose
@@ -43,6 +45,29 @@ public class MagmaCoreServiceFactory {
         return new MagmaCoreService(new MagmaCoreJenaDatabase(location));
     }
 
+    /**
+     * Create a {@link MagmaCoreService} for a new {@link MagmaCoreJenaDatabase} that caches the
+     * results of {@code get} and {@code getAll}.
+     *
+     * @param cache {@link ThingCache} dedicated to this database.
+     * @return {@link MagmaCoreService}.
+     */
+    public static MagmaCoreService createWithJenaDatabase(final ThingCache cache) {
+        return new MagmaCoreService(new MagmaCoreJenaDatabase(), cache);
+    }
+
+    /**
+     * Create a {@link MagmaCoreService} for a new {@link MagmaCoreJenaDatabase} with a remote Jena
+     * server that caches the results of {@code get} and {@code getAll}.
+     *
+     * @param location URL of the database.
+     * @param cache    {@link ThingCache} dedicated to this database.
+     * @return {@link MagmaCoreService}.
+     */
+    public static MagmaCoreService createWithJenaDatabase(final String location, final ThingCache cache) {
+        return new MagmaCoreService(new MagmaCoreJenaDatabase(location), cache);
+    }
+
     /**
      * Create a {@link MagmaCoreService} for a new {@link MagmaCoreRemoteSparqlDatabase} with a SPARQL
      * server connection.
@@ -53,4 +78,35 @@ public class MagmaCoreServiceFactory {
     public static MagmaCoreService attachRemoteSparqlEndpoint(final String serviceUrl) {
         return new MagmaCoreService(new MagmaCoreRemoteSparqlDatabase(serviceUrl));
     }
+
+    /**
+     * Create a {@link MagmaCoreService} for a new {@link MagmaCoreRemoteSparqlDatabase} with a SPARQL
+     * server connection that caches the results of {@code get} and {@code getAll}.
+     *
+     * @param serviceUrl URL of the SPARQL server.
+     * @param cache      {@link ThingCache} dedicated to this database.
+     * @return {@link MagmaCoreService}.
+     */
+    public static MagmaCoreService attachRemoteSparqlEndpoint(final String serviceUrl, final ThingCache cache) {
+        return new MagmaCoreService(new MagmaCoreRemoteSparqlDatabase(serviceUrl), cache);
+    }
+
+    /**
+     * Create a {@link MagmaCoreService} for an existing {@link MagmaCoreDatabase}, for callers that
+     * need to configure the database themselves, e.g. with a TDB2 dataset.
+     *
+     * <p>
+     * The database must not be shared. Once the service is created, all writes should go through it:
+     * the service only invalidates its cache and indexes for its own writes, so it does not see writes
+     * made directly to the database or through another service. Share one service between threads
+     * instead, using {@link MagmaCoreService#openReadSession()} and
+     * {@link MagmaCoreService#openWriteSession()}.
+     * </p>
+     *
+     * @param database The {@link MagmaCoreDatabase} to use.
+     * @return {@link MagmaCoreService}.
+     */
+    public static MagmaCoreService create(final MagmaCoreDatabase database) {
+        return new MagmaCoreService(database);
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+/**
+ * A transaction on a {@link MagmaCoreService}, opened with {@link MagmaCoreService#openReadSession()}
+ * or {@link MagmaCoreService#openWriteSession()} and ended by closing it, typically with
+ * try-with-resources.
+ *
+ * <p>
+ * The transaction is bound to the thread that opened the session: calls to the service on that thread
+ * run in it, and the session must be committed and closed on the same thread. Each thread that reads
+ * concurrently should open its own session.
+ * </p>
+ */
+public final class MagmaCoreSession implements AutoCloseable {
+
+    private final MagmaCoreService service;
+    private final Thread owner;
+    private boolean open = true;
+
+    /**
+     * Constructs a MagmaCoreSession for a transaction that the calling thread has just begun.
+     *
+     * @param service The {@link MagmaCoreService}.
+     */
+    MagmaCoreSession(final MagmaCoreService service) {
+        this.service = service;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Whether the session has not yet been committed or closed.
+     *
+     * @return true if the transaction is still in progress.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Commit the transaction, making any changes permanent if it is a write session.
+     *
+     * @throws IllegalStateException if the session has already ended or was opened by another thread.
+     */
+    public void commit() {
+        checkOwner();
+        if (!open) {
+            throw new IllegalStateException("The session has already ended");
+        }
+        open = false;
+        service.commit();
+    }
+
+    /**
+     * End the transaction, aborting any changes if it has not been committed.
+     *
+     * @throws IllegalStateException if the session is still open and was opened by another thread.
+     */
+    @Override
+    public void close() {
+        if (open) {
+            checkOwner();
+            open = false;
+            service.abort();
+        }
+    }
+
+    /**
+     * Check that the session is being used by the thread that opened it.
+     *
+     * @throws IllegalStateException if it is not.
+     */
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("The session was opened by thread " + owner.getName()
+                    + " and cannot be ended by thread " + Thread.currentThread().getName());
+        }
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformCopyBase;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.query.QueryResult;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.service.dto.SignPatternDto;
+import uk.gov.gchq.magmacore.service.sparql.MagmaCoreServiceQueries;
+
+/**
+ * An in-memory index of every representation by sign, resolving a sign value to the objects it
+ * represents without repeating the joins of {@link MagmaCoreServiceQueries#FIND_BY_SIGN_VALUE_QUERY}
+ * and {@link MagmaCoreServiceQueries#FIND_SIGNS_FOR_ENTITY} for each lookup.
+ *
+ * <p>
+ * Each representation is held with its participants, the signs of its states of sign, the objects it
+ * represents and the instants that bound it. Representations are found by (participant, pattern,
+ * value) and by the objects that the represented states are temporal parts of, and the bounds are
+ * checked with the same condition that {@link MagmaCoreService} applies to the {@code ?start} and
+ * {@code ?finish} columns of a query.
+ * </p>
+ *
+ * <p>
+ * The index is maintained incrementally. The subjects of writes that could change a representation
+ * are reported through {@link #touch(Thing)} or {@link #touch(IRI, IRI)}, and before the next lookup
+ * the representations linked to them - both as indexed and as now in the database - are read again.
+ * </p>
+ */
+final class SignResolutionIndex {
+
+    /**
+     * The largest number of touched objects or affected representations that will be read again
+     * incrementally. Beyond this the index should be rebuilt.
+     */
+    static final int MAX_REFRESH = 10_000;
+
+    private static final Var REP_BY_SIGN = Var.alloc("repBySign");
+    private static final Var X = Var.alloc("x");
+
+    private static final Set<IRI> LINK_PREDICATES = Set.of(HQDM.REPRESENTS, HQDM.PARTICIPANT_IN,
+            HQDM.TEMPORAL_PART_OF, HQDM.VALUE_, HQDM.MEMBER_OF_, HQDM.BEGINNING, HQDM.ENDING, HQDM.ENTITY_NAME,
+            RDFS.RDF_TYPE);
+
+    private final Map<IRI, Representation> representations = new HashMap<>();
+    private final Map<SignKey, Set<IRI>> bySign = new HashMap<>();
+    private final Map<IRI, Set<IRI>> byWhole = new HashMap<>();
+    private final Map<IRI, Set<IRI>> byMember = new HashMap<>();
+    private final Set<IRI> touched = new HashSet<>();
+
+    /**
+     * Constructs an empty SignResolutionIndex.
+     */
+    private SignResolutionIndex() {
+    }
+
+    /**
+     * Build a SignResolutionIndex. This should be called within a transaction.
+     *
+     * @param database The {@link MagmaCoreDatabase} to index.
+     * @return The SignResolutionIndex.
+     */
+    static SignResolutionIndex build(final MagmaCoreDatabase database) {
+        final SignResolutionIndex index = new SignResolutionIndex();
+        index.load(database, QueryFactory.create(MagmaCoreServiceQueries.FIND_REPRESENTATION_SIGNS),
+                QueryFactory.create(MagmaCoreServiceQueries.FIND_REPRESENTATION_LINKS));
+        return index;
+    }
+
+    /**
+     * Record a {@link Thing} that is about to be written or deleted as a whole.
+     *
+     * @param thing The {@link Thing}.
+     */
+    void touch(final Thing thing) {
+        final IRI id = thing.getId();
+        if (byMember.containsKey(id) || LINK_PREDICATES.stream().anyMatch(thing::hasValue)) {
+            touched.add(id);
+        }
+    }
+
+    /**
+     * Record a single triple that is about to be written or deleted.
+     *
+     * @param subject   The subject {@link IRI}.
+     * @param predicate The predicate {@link IRI}.
+     */
+    void touch(final IRI subject, final IRI predicate) {
+        if (LINK_PREDICATES.contains(predicate)) {
+            touched.add(subject);
+        }
+    }
+
+    /**
+     * Read again the representations linked to the objects touched since the last refresh. This should
+     * be called within a transaction.
+     *
+     * @param database The {@link MagmaCoreDatabase}.
+     * @return False if there were too many changes to refresh incrementally, in which case the index
+     *         should be rebuilt.
+     */
+    boolean refresh(final MagmaCoreDatabase database) {
+        if (touched.isEmpty()) {
+            return true;
+        }
+        if (touched.size() > MAX_REFRESH) {
+            return false;
+        }
+
+        // Representations linked to the touched objects before and after the writes.
+        final Set<IRI> affected = new HashSet<>(touched);
+        touched.forEach(iri -> affected.addAll(byMember.getOrDefault(iri, Set.of())));
+        final Query affectedQuery = withValues(
+                QueryFactory.create(MagmaCoreServiceQueries.FIND_AFFECTED_REPRESENTATIONS), X, touched);
+        try (Stream<QueryResult> rows = database.executeQueryAsStream(affectedQuery)) {
+            rows.forEach(row -> affected.add(IRI.of(row.get("repBySign").toString())));
+        }
+        if (affected.size() > MAX_REFRESH) {
+            return false;
+        }
+
+        affected.forEach(this::remove);
+        load(database,
+                withValues(QueryFactory.create(MagmaCoreServiceQueries.FIND_REPRESENTATION_SIGNS), REP_BY_SIGN,
+                        affected),
+                withValues(QueryFactory.create(MagmaCoreServiceQueries.FIND_REPRESENTATION_LINKS), REP_BY_SIGN,
+                        affected));
+        touched.clear();
+        return true;
+    }
+
+    /**
+     * Find the objects represented by a sign value for a community and pattern at an {@link Instant}.
+     *
+     * @param community The participant {@link IRI}, usually a recognizing language community.
+     * @param pattern   The {@link IRI} of the pattern of the sign.
+     * @param value     The exact sign value.
+     * @param when      The {@link Instant}.
+     * @param instants  Function to parse the lexical form of an {@link Instant}.
+     * @return The {@link Set} of {@link IRI} of the represented objects.
+     */
+    Set<IRI> findRepresented(final IRI community, final IRI pattern, final String value, final Instant when,
+            final Function<String, Instant> instants) {
+        final SignKey key = new SignKey(community, pattern, NodeFactory.createLiteral(value));
+        final Set<IRI> result = new LinkedHashSet<>();
+        for (final IRI iri : bySign.getOrDefault(key, Set.of())) {
+            final Representation representation = representations.get(iri);
+            if (representation.isValidAt(when, instants)) {
+                result.addAll(representation.represented.keySet());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the signs that represent temporal parts of an object at an {@link Instant}, with the names
+     * of their patterns and of the pattern of each representation.
+     *
+     * @param entity   The {@link IRI} of the object.
+     * @param when     The {@link Instant}.
+     * @param instants Function to parse the lexical form of an {@link Instant}.
+     * @return A {@link List} of distinct {@link SignPatternDto}.
+     */
+    List<SignPatternDto> findSigns(final IRI entity, final Instant when,
+            final Function<String, Instant> instants) {
+        final Set<SignPatternDto> result = new LinkedHashSet<>();
+        for (final IRI iri : byWhole.getOrDefault(entity, Set.of())) {
+            final Representation representation = representations.get(iri);
+            if (!representation.isValidAt(when, instants)) {
+                continue;
+            }
+            for (final SignUse sign : representation.signs) {
+                if (!sign.stateOfSign) {
+                    continue;
+                }
+                for (final String patternName : sign.patternNames) {
+                    for (final Set<String> names : representation.patternNames.values()) {
+                        names.forEach(name -> result.add(new SignPatternDto(sign.text, patternName, name)));
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Read representations from the database and index them.
+     *
+     * @param database   The {@link MagmaCoreDatabase}.
+     * @param signsQuery A {@link MagmaCoreServiceQueries#FIND_REPRESENTATION_SIGNS} query.
+     * @param linksQuery A {@link MagmaCoreServiceQueries#FIND_REPRESENTATION_LINKS} query.
+     */
+    private void load(final MagmaCoreDatabase database, final Query signsQuery, final Query linksQuery) {
+        final Map<IRI, Representation> loaded = new HashMap<>();
+        final Map<List<Object>, SignUse> signUses = new HashMap<>();
+
+        try (Stream<QueryResult> rows = database.executeQueryAsStream(signsQuery)) {
+            rows.forEach(row -> {
+                final IRI repBySign = IRI.of(row.get("repBySign").toString());
+                final IRI sos = IRI.of(row.get("sos").toString());
+                final IRI sign = IRI.of(row.get("sign").toString());
+                final IRI pattern = IRI.of(row.get("pattern").toString());
+                final RDFNode value = row.get("value");
+
+                final SignUse use = signUses.computeIfAbsent(
+                        List.of(repBySign, sos, sign, pattern, value.asNode()), k -> {
+                            final SignUse created = new SignUse(sos, sign, pattern, value.asNode(),
+                                    value.toString(), row.get("isStateOfSign") != null, new HashSet<>());
+                            loaded.computeIfAbsent(repBySign, Representation::new).signs.add(created);
+                            return created;
+                        });
+                final RDFNode patternName = row.get("patternName");
+                if (patternName != null) {
+                    use.patternNames.add(patternName.toString());
+                }
+            });
+        }
+
+        try (Stream<QueryResult> rows = database.executeQueryAsStream(linksQuery)) {
+            rows.forEach(row -> {
+                final Representation representation = loaded.get(IRI.of(row.get("repBySign").toString()));
+                if (representation == null) {
+                    // A representation with no signs cannot be found.
+                    return;
+                }
+                final IRI x = IRI.of(row.get("x").toString());
+                final RDFNode y = row.get("y");
+                switch (row.get("link").toString()) {
+                    case "participant" -> representation.participants.add(x);
+                    case "represents" -> {
+                        final Set<IRI> wholes = representation.represented.computeIfAbsent(x, k -> new HashSet<>());
+                        if (y != null) {
+                            wholes.add(IRI.of(y.toString()));
+                        }
+                    }
+                    case "beginning" -> {
+                        representation.events.add(x);
+                        representation.starts.add(y.toString());
+                    }
+                    case "ending" -> {
+                        representation.events.add(x);
+                        representation.finishes.add(y.toString());
+                    }
+                    default -> representation.patternNames.computeIfAbsent(x, k -> new HashSet<>())
+                            .add(y.toString());
+                }
+            });
+        }
+
+        loaded.values().forEach(this::add);
+    }
+
+    /**
+     * Index a representation.
+     *
+     * @param representation The {@link Representation}.
+     */
+    private void add(final Representation representation) {
+        representations.put(representation.iri, representation);
+        for (final IRI participant : representation.participants) {
+            for (final SignUse sign : representation.signs) {
+                bySign.computeIfAbsent(new SignKey(participant, sign.pattern, sign.value), k -> new HashSet<>())
+                        .add(representation.iri);
+            }
+        }
+        representation.represented.values().forEach(wholes -> wholes.forEach(
+                whole -> byWhole.computeIfAbsent(whole, k -> new HashSet<>()).add(representation.iri)));
+        representation.members().forEach(
+                member -> byMember.computeIfAbsent(member, k -> new HashSet<>()).add(representation.iri));
+    }
+
+    /**
+     * Remove a representation from the index, if it is indexed.
+     *
+     * @param iri The {@link IRI} of the representation.
+     */
+    private void remove(final IRI iri) {
+        final Representation representation = representations.remove(iri);
+        if (representation == null) {
+            return;
+        }
+        for (final IRI participant : representation.participants) {
+            for (final SignUse sign : representation.signs) {
+                removeFrom(bySign, new SignKey(participant, sign.pattern, sign.value), iri);
+            }
+        }
+        representation.represented.values().forEach(wholes -> wholes.forEach(
+                whole -> removeFrom(byWhole, whole, iri)));
+        representation.members().forEach(member -> removeFrom(byMember, member, iri));
+    }
+
+    /**
+     * Remove a representation from the set held under a key, removing the set if it becomes empty.
+     *
+     * @param <K> The key type.
+     * @param map The {@link Map}.
+     * @param key The key.
+     * @param iri The {@link IRI} of the representation.
+     */
+    private static <K> void removeFrom(final Map<K, Set<IRI>> map, final K key, final IRI iri) {
+        final Set<IRI> iris = map.get(key);
+        if (iris != null) {
+            iris.remove(iri);
+            if (iris.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Add a {@code VALUES} block for a variable to every group of a query that matches it in a triple.
+     *
+     * @param query  The {@link Query}, which is not modified.
+     * @param var    The {@link Var}.
+     * @param values The values of the variable.
+     * @return The restricted {@link Query}.
+     */
+    private static Query withValues(final Query query, final Var var, final Collection<IRI> values) {
+        final List<Node> nodes = values.stream()
+                .map(iri -> NodeFactory.createURI(iri.getIri()))
+                .toList();
+
+        return QueryTransformOps.transform(query, new ElementTransformCopyBase() {
+            @Override
+            public Element transform(final ElementGroup group, final List<Element> members) {
+                if (!mentions(members, var)) {
+                    return super.transform(group, members);
+                }
+                final ElementData data = new ElementData();
+                data.add(var);
+                nodes.forEach(node -> data.add(BindingFactory.binding(var, node)));
+
+                final ElementGroup restrictedGroup = new ElementGroup();
+                restrictedGroup.addElement(data);
+                members.forEach(restrictedGroup::addElement);
+                return restrictedGroup;
+            }
+        });
+    }
+
+    /**
+     * Check whether a triple in the members of a group uses a variable.
+     *
+     * @param members The members of the group.
+     * @param var     The {@link Var}.
+     * @return True if it does.
+     */
+    private static boolean mentions(final List<Element> members, final Var var) {
+        for (final Element child : members) {
+            if (child instanceof ElementPathBlock block) {
+                for (final TriplePath path : block.getPattern().getList()) {
+                    if (var.equals(path.getSubject()) || var.equals(path.getObject())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The key of a sign: a participant in a representation, the pattern of the sign and its value.
+     *
+     * @param participant The participant {@link IRI}.
+     * @param pattern     The pattern {@link IRI}.
+     * @param value       The value {@link Node}.
+     */
+    private record SignKey(IRI participant, IRI pattern, Node value) {
+    }
+
+    /**
+     * A sign used by a state of sign that participates in a representation.
+     *
+     * @param sos          The state of sign {@link IRI}.
+     * @param sign         The sign {@link IRI}.
+     * @param pattern      The pattern {@link IRI}.
+     * @param value        The value {@link Node}.
+     * @param text         The value as text.
+     * @param stateOfSign  Whether the state of sign is typed as one.
+     * @param patternNames The names of the pattern.
+     */
+    private record SignUse(IRI sos, IRI sign, IRI pattern, Node value, String text, boolean stateOfSign,
+            Set<String> patternNames) {
+    }
+
+    /**
+     * A representation by sign and everything it is joined to.
+     */
+    private static final class Representation {
+        private final IRI iri;
+        private final Set<IRI> participants = new HashSet<>();
+        private final List<SignUse> signs = new ArrayList<>();
+        private final Map<IRI, Set<IRI>> represented = new HashMap<>();
+        private final Set<IRI> events = new HashSet<>();
+        private final Set<String> starts = new HashSet<>();
+        private final Set<String> finishes = new HashSet<>();
+        private final Map<IRI, Set<String>> patternNames = new HashMap<>();
+
+        /**
+         * Constructs a Representation.
+         *
+         * @param iri The {@link IRI} of the representation.
+         */
+        private Representation(final IRI iri) {
+            this.iri = iri;
+        }
+
+        /**
+         * Check whether some pair of the beginnings and endings includes an {@link Instant}, as the
+         * point-in-time filter does for each row of a query.
+         *
+         * @param when     The {@link Instant}.
+         * @param instants Function to parse the lexical form of an {@link Instant}.
+         * @return True if the representation is valid at the {@link Instant}.
+         */
+        private boolean isValidAt(final Instant when, final Function<String, Instant> instants) {
+            return (starts.isEmpty() || starts.stream().map(instants).anyMatch(from -> !from.isAfter(when)))
+                    && (finishes.isEmpty() || finishes.stream().map(instants).anyMatch(to -> !to.isBefore(when)));
+        }
+
+        /**
+         * Get every object whose writes could change this representation.
+         *
+         * @return A {@link Set} of {@link IRI}.
+         */
+        private Set<IRI> members() {
+            final Set<IRI> members = new HashSet<>();
+            members.add(iri);
+            members.addAll(participants);
+            members.addAll(represented.keySet());
+            members.addAll(events);
+            members.addAll(patternNames.keySet());
+            signs.forEach(sign -> {
+                members.add(sign.sos);
+                members.add(sign.sign);
+                members.add(sign.pattern);
+            });
+            return members;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.expr.E_StrContains;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformCopyBase;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.query.QueryResult;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.service.sparql.MagmaCoreServiceQueries;
+
+/**
+ * An in-memory trigram index of every {@link HQDM#VALUE_} in the database, used to turn the substring
+ * searches of the partial sign queries of {@link MagmaCoreService} into index probes.
+ *
+ * <p>
+ * Each value is case folded and split into overlapping three character sequences, and each sequence
+ * maps to the objects with a value containing it. The objects whose values could contain some text
+ * are those found under every sequence of the folded text, and these candidates are then checked
+ * against the text itself. Folding lowercases the whole value, as SPARQL {@code lcase} does, and then
+ * maps each character to a single case variant, so a value that contains some text - in either case
+ * sensitive or insensitive comparison - always has every sequence of that text.
+ * </p>
+ *
+ * <p>
+ * The index is only used to restrict queries that still apply their own {@code FILTER}, so holding
+ * values that have since been deleted costs some work but never changes a result. Values written by
+ * the owner must be reported through {@link #add(Thing)} or {@link #add(IRI, Object)} and objects
+ * deleted as a whole through {@link #remove(IRI)}.
+ * </p>
+ */
+final class SignTextIndex {
+
+    /**
+     * The largest number of candidate objects that will be listed in the text of a query. Beyond this
+     * the query is run unrestricted.
+     */
+    static final int MAX_CANDIDATES = 10_000;
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<IRI, Set<String>> values = new HashMap<>();
+    private final Map<String, Set<IRI>> postings = new HashMap<>();
+
+    /**
+     * Constructs an empty SignTextIndex.
+     */
+    private SignTextIndex() {
+    }
+
+    /**
+     * Build a SignTextIndex with a single query. This should be called within a transaction.
+     *
+     * @param database The {@link MagmaCoreDatabase} to index.
+     * @return The SignTextIndex.
+     */
+    static SignTextIndex build(final MagmaCoreDatabase database) {
+        final SignTextIndex index = new SignTextIndex();
+
+        try (Stream<QueryResult> rows = database.executeQueryAsStream(MagmaCoreServiceQueries.FIND_SIGN_VALUES)) {
+            rows.forEach(row -> {
+                final RDFNode value = row.get("value");
+                index.add(IRI.of(row.get("s").toString()),
+                        value.isLiteral() ? value.asLiteral().getLexicalForm() : value.toString());
+            });
+        }
+        return index;
+    }
+
+    /**
+     * Index the {@link HQDM#VALUE_} of a {@link Thing} that has been written.
+     *
+     * @param thing The {@link Thing}.
+     */
+    void add(final Thing thing) {
+        final Set<Object> thingValues = thing.values(HQDM.VALUE_);
+        if (thingValues != null) {
+            thingValues.forEach(value -> add(thing.getId(), value));
+        }
+    }
+
+    /**
+     * Index a single {@link HQDM#VALUE_} that has been written.
+     *
+     * @param subject The subject {@link IRI}.
+     * @param value   The value, which is indexed by its string form.
+     */
+    void add(final IRI subject, final Object value) {
+        final String text = value instanceof IRI iri ? iri.getIri() : value.toString();
+        if (values.computeIfAbsent(subject, s -> new HashSet<>()).add(text)) {
+            grams(fold(text)).forEach(gram -> postings.computeIfAbsent(gram, g -> new HashSet<>()).add(subject));
+        }
+    }
+
+    /**
+     * Remove every value of an object that has been deleted as a whole.
+     *
+     * @param subject The subject {@link IRI}.
+     */
+    void remove(final IRI subject) {
+        final Set<String> removed = values.remove(subject);
+        if (removed == null) {
+            return;
+        }
+        removed.forEach(text -> grams(fold(text)).forEach(gram -> {
+            final Set<IRI> subjects = postings.get(gram);
+            if (subjects != null) {
+                subjects.remove(subject);
+                if (subjects.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Find the objects with a value containing some text.
+     *
+     * @param text          The text to search for.
+     * @param caseSensitive Whether to compare as SPARQL {@code CONTAINS(str(?v), ?text)} rather than
+     *                      {@code CONTAINS(lcase(str(?v)), lcase(?text))}.
+     * @return The {@link Set} of {@link IRI} of matching objects.
+     */
+    Set<IRI> find(final String text, final boolean caseSensitive) {
+        final List<Set<IRI>> lists = new ArrayList<>();
+        for (final String gram : grams(fold(text))) {
+            final Set<IRI> subjects = postings.get(gram);
+            if (subjects == null) {
+                return Set.of();
+            }
+            lists.add(subjects);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        // Text too short to have a sequence is checked against every value.
+        final Set<IRI> probed = lists.isEmpty() ? values.keySet() : lists.get(0);
+
+        final String lowerText = text.toLowerCase(Locale.ROOT);
+        final Set<IRI> result = new HashSet<>();
+        for (final IRI subject : probed) {
+            if (!containsAll(lists, subject)) {
+                continue;
+            }
+            for (final String value : values.get(subject)) {
+                if (caseSensitive ? value.contains(text) : value.toLowerCase(Locale.ROOT).contains(lowerText)) {
+                    result.add(subject);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Restrict the partial sign searches in a query to the objects whose values contain some text.
+     *
+     * <p>
+     * Each group with a {@code FILTER} using {@code CONTAINS} on the object of a {@link HQDM#VALUE_}
+     * triple of the same group gets a {@code VALUES} block listing the matching subjects of that
+     * triple. The query is returned unchanged if there are more than {@link #MAX_CANDIDATES} matches.
+     * </p>
+     *
+     * @param query         The SELECT {@link Query}, which is not modified.
+     * @param text          The text that the query searches for.
+     * @param caseSensitive Whether the query searches case sensitively.
+     * @return The restricted {@link Query}.
+     */
+    Query restrict(final Query query, final String text, final boolean caseSensitive) {
+        final Set<IRI> found = find(text, caseSensitive);
+        if (found.size() > MAX_CANDIDATES) {
+            return query;
+        }
+
+        final List<Node> candidates = found.stream()
+                .map(iri -> NodeFactory.createURI(iri.getIri()))
+                .toList();
+
+        final boolean[] restricted = new boolean[1];
+        final Query result = QueryTransformOps.transform(query, new ElementTransformCopyBase() {
+            @Override
+            public Element transform(final ElementGroup group, final List<Element> members) {
+                final Var sign = signVar(members);
+                if (sign == null) {
+                    return super.transform(group, members);
+                }
+                final ElementData data = new ElementData();
+                data.add(sign);
+                candidates.forEach(node -> data.add(BindingFactory.binding(sign, node)));
+
+                final ElementGroup restrictedGroup = new ElementGroup();
+                restrictedGroup.addElement(data);
+                members.forEach(restrictedGroup::addElement);
+                restricted[0] = true;
+                return restrictedGroup;
+            }
+        });
+        return restricted[0] ? result : query;
+    }
+
+    /**
+     * Find the subject of the {@link HQDM#VALUE_} triple whose object is searched with
+     * {@code CONTAINS} in a group.
+     *
+     * @param members The members of the group.
+     * @return The {@link Var}, or null if the group has none.
+     */
+    private static Var signVar(final List<Element> members) {
+        final Set<Var> searched = new HashSet<>();
+        for (final Element child : members) {
+            if (child instanceof ElementFilter filter && filter.getExpr() instanceof E_StrContains) {
+                searched.addAll(filter.getExpr().getVarsMentioned());
+            }
+        }
+        if (searched.isEmpty()) {
+            return null;
+        }
+
+        final Node value = NodeFactory.createURI(HQDM.VALUE_.getIri());
+        for (final Element child : members) {
+            if (child instanceof ElementPathBlock block) {
+                for (final TriplePath path : block.getPattern().getList()) {
+                    if (value.equals(path.getPredicate())
+                            && path.getSubject().isVariable()
+                            && searched.contains(Var.alloc(path.getObject()))) {
+                        return Var.alloc(path.getSubject());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether every posting list contains a subject.
+     *
+     * @param lists   The posting lists.
+     * @param subject The subject {@link IRI}.
+     * @return True if it is in every list.
+     */
+    private static boolean containsAll(final Collection<Set<IRI>> lists, final IRI subject) {
+        for (final Set<IRI> list : lists) {
+            if (!list.contains(subject)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fold a string to lower case, then map each character to a single case variant so that
+     * context-dependent lowercasing, such as of the Greek final sigma, cannot hide a match.
+     *
+     * @param text The text.
+     * @return The folded text.
+     */
+    private static String fold(final String text) {
+        final StringBuilder folded = new StringBuilder(text.length());
+        text.toLowerCase(Locale.ROOT).codePoints()
+                .map(cp -> Character.toLowerCase(Character.toUpperCase(cp)))
+                .forEach(folded::appendCodePoint);
+        return folded.toString();
+    }
+
+    /**
+     * Split folded text into its distinct overlapping three character sequences.
+     *
+     * @param folded The folded text.
+     * @return The {@link Set} of sequences.
+     */
+    private static Set<String> grams(final String folded) {
+        final Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
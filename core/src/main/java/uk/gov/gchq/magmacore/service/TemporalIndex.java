@@ -0,0 +1,344 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementMinus;
+import org.apache.jena.sparql.syntax.ElementOptional;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformCopyBase;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.query.QueryResult;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.service.sparql.MagmaCoreServiceQueries;
+
+/**
+ * An in-memory index of the instants that bound every object with an {@link HQDM#BEGINNING} or
+ * {@link HQDM#ENDING}, used to push point-in-time restrictions into the temporal queries of
+ * {@link MagmaCoreService}.
+ *
+ * <p>
+ * Each bounded object is valid from the earliest {@link HQDM#ENTITY_NAME} of its beginnings to the
+ * latest of its endings, which is the same condition that {@link MagmaCoreService} applies to the
+ * {@code ?start} and {@code ?finish} columns of a query. The bounds are held in two arrays sorted by
+ * instant, so the objects that are not valid at an instant - those that begin after it or end before
+ * it - are a suffix of one array and a prefix of the other, found by binary search.
+ * </p>
+ *
+ * <p>
+ * The index is a snapshot of the database when it was built, and is only used to exclude rows that
+ * the point-in-time filter would remove anyway, so objects added since then are never wrongly
+ * excluded. Changes to the bounds of indexed objects must be reported through {@link #affects(Thing)}
+ * or {@link #affects(IRI, IRI)} so that the owner can discard the index.
+ * </p>
+ */
+final class TemporalIndex {
+
+    /**
+     * The largest number of objects that will be excluded in the text of a query. Beyond this the
+     * query is run unrestricted and only filtered afterwards.
+     */
+    static final int MAX_EXCLUDED = 10_000;
+
+    private final Set<IRI> subjects;
+    private final Set<IRI> events;
+    private final Map<String, Instant> instants;
+
+    private final IRI[] byFrom;
+    private final Instant[] froms;
+    private final IRI[] byTo;
+    private final Instant[] tos;
+
+    /**
+     * Constructs a TemporalIndex.
+     *
+     * @param subjects All objects with a beginning or ending.
+     * @param events   All beginnings and endings.
+     * @param instants The parsed instants, keyed by their lexical form.
+     * @param bounds   The bounds of the objects that can be excluded.
+     */
+    private TemporalIndex(final Set<IRI> subjects, final Set<IRI> events, final Map<String, Instant> instants,
+            final Map<IRI, Bounds> bounds) {
+        this.subjects = subjects;
+        this.events = events;
+        this.instants = instants;
+
+        final List<Map.Entry<IRI, Bounds>> fromOrder = bounds.entrySet()
+                .stream()
+                .sorted(Comparator.comparing(e -> e.getValue().from))
+                .toList();
+        byFrom = fromOrder.stream().map(Map.Entry::getKey).toArray(IRI[]::new);
+        froms = fromOrder.stream().map(e -> e.getValue().from).toArray(Instant[]::new);
+
+        final List<Map.Entry<IRI, Bounds>> toOrder = bounds.entrySet()
+                .stream()
+                .sorted(Comparator.comparing(e -> e.getValue().to))
+                .toList();
+        byTo = toOrder.stream().map(Map.Entry::getKey).toArray(IRI[]::new);
+        tos = toOrder.stream().map(e -> e.getValue().to).toArray(Instant[]::new);
+    }
+
+    /**
+     * Build a TemporalIndex with a single query. This should be called within a transaction.
+     *
+     * @param database The {@link MagmaCoreDatabase} to index.
+     * @return The TemporalIndex.
+     */
+    static TemporalIndex build(final MagmaCoreDatabase database) {
+        final Set<IRI> subjects = new HashSet<>();
+        final Set<IRI> events = new HashSet<>();
+        final Map<String, Instant> instants = new HashMap<>();
+        final Map<IRI, Bounds> bounds = new HashMap<>();
+        final Set<IRI> unparseable = new HashSet<>();
+
+        try (Stream<QueryResult> rows = database.executeQueryAsStream(MagmaCoreServiceQueries.FIND_TEMPORAL_BOUNDS)) {
+            rows.forEach(row -> {
+                final IRI subject = IRI.of(row.get("s").toString());
+                subjects.add(subject);
+                events.add(IRI.of(row.get("event").toString()));
+
+                final RDFNode instantNode = row.get("instant");
+                if (instantNode == null) {
+                    return;
+                }
+                final String lexical = instantNode.toString();
+                final Instant instant;
+                try {
+                    instant = instants.computeIfAbsent(lexical, Instant::parse);
+                } catch (final DateTimeParseException e) {
+                    unparseable.add(subject);
+                    return;
+                }
+                final Bounds b = bounds.computeIfAbsent(subject, s -> new Bounds());
+                if (HQDM.BEGINNING.getIri().equals(row.get("bound").toString())) {
+                    b.from = b.from == Instant.MIN || instant.isBefore(b.from) ? instant : b.from;
+                } else {
+                    b.to = b.to == Instant.MAX || instant.isAfter(b.to) ? instant : b.to;
+                }
+            });
+        }
+
+        // Leave objects with an unparseable bound to the point-in-time filter, which reports the error.
+        unparseable.forEach(bounds::remove);
+
+        return new TemporalIndex(subjects, events, instants, bounds);
+    }
+
+    /**
+     * Parse the {@link Instant} of a beginning or ending, reusing the instant parsed when the index was
+     * built if there is one.
+     *
+     * @param lexical The lexical form of the {@link Instant}.
+     * @return The {@link Instant}.
+     * @throws DateTimeParseException if the value is not an {@link Instant}.
+     */
+    Instant instant(final String lexical) {
+        final Instant instant = instants.get(lexical);
+        return instant != null ? instant : Instant.parse(lexical);
+    }
+
+    /**
+     * Find the indexed objects that are not valid at an {@link Instant}, i.e. that begin after it or
+     * end before it.
+     *
+     * @param when The {@link Instant}.
+     * @return The {@link Set} of {@link IRI} of objects that are not valid.
+     */
+    Set<IRI> invalidAt(final Instant when) {
+        final int beginAfter = firstIndexAfter(froms, when);
+        final int endBefore = firstIndexNotBefore(tos, when);
+
+        final Set<IRI> result = new LinkedHashSet<>();
+        result.addAll(Arrays.asList(byFrom).subList(beginAfter, byFrom.length));
+        result.addAll(Arrays.asList(byTo).subList(0, endBefore));
+        return result;
+    }
+
+    /**
+     * Restrict a query to the objects that are valid at an {@link Instant}.
+     *
+     * <p>
+     * The temporal variable of each group is the subject of the {@link HQDM#BEGINNING} in an
+     * {@code OPTIONAL} of that group, and the objects that are not valid are removed from the group with
+     * {@code MINUS { VALUES ?var { ... } }}. The query is returned unchanged if it has no temporal
+     * variable, or if more than {@link #MAX_EXCLUDED} objects would be removed.
+     * </p>
+     *
+     * @param query The SELECT {@link Query}, which is not modified.
+     * @param when  The {@link Instant}.
+     * @return The restricted {@link Query}.
+     */
+    Query restrict(final Query query, final Instant when) {
+        final int excludedCount = byFrom.length - firstIndexAfter(froms, when) + firstIndexNotBefore(tos, when);
+        if (excludedCount == 0 || excludedCount > MAX_EXCLUDED) {
+            return query;
+        }
+
+        final List<Node> excluded = invalidAt(when)
+                .stream()
+                .map(iri -> NodeFactory.createURI(iri.getIri()))
+                .toList();
+
+        final boolean[] restricted = new boolean[1];
+        final Query result = QueryTransformOps.transform(query, new ElementTransformCopyBase() {
+            @Override
+            public Element transform(final ElementGroup group, final List<Element> members) {
+                final Var temporal = temporalVar(members);
+                if (temporal == null) {
+                    return super.transform(group, members);
+                }
+                final ElementData data = new ElementData();
+                data.add(temporal);
+                excluded.forEach(node -> data.add(BindingFactory.binding(temporal, node)));
+                final ElementGroup minus = new ElementGroup();
+                minus.addElement(data);
+
+                final ElementGroup restrictedGroup = new ElementGroup();
+                members.forEach(restrictedGroup::addElement);
+                restrictedGroup.addElement(new ElementMinus(minus));
+                restricted[0] = true;
+                return restrictedGroup;
+            }
+        });
+        return restricted[0] ? result : query;
+    }
+
+    /**
+     * Check whether a write to a {@link Thing} could change the bounds of an indexed object.
+     *
+     * @param thing The {@link Thing} being written or deleted.
+     * @return True if the index should be discarded.
+     */
+    boolean affects(final Thing thing) {
+        final IRI id = thing.getId();
+        return subjects.contains(id)
+                || events.contains(id)
+                || thing.hasValue(HQDM.BEGINNING)
+                || thing.hasValue(HQDM.ENDING);
+    }
+
+    /**
+     * Check whether writing a single triple could change the bounds of an indexed object.
+     *
+     * @param subject   The subject {@link IRI}.
+     * @param predicate The predicate {@link IRI}.
+     * @return True if the index should be discarded.
+     */
+    boolean affects(final IRI subject, final IRI predicate) {
+        return HQDM.BEGINNING.equals(predicate)
+                || HQDM.ENDING.equals(predicate)
+                || HQDM.ENTITY_NAME.equals(predicate) && events.contains(subject);
+    }
+
+    /**
+     * Find the variable whose {@link HQDM#BEGINNING} is read in an {@code OPTIONAL} of a group.
+     *
+     * @param members The members of the group.
+     * @return The {@link Var}, or null if the group has none.
+     */
+    private static Var temporalVar(final List<Element> members) {
+        final Node beginning = NodeFactory.createURI(HQDM.BEGINNING.getIri());
+        for (final Element child : members) {
+            if (child instanceof ElementOptional optional
+                    && optional.getOptionalElement() instanceof ElementGroup optionalGroup) {
+                for (final Element e : optionalGroup.getElements()) {
+                    if (e instanceof ElementPathBlock block) {
+                        for (final TriplePath path : block.getPattern().getList()) {
+                            if (beginning.equals(path.getPredicate()) && path.getSubject().isVariable()) {
+                                return Var.alloc(path.getSubject());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the index of the first instant that is after a given instant.
+     *
+     * @param sorted The sorted instants.
+     * @param when   The {@link Instant}.
+     * @return The index, or the array length if there is none.
+     */
+    private static int firstIndexAfter(final Instant[] sorted, final Instant when) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid].isAfter(when)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the index of the first instant that is not before a given instant.
+     *
+     * @param sorted The sorted instants.
+     * @param when   The {@link Instant}.
+     * @return The index, or the array length if there is none.
+     */
+    private static int firstIndexNotBefore(final Instant[] sorted, final Instant when) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid].isBefore(when)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The bounds of an object, where {@link Instant#MIN} and {@link Instant#MAX} mean unbounded.
+     */
+    private static final class Bounds {
+        private Instant from = Instant.MIN;
+        private Instant to = Instant.MAX;
+    }
+}
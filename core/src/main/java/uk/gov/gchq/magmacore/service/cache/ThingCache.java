@@ -0,0 +1,276 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+
+/**
+ * A bounded, least-recently-used read-through cache of {@link Thing} objects keyed by {@link IRI}.
+ *
+ * <p>
+ * Each entry is weighted by the number of triples in the {@link Thing} (plus one), and the least
+ * recently used entries are evicted once the total weight exceeds the configured maximum. Entries are
+ * invalidated per subject whenever a write touches that subject, and again when the enclosing
+ * transaction commits or aborts, so that objects read from uncommitted state are never served after
+ * the transaction ends.
+ * </p>
+ *
+ * <p>
+ * The cache keeps its own copy of each {@link Thing} and returns a new copy to every caller, so callers
+ * may modify the objects they get without affecting later readers. A cache should only be used with a
+ * single database.
+ * </p>
+ */
+public class ThingCache {
+
+    private final long maximumWeight;
+
+    private final LinkedHashMap<IRI, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<IRI> touched = new HashSet<>();
+
+    private long weight;
+    private long epoch;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a ThingCache with a maximum total weight.
+     *
+     * @param maximumWeight The maximum total number of triples (plus one per {@link Thing}) to cache.
+     */
+    public ThingCache(final long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight must not be negative: " + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * Get the number of invalidations so far. A caller that checks whether its transaction can use the
+     * cache should read this first and pass it to {@link #get(IRI, long, Function)} or
+     * {@link #getAll(Collection, long, Function)}, so that objects it loads are not cached if a write
+     * invalidated them after the check.
+     *
+     * @return The current epoch.
+     */
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get a {@link Thing} from the cache, loading it if it is not present.
+     *
+     * @param iri    The {@link IRI} of the {@link Thing}.
+     * @param loader Function to load the {@link Thing} on a cache miss. It may return null.
+     * @return The {@link Thing}, or null if the loader found nothing.
+     */
+    public Thing get(final IRI iri, final Function<IRI, Thing> loader) {
+        return get(iri, getEpoch(), loader);
+    }
+
+    /**
+     * Get a {@link Thing} from the cache, loading it if it is not present. The loaded {@link Thing} is
+     * only cached if nothing has been invalidated since {@code startEpoch}.
+     *
+     * @param iri        The {@link IRI} of the {@link Thing}.
+     * @param startEpoch The {@link #getEpoch()} read before the caller's transaction was checked.
+     * @param loader     Function to load the {@link Thing} on a cache miss. It may return null.
+     * @return The {@link Thing}, or null if the loader found nothing.
+     */
+    public Thing get(final IRI iri, final long startEpoch, final Function<IRI, Thing> loader) {
+        synchronized (this) {
+            final Entry entry = entries.get(iri);
+            if (entry != null) {
+                hits++;
+                return copy(entry.thing);
+            }
+            misses++;
+        }
+
+        final Thing thing = loader.apply(iri);
+        if (thing != null) {
+            put(startEpoch, iri, thing);
+        }
+        return thing;
+    }
+
+    /**
+     * Get several {@link Thing} objects from the cache, loading any that are not present in one call.
+     *
+     * @param iris   The {@link IRI}s of the {@link Thing} objects.
+     * @param loader Function to load the missing {@link Thing} objects.
+     * @return A {@link Map} of {@link IRI} to {@link Thing} for those that were found.
+     */
+    public Map<IRI, Thing> getAll(final Collection<IRI> iris,
+            final Function<Collection<IRI>, Map<IRI, Thing>> loader) {
+        return getAll(iris, getEpoch(), loader);
+    }
+
+    /**
+     * Get several {@link Thing} objects from the cache, loading any that are not present in one call.
+     * The loaded {@link Thing} objects are only cached if nothing has been invalidated since
+     * {@code startEpoch}.
+     *
+     * @param iris       The {@link IRI}s of the {@link Thing} objects.
+     * @param startEpoch The {@link #getEpoch()} read before the caller's transaction was checked.
+     * @param loader     Function to load the missing {@link Thing} objects.
+     * @return A {@link Map} of {@link IRI} to {@link Thing} for those that were found.
+     */
+    public Map<IRI, Thing> getAll(final Collection<IRI> iris, final long startEpoch,
+            final Function<Collection<IRI>, Map<IRI, Thing>> loader) {
+        final Map<IRI, Thing> result = new HashMap<>();
+        final List<IRI> missing = new ArrayList<>();
+
+        synchronized (this) {
+            for (final IRI iri : iris) {
+                if (result.containsKey(iri)) {
+                    continue;
+                }
+                final Entry entry = entries.get(iri);
+                if (entry != null) {
+                    hits++;
+                    result.put(iri, copy(entry.thing));
+                } else {
+                    misses++;
+                    missing.add(iri);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            final Map<IRI, Thing> loaded = loader.apply(missing);
+            loaded.forEach((iri, thing) -> put(startEpoch, iri, thing));
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Invalidate the entry for a subject that is being written, and remember it so that it is
+     * invalidated again when the transaction ends.
+     *
+     * @param iri The subject {@link IRI}.
+     */
+    public synchronized void invalidate(final IRI iri) {
+        epoch++;
+        touched.add(iri);
+        remove(iri);
+    }
+
+    /**
+     * Invalidate all entries, e.g. after a bulk load.
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        touched.clear();
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Invalidate all subjects written during the transaction that is ending. This should be called
+     * when a transaction commits or aborts.
+     */
+    public synchronized void endTransaction() {
+        if (!touched.isEmpty()) {
+            epoch++;
+            touched.forEach(this::remove);
+            touched.clear();
+        }
+    }
+
+    /**
+     * Get a snapshot of the cache counters.
+     *
+     * @return {@link ThingCacheStats}.
+     */
+    public synchronized ThingCacheStats getStats() {
+        return new ThingCacheStats(hits, misses, evictions, entries.size(), weight);
+    }
+
+    /**
+     * Add a loaded {@link Thing} unless the cache has been invalidated since the load started.
+     *
+     * @param startEpoch The epoch when the load started.
+     * @param iri        The {@link IRI}.
+     * @param thing      The {@link Thing}.
+     */
+    private synchronized void put(final long startEpoch, final IRI iri, final Thing thing) {
+        if (startEpoch != epoch) {
+            return;
+        }
+        final int thingWeight = 1 + thing.getPredicates().values().stream().mapToInt(Set::size).sum();
+        if (thingWeight > maximumWeight) {
+            return;
+        }
+
+        remove(iri);
+        entries.put(iri, new Entry(copy(thing), thingWeight));
+        weight += thingWeight;
+
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maximumWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove an entry if it is present.
+     *
+     * @param iri The {@link IRI}.
+     */
+    private void remove(final IRI iri) {
+        final Entry removed = entries.remove(iri);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Copy a {@link Thing} by rebuilding it from its predicates.
+     *
+     * @param thing The {@link Thing}.
+     * @return A new {@link Thing} with the same {@link IRI} and values.
+     */
+    private static Thing copy(final Thing thing) {
+        final List<Pair<IRI, Object>> pairs = new ArrayList<>();
+        thing.getPredicates().forEach((predicate, values) -> values
+                .forEach(value -> pairs.add(new Pair<>(predicate, value))));
+        return HqdmObjectFactory.create(thing.getId(), pairs);
+    }
+
+    /**
+     * A cached {@link Thing} and its weight.
+     */
+    private record Entry(Thing thing, int weight) {
+    }
+}
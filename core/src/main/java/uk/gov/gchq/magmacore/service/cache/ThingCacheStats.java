@@ -0,0 +1,27 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service.cache;
+
+/**
+ * A snapshot of the counters of a {@link ThingCache}.
+ *
+ * @param hits      The number of lookups answered from the cache.
+ * @param misses    The number of lookups that had to read from the database.
+ * @param evictions The number of entries removed to keep within the maximum weight.
+ * @param size      The number of entries currently cached.
+ * @param weight    The total weight of the entries currently cached.
+ */
+public record ThingCacheStats(long hits, long misses, long evictions, long size, long weight) {
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service.dto;
+
+import java.time.Duration;
+
+/**
+ * The progress of a bulk load, reported periodically while it runs and once when it finishes.
+ *
+ * @param triples  The number of triples loaded so far.
+ * @param elapsed  The time since the load started.
+ * @param finished Whether this is the final report.
+ */
+public record BulkLoadProgress(long triples, Duration elapsed, boolean finished) {
+
+    /**
+     * Get the average load rate so far.
+     *
+     * @return Triples per second.
+     */
+    public double triplesPerSecond() {
+        final long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : triples * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service.dto;
+
+import java.time.Duration;
+
+/**
+ * The counters of a {@link uk.gov.gchq.magmacore.service.GroupCommitWriter}. Latencies are measured
+ * from when a write is submitted until its batch has committed, over the most recent writes.
+ *
+ * @param batches       The number of batches committed.
+ * @param writes        The number of writes committed.
+ * @param failures      The number of writes that failed.
+ * @param largestBatch  The largest number of writes committed in one transaction.
+ * @param medianLatency The median commit latency.
+ * @param p95Latency    The 95th percentile commit latency.
+ * @param p99Latency    The 99th percentile commit latency.
+ */
+public record GroupCommitStats(long batches, long writes, long failures, int largestBatch,
+        Duration medianLatency, Duration p95Latency, Duration p99Latency) {
+
+    /**
+     * Get the average number of writes committed in each transaction.
+     *
+     * @return The average batch size.
+     */
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) writes / batches;
+    }
+}
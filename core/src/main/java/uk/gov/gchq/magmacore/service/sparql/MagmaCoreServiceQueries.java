@@ -1138,4 +1138,148 @@ public class MagmaCoreServiceQueries {
                     ?p ?o.
             }
             """;
+
+    /**
+     * Find the instants that bound every object with an {@code hqdm:beginning} or {@code hqdm:ending},
+     * for building a temporal index. It takes no parameters.
+     * <p>
+     * Events without an {@code hqdm:data_EntityName} are returned with no {@code ?instant}.
+     * </p>
+     */
+    public static final String FIND_TEMPORAL_BOUNDS = """
+            PREFIX hqdm: <https://hqdmtop.github.io/hqdm#>
+
+            SELECT ?s ?bound ?event ?instant
+            WHERE {
+                VALUES ?bound { hqdm:beginning hqdm:ending }
+                ?s ?bound ?event.
+                OPTIONAL {
+                    ?event hqdm:data_EntityName ?instant.
+                }
+            }
+            """;
+
+    /**
+     * Find every {@code hqdm:value_} in the database, for building a text index of signs. It takes no
+     * parameters.
+     */
+    public static final String FIND_SIGN_VALUES = """
+            PREFIX hqdm: <https://hqdmtop.github.io/hqdm#>
+
+            SELECT ?s ?value
+            WHERE {
+                ?s hqdm:value_ ?value.
+            }
+            """;
+
+    /**
+     * Find the signs of every representation by sign, for building a sign resolution index. It takes
+     * no parameters.
+     * <p>
+     * Each row is a state of sign participating in a representation, with the value and pattern of
+     * its sign. {@code ?isStateOfSign} is bound if the state is typed as an {@code hqdm:state_of_sign}.
+     * </p>
+     */
+    public static final String FIND_REPRESENTATION_SIGNS = """
+            PREFIX hqdm: <https://hqdmtop.github.io/hqdm#>
+            PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+
+            SELECT ?repBySign ?sos ?sign ?value ?pattern ?patternName ?isStateOfSign
+            WHERE {
+                ?sos hqdm:temporal_part_of ?sign;
+                    hqdm:participant_in ?repBySign.
+                ?sign hqdm:value_ ?value;
+                    hqdm:member_of_ ?pattern.
+                OPTIONAL {
+                    ?pattern hqdm:data_EntityName ?patternName.
+                }
+                OPTIONAL {
+                    ?sos rdf:type hqdm:state_of_sign.
+                    BIND(true as ?isStateOfSign)
+                }
+            }
+            """;
+
+    /**
+     * Find the participants, represented objects, bounds and patterns of every representation by
+     * sign, for building a sign resolution index. It takes no parameters.
+     * <p>
+     * {@code ?link} names the kind of each row. For {@code represents} rows {@code ?y} is an object
+     * that the represented state is a temporal part of, and for the other kinds it is the
+     * {@code hqdm:data_EntityName} of {@code ?x}.
+     * </p>
+     */
+    public static final String FIND_REPRESENTATION_LINKS = """
+            PREFIX hqdm: <https://hqdmtop.github.io/hqdm#>
+
+            SELECT DISTINCT ?repBySign ?link ?x ?y
+            WHERE {
+                {
+                    ?x hqdm:participant_in ?repBySign.
+                    ?repBySign hqdm:represents ?represented.
+                    BIND("participant" as ?link)
+                }
+                UNION
+                {
+                    ?repBySign hqdm:represents ?x.
+                    OPTIONAL {
+                        ?x hqdm:temporal_part_of ?y.
+                    }
+                    BIND("represents" as ?link)
+                }
+                UNION
+                {
+                    ?repBySign hqdm:beginning ?x.
+                    ?x hqdm:data_EntityName ?y.
+                    BIND("beginning" as ?link)
+                }
+                UNION
+                {
+                    ?repBySign hqdm:ending ?x.
+                    ?x hqdm:data_EntityName ?y.
+                    BIND("ending" as ?link)
+                }
+                UNION
+                {
+                    ?repBySign hqdm:member_of_ ?x;
+                        hqdm:represents ?represented.
+                    ?x hqdm:data_EntityName ?y.
+                    BIND("pattern" as ?link)
+                }
+            }
+            """;
+
+    /**
+     * Find the representations by sign that could be affected by writes to some objects, for keeping
+     * a sign resolution index up to date. The objects are supplied as the values of {@code ?x}.
+     */
+    public static final String FIND_AFFECTED_REPRESENTATIONS = """
+            PREFIX hqdm: <https://hqdmtop.github.io/hqdm#>
+
+            SELECT DISTINCT ?repBySign
+            WHERE {
+                {
+                    ?repBySign hqdm:represents ?x.
+                }
+                UNION
+                {
+                    ?x hqdm:participant_in ?repBySign.
+                }
+                UNION
+                {
+                    ?sos hqdm:temporal_part_of ?x;
+                        hqdm:participant_in ?repBySign.
+                }
+                UNION
+                {
+                    ?sign hqdm:member_of_ ?x.
+                    ?sos hqdm:temporal_part_of ?sign;
+                        hqdm:participant_in ?repBySign.
+                }
+                UNION
+                {
+                    ?repBySign hqdm:beginning|hqdm:ending|hqdm:member_of_ ?x.
+                }
+            }
+            """;
 }
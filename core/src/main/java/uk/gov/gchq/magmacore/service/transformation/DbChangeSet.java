@@ -39,6 +39,24 @@ public class DbChangeSet implements Function<MagmaCoreService, MagmaCoreService>
         this.creates = creates;
     }
 
+    /**
+     * Get the delete operations.
+     *
+     * @return An unmodifiable {@link List} of {@link DbDeleteOperation}.
+     */
+    public List<DbDeleteOperation> getDeletes() {
+        return Collections.unmodifiableList(deletes);
+    }
+
+    /**
+     * Get the create operations.
+     *
+     * @return An unmodifiable {@link List} of {@link DbCreateOperation}.
+     */
+    public List<DbCreateOperation> getCreates() {
+        return Collections.unmodifiableList(creates);
+    }
+
     /**
      * Apply the change set to a {@link MagmaCoreService}.
      */
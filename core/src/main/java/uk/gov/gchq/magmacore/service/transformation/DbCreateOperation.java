@@ -14,6 +14,7 @@
 
 package uk.gov.gchq.magmacore.service.transformation;
 
+import java.util.List;
 import java.util.function.Function;
 
 import uk.gov.gchq.magmacore.exception.DbTransformationException;
@@ -89,6 +90,22 @@ public class DbCreateOperation implements Function<MagmaCoreService, MagmaCoreSe
         return mcService;
     }
 
+    /**
+     * Apply a list of operations to a {@link MagmaCoreService} together, checking them all before
+     * writing only the triples that change. Use this rather than applying each operation in turn,
+     * which rewrites the whole subject for every triple.
+     *
+     * @param mcService The {@link MagmaCoreService}.
+     * @param creates   The operations to apply.
+     * @return The {@link MagmaCoreService}.
+     * @throws DbTransformationException listing all of the operations that conflict with the database.
+     * @see MagmaCoreService#applyOperations(List, List)
+     */
+    public static MagmaCoreService applyAll(final MagmaCoreService mcService, final List<DbCreateOperation> creates) {
+        mcService.applyOperations(List.of(), creates);
+        return mcService;
+    }
+
     /**
      * Invert an operation.
      *
@@ -14,14 +14,21 @@
 
 package uk.gov.gchq.magmacore.service.transformation;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 import uk.gov.gchq.magmacore.service.MagmaCoreService;
+import uk.gov.gchq.magmacore.service.MagmaCoreSession;
 
 /**
  * An invertible ordered sequence of change sets.
@@ -62,6 +69,96 @@ public class DbTransformation implements Function<MagmaCoreService, MagmaCoreSer
         return mcService;
     }
 
+    /**
+     * Apply a sequence of change sets too large to hold in memory or in one transaction, committing
+     * them in chunks. Each chunk is applied in a write transaction of its own, so this must not be
+     * called within a transaction. Within a chunk the deletes and then the creates of each change set
+     * are applied in order, so the result does not depend on {@code chunkSize}.
+     *
+     * <p>
+     * After each chunk commits, {@code checkpoint} receives the index of its last change set. If the
+     * migration is interrupted it can be resumed by passing the last checkpoint as
+     * {@code resumeAfter} with the same sequence of change sets, which skips those already applied.
+     * </p>
+     *
+     * @param mcService   The {@link MagmaCoreService}.
+     * @param changeSets  The change sets in order, such as {@code stream.iterator()}. They are consumed
+     *                    as they are applied.
+     * @param chunkSize   The largest number of change sets committed in one transaction.
+     * @param resumeAfter The index of the last change set applied by an earlier run, or -1 to apply
+     *                    them all.
+     * @param checkpoint  Receives the index of the last change set of each chunk once it has committed,
+     *                    or null.
+     * @return The number of change sets applied.
+     * @throws IllegalArgumentException if {@code chunkSize} is less than 1.
+     */
+    public static long applyInChunks(final MagmaCoreService mcService, final Iterator<DbChangeSet> changeSets,
+            final int chunkSize, final long resumeAfter, final LongConsumer checkpoint) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1: " + chunkSize);
+        }
+
+        long index = -1;
+        while (index < resumeAfter && changeSets.hasNext()) {
+            changeSets.next();
+            index++;
+        }
+
+        final List<DbChangeSet> chunk = new ArrayList<>(chunkSize);
+        long applied = 0;
+        while (changeSets.hasNext()) {
+            chunk.add(changeSets.next());
+            index++;
+
+            if (chunk.size() == chunkSize || !changeSets.hasNext()) {
+                try (MagmaCoreSession session = mcService.openWriteSession()) {
+                    chunk.forEach(changeSet -> mcService.update(changeSet.deletes, changeSet.creates));
+                    session.commit();
+                }
+                applied += chunk.size();
+                if (checkpoint != null) {
+                    checkpoint.accept(index);
+                }
+                chunk.clear();
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Apply a sequence of change sets in chunks as
+     * {@link #applyInChunks(MagmaCoreService, Iterator, int, long, LongConsumer)} does, keeping the
+     * checkpoint in a file. If the file exists the run resumes after the change set it records, and it
+     * is replaced after each chunk commits.
+     *
+     * @param mcService      The {@link MagmaCoreService}.
+     * @param changeSets     The change sets in order.
+     * @param chunkSize      The largest number of change sets committed in one transaction.
+     * @param checkpointFile The file that records the index of the last change set applied.
+     * @return The number of change sets applied by this run.
+     * @throws IOException if the checkpoint file cannot be read or written.
+     */
+    public static long applyInChunks(final MagmaCoreService mcService, final Iterator<DbChangeSet> changeSets,
+            final int chunkSize, final Path checkpointFile) throws IOException {
+        final long resumeAfter = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile).trim())
+                : -1;
+        final Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try {
+            return applyInChunks(mcService, changeSets, chunkSize, resumeAfter, index -> {
+                try {
+                    Files.writeString(temp, Long.toString(index));
+                    Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (final IOException e) {
+                    throw new CheckpointException(e);
+                }
+            });
+        } catch (final CheckpointException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Invert this {@link DbTransformation}.
      *
@@ -78,6 +175,15 @@ public class DbTransformation implements Function<MagmaCoreService, MagmaCoreSer
         return new DbTransformation(list);
     }
 
+    /**
+     * Get the change sets in this transformation, in the order they are applied.
+     *
+     * @return An unmodifiable {@link List} of {@link DbChangeSet}.
+     */
+    public List<DbChangeSet> getChangeSets() {
+        return Collections.unmodifiableList(transformations);
+    }
+
     /**
      * Add a DbChangeSet to this transformation.
      *
@@ -86,4 +192,25 @@ public class DbTransformation implements Function<MagmaCoreService, MagmaCoreSer
     public void add(final DbChangeSet changeSet) {
         this.transformations.add(changeSet);
     }
+
+    /**
+     * Carries a failure to write the checkpoint file out of the checkpoint callback, so that it can be
+     * told apart from exceptions thrown while applying the change sets.
+     */
+    private static final class CheckpointException extends RuntimeException {
+
+        /**
+         * Constructs a CheckpointException.
+         *
+         * @param cause The {@link IOException} from writing the checkpoint file.
+         */
+        CheckpointException(final IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
 }
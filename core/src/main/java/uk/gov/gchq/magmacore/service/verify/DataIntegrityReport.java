@@ -1,10 +1,34 @@
 package uk.gov.gchq.magmacore.service.verify;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
 
 import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
 import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
 
 /**
  * Check an HQDM model for missing predicates.
@@ -580,36 +604,292 @@ public class DataIntegrityReport {
             """;
 
     /**
-     * Verify a HQDM Data Model.
+     * The largest number of things that {@code verifyChangeSet} will list in the text of each check.
+     * Beyond this the checks are run unrestricted.
+     */
+    public static final int MAX_SCOPE = 10_000;
+
+    /**
+     * The checks by name, in the order in which their results were reported before they were run
+     * concurrently.
+     */
+    private static final Map<String, String> CHECKS = createChecks();
+
+    private static final Var SUBJECT = Var.alloc("s");
+    private static final Var OBJECT = Var.alloc("o");
+
+    private static final String FIND_REFERRING_SUBJECTS = "SELECT DISTINCT ?s WHERE { ?s ?p ?o. }";
+
+    private static final String FIND_REFERENCED_OBJECTS = """
+            SELECT DISTINCT ?o WHERE {
+                ?s ?p ?o.
+                FILTER(isIRI(?o) && ?p != <http://www.w3.org/1999/02/22-rdf-syntax-ns#type>)
+            }""";
+
+    /**
+     * Build the map of check names to CONSTRUCT queries.
+     *
+     * @return The checks.
+     */
+    private static Map<String, String> createChecks() {
+        final Map<String, String> checks = new LinkedHashMap<>();
+        checks.put("POSSIBLE_WORLD_MEMBERSHIP", CHECK_POSSIBLE_WORLD_MEMBERSHIP);
+        checks.put("MISSING_PARTICIPANT_ROLES", CHECK_MISSING_PARTICIPANT_ROLES);
+        checks.put("MISSING_DATA_ENTITY_NAME", CHECK_MISSING_DATA_ENTITY_NAME);
+        checks.put("STATE_TEMPORAL_PART_OF", CHECK_STATE_TEMPORAL_PART_OF);
+        checks.put("SIGN_MEMBER_OF_PATTERN", CHECK_SIGN_MEMBER_OF_PATTERN);
+        checks.put("REP_BY_PATTERN_CONSISTS_OF_BY_CLASS", CHECK_REP_BY_PATTERN_CONSISTS_OF_BY_CLASS);
+        checks.put("REP_BY_SIGN_CONSISTS_OF_COMMUNITY", CHECK_REP_BY_SIGN_CONSISTS_OF_COMMUNITY);
+        checks.put("REP_BY_SIGN_CONSISTS_OF_SIGN", CHECK_REP_BY_SIGN_CONSISTS_OF_SIGN);
+        checks.put("REP_BY_SIGN_REPRESENTS", CHECK_REP_BY_SIGN_REPRESENTS);
+        checks.put("STATE_OF_SIGN_PARTICIPANT_IN", CHECK_STATE_OF_SIGN_PARTICIPANT_IN);
+        checks.put("REP_BY_SIGN_MEMBER_OF", CHECK_REP_BY_SIGN_MEMBER_OF);
+        checks.put("REP_BY_SIGN_HAS_SIGN_PARTICIPANT", CHECK_REP_BY_SIGN_HAS_SIGN_PARTICIPANT);
+        checks.put("REP_BY_SIGN_HAS_COMMUNITY_PARTICIPANT", CHECK_REP_BY_SIGN_HAS_COMMUNITY_PARTICIPANT);
+        checks.put("ROLE_PART_OF_BY_CLASS_", CHECK_ROLE_PART_OF_BY_CLASS_);
+        checks.put("ASSOCIATION_MEMBER_OF_KIND", CHECK_ASSOCIATION_MEMBER_OF_KIND);
+        checks.put("REP_BY_PATTERN_CONSISTS_OF_IN_MEMBERS", CHECK_REP_BY_PATTERN_CONSISTS_OF_IN_MEMBERS);
+        checks.put("SIGN_VALUE_", CHECK_SIGN_VALUE_);
+        return Collections.unmodifiableMap(checks);
+    }
+
+    /**
+     * Get the names of the available checks, for use with
+     * {@link #verify(MagmaCoreDatabase, Collection, Consumer)}.
+     *
+     * @return The check names.
+     */
+    public static Set<String> getCheckNames() {
+        return CHECKS.keySet();
+    }
+
+    /**
+     * Verify a HQDM Data Model, running every check.
      *
      * @param db {@link MagmaCoreDatabase}.
      * @return A {@link List} of {@link Thing} that represent data integrity errors.
      */
     public static List<Thing> verify(final MagmaCoreDatabase db) {
-        db.beginRead();
+        return verify(db, getCheckNames());
+    }
 
+    /**
+     * Verify a HQDM Data Model, running only the named checks.
+     *
+     * @param db         {@link MagmaCoreDatabase}.
+     * @param checkNames The names of the checks to run, from {@link #getCheckNames()}.
+     * @return A {@link List} of {@link Thing} that represent data integrity errors.
+     * @throws IllegalArgumentException if a check name is not known.
+     */
+    public static List<Thing> verify(final MagmaCoreDatabase db, final Collection<String> checkNames) {
         final List<Thing> errors = new ArrayList<>();
+        verify(db, checkNames, errors::add);
+        return errors;
+    }
+
+    /**
+     * Verify a HQDM Data Model, running the named checks concurrently and passing the errors from each
+     * check to a {@link Consumer} as soon as that check finishes.
+     *
+     * <p>
+     * Each check runs on its own thread in its own read transaction, so the database must support
+     * concurrent readers, as TDB2 and in-memory transactional datasets do. This must not be called
+     * within a transaction. The checks do not share a snapshot, so writes committed while they run may
+     * be seen by some checks and not others. The {@link Consumer} is only called from the calling
+     * thread, so it need not be thread-safe.
+     * </p>
+     *
+     * @param db         {@link MagmaCoreDatabase}.
+     * @param checkNames The names of the checks to run, from {@link #getCheckNames()}.
+     * @param errors     Receives each {@link Thing} that represents a data integrity error.
+     * @throws IllegalArgumentException if a check name is not known.
+     */
+    public static void verify(final MagmaCoreDatabase db, final Collection<String> checkNames,
+            final Consumer<Thing> errors) {
+        run(db, queries(checkNames), errors);
+    }
 
-        errors.addAll(db.executeConstruct(CHECK_POSSIBLE_WORLD_MEMBERSHIP));
-        errors.addAll(db.executeConstruct(CHECK_MISSING_PARTICIPANT_ROLES));
-        errors.addAll(db.executeConstruct(CHECK_MISSING_DATA_ENTITY_NAME));
-        errors.addAll(db.executeConstruct(CHECK_STATE_TEMPORAL_PART_OF));
-        errors.addAll(db.executeConstruct(CHECK_SIGN_MEMBER_OF_PATTERN));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_PATTERN_CONSISTS_OF_BY_CLASS));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_SIGN_CONSISTS_OF_COMMUNITY));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_SIGN_CONSISTS_OF_SIGN));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_SIGN_REPRESENTS));
-        errors.addAll(db.executeConstruct(CHECK_STATE_OF_SIGN_PARTICIPANT_IN));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_SIGN_MEMBER_OF));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_SIGN_HAS_SIGN_PARTICIPANT));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_SIGN_HAS_COMMUNITY_PARTICIPANT));
-        errors.addAll(db.executeConstruct(CHECK_ROLE_PART_OF_BY_CLASS_));
-        errors.addAll(db.executeConstruct(CHECK_ASSOCIATION_MEMBER_OF_KIND));
-        errors.addAll(db.executeConstruct(CHECK_REP_BY_PATTERN_CONSISTS_OF_IN_MEMBERS));
-        errors.addAll(db.executeConstruct(CHECK_SIGN_VALUE_));
-
-        db.abort();
+    /**
+     * Verify only the part of a HQDM Data Model that a {@link DbChangeSet} can have affected. Each
+     * named check is restricted with a {@code VALUES} clause to report errors only for the subjects and
+     * IRI objects of the changed triples, and for the neighbours of each changed subject in both
+     * directions: the subjects of triples that refer to it and the IRI objects of its remaining triples,
+     * which are found first with two queries. No check looks further than one hop from the thing it
+     * reports, so this finds every error that the change set can have introduced or fixed. The objects
+     * of {@code rdf:type} triples are not checked, since they are classes whose own errors cannot be
+     * changed by typing something else.
+     *
+     * <p>
+     * If the change set can affect more than {@link #MAX_SCOPE} things, for example because it changes
+     * a class or pattern with many members, every check is run unrestricted as for
+     * {@link #verify(MagmaCoreDatabase, Collection, Consumer)}.
+     * </p>
+     *
+     * <p>
+     * The change set should already have been applied. The checks run concurrently as for
+     * {@link #verify(MagmaCoreDatabase, Collection, Consumer)}.
+     * </p>
+     *
+     * @param db         {@link MagmaCoreDatabase}.
+     * @param changeSet  The {@link DbChangeSet} that has been applied.
+     * @param checkNames The names of the checks to run, from {@link #getCheckNames()}.
+     * @param errors     Receives each {@link Thing} that represents a data integrity error.
+     * @throws IllegalArgumentException if a check name is not known.
+     */
+    public static void verifyChangeSet(final MagmaCoreDatabase db, final DbChangeSet changeSet,
+            final Collection<String> checkNames, final Consumer<Thing> errors) {
+        final List<String> queries = queries(checkNames);
+
+        final Set<IRI> subjects = new LinkedHashSet<>();
+        final Set<IRI> scope = new LinkedHashSet<>();
+        changeSet.getDeletes().forEach(delete -> addChange(subjects, scope, delete.subject, delete.predicate,
+                delete.object));
+        changeSet.getCreates().forEach(create -> addChange(subjects, scope, create.subject, create.predicate,
+                create.object));
+        if (subjects.isEmpty()) {
+            return;
+        }
+        if (scope.size() > MAX_SCOPE || !addNeighbours(db, subjects, scope)) {
+            run(db, queries, errors);
+            return;
+        }
+
+        final List<String> restricted = new ArrayList<>(queries.size());
+        for (final String query : queries) {
+            restricted.add(restrict(QueryFactory.create(query), SUBJECT, scope).serialize());
+        }
+        run(db, restricted, errors);
+    }
 
-        return errors;
+    /**
+     * Add the neighbours of the changed subjects in both directions to the things to check, reading no
+     * more of them than can fit within {@link #MAX_SCOPE}.
+     *
+     * @param db       {@link MagmaCoreDatabase}.
+     * @param subjects The changed subjects.
+     * @param scope    The things to check.
+     * @return true if the things to check are within {@link #MAX_SCOPE}.
+     */
+    private static boolean addNeighbours(final MagmaCoreDatabase db, final Set<IRI> subjects,
+            final Set<IRI> scope) {
+        final Query referrers = restrict(QueryFactory.create(FIND_REFERRING_SUBJECTS), OBJECT, subjects);
+        final Query referenced = restrict(QueryFactory.create(FIND_REFERENCED_OBJECTS), SUBJECT, subjects);
+        referrers.setLimit(MAX_SCOPE + 1);
+        referenced.setLimit(MAX_SCOPE + 1);
+        db.beginRead();
+        try {
+            db.executeQuery(referrers).getQueryResults()
+                    .forEach(result -> scope.add(IRI.of(result.get(SUBJECT.getVarName()).toString())));
+            if (scope.size() > MAX_SCOPE) {
+                return false;
+            }
+            db.executeQuery(referenced).getQueryResults()
+                    .forEach(result -> scope.add(IRI.of(result.get(OBJECT.getVarName()).toString())));
+            return scope.size() <= MAX_SCOPE;
+        } finally {
+            db.abort();
+        }
+    }
+
+    /**
+     * Record the things that a changed triple can affect.
+     *
+     * @param subjects  The changed subjects.
+     * @param scope     The things to check.
+     * @param subject   The subject of the triple.
+     * @param predicate The predicate of the triple.
+     * @param object    The object of the triple.
+     */
+    private static void addChange(final Set<IRI> subjects, final Set<IRI> scope, final IRI subject,
+            final IRI predicate, final Object object) {
+        subjects.add(subject);
+        scope.add(subject);
+        if (object instanceof IRI iri && !RDFS.RDF_TYPE.equals(predicate)) {
+            scope.add(iri);
+        }
+    }
+
+    /**
+     * Look up the queries for some checks.
+     *
+     * @param checkNames The names of the checks.
+     * @return The CONSTRUCT queries, in the order given, without duplicates.
+     * @throws IllegalArgumentException if a check name is not known.
+     */
+    private static List<String> queries(final Collection<String> checkNames) {
+        final List<String> queries = new ArrayList<>();
+        for (final String checkName : new LinkedHashSet<>(checkNames)) {
+            final String query = CHECKS.get(checkName);
+            if (query == null) {
+                throw new IllegalArgumentException("Unknown data integrity check: " + checkName);
+            }
+            queries.add(query);
+        }
+        return queries;
+    }
+
+    /**
+     * Restrict the top-level group of a query to a set of values for one variable.
+     *
+     * @param query    The {@link Query}, which is modified.
+     * @param variable The variable to restrict.
+     * @param values   The allowed values.
+     * @return The {@link Query}.
+     */
+    private static Query restrict(final Query query, final Var variable, final Collection<IRI> values) {
+        final ElementData data = new ElementData();
+        data.add(variable);
+        values.forEach(iri -> data.add(BindingFactory.binding(variable, NodeFactory.createURI(iri.getIri()))));
+
+        final ElementGroup group = new ElementGroup();
+        group.addElement(data);
+        final Element pattern = query.getQueryPattern();
+        if (pattern instanceof ElementGroup original) {
+            original.getElements().forEach(group::addElement);
+        } else {
+            group.addElement(pattern);
+        }
+        query.setQueryPattern(group);
+        return query;
+    }
+
+    /**
+     * Run CONSTRUCT queries concurrently, each in its own read transaction, passing their results to a
+     * {@link Consumer} on the calling thread as each query finishes.
+     *
+     * @param db      {@link MagmaCoreDatabase}.
+     * @param queries The CONSTRUCT queries.
+     * @param errors  Receives each {@link Thing} constructed.
+     */
+    private static void run(final MagmaCoreDatabase db, final List<String> queries, final Consumer<Thing> errors) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        final int threads = Math.min(queries.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CompletionService<List<Thing>> checks = new ExecutorCompletionService<>(executor);
+        try {
+            for (final String query : queries) {
+                checks.submit(() -> {
+                    db.beginRead();
+                    try {
+                        return db.executeConstruct(query);
+                    } finally {
+                        db.abort();
+                    }
+                });
+            }
+            for (int i = 0; i < queries.size(); i++) {
+                checks.take().get().forEach(errors);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during data integrity checks", e);
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
+
+/**
+ * Check that {@link MagmaCoreRemoteSparqlDatabase} splits large creates and deletes into batches and
+ * updates only the triples that change, using a local {@link RDFConnection} in place of a remote
+ * server.
+ */
+public class MagmaCoreRemoteSparqlDatabaseTest {
+
+    private static final IriBase BASE = new IriBase("test", "http://example.com/test#");
+    private static final IRI NAME = new IRI(BASE, "name");
+    private static final IRI LINK = new IRI(BASE, "link");
+
+    /**
+     * Test that batched and concurrent creates and deletes apply every operation, including literals
+     * that need escaping.
+     */
+    @Test
+    public void testBatchedCreateAndDelete() {
+        final Dataset dataset = DatasetFactory.createTxnMem();
+        final MagmaCoreRemoteSparqlDatabase db = new MagmaCoreRemoteSparqlDatabase(RDFConnection.connect(dataset),
+                100, 3);
+
+        final List<DbCreateOperation> creates = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            final IRI subject = new IRI(BASE, "thing" + i);
+            creates.add(new DbCreateOperation(subject, NAME, "Name \"" + i + "\"\n\\"));
+            creates.add(new DbCreateOperation(subject, LINK, new IRI(BASE, "thing" + (i + 1))));
+        }
+        db.create(creates);
+        assertEquals(500, size(dataset));
+
+        final List<DbDeleteOperation> deletes = new ArrayList<>();
+        for (int i = 0; i < 250; i += 2) {
+            deletes.add(DbCreateOperation.invert(creates.get(2 * i)));
+            deletes.add(DbCreateOperation.invert(creates.get(2 * i + 1)));
+        }
+        db.delete(deletes);
+        assertEquals(250, size(dataset));
+
+        dataset.begin(ReadWrite.READ);
+        try {
+            final Model model = dataset.getDefaultModel();
+            assertFalse(model.containsResource(model.createResource(BASE.getNamespace() + "thing0")));
+            assertTrue(model.contains(model.createResource(BASE.getNamespace() + "thing1"),
+                    model.createProperty(NAME.getIri()), "Name \"1\"\n\\"));
+        } finally {
+            dataset.end();
+        }
+    }
+
+    /**
+     * Test that an update only deletes and creates the triples that have changed, and leaves unchanged
+     * typed literals as they are.
+     */
+    @Test
+    public void testUpdateWritesOnlyChanges() {
+        final Dataset dataset = DatasetFactory.createTxnMem();
+        final MagmaCoreRemoteSparqlDatabase db = new MagmaCoreRemoteSparqlDatabase(RDFConnection.connect(dataset),
+                100, 1);
+        final IRI subject = new IRI(BASE, "thing");
+        final IRI count = new IRI(BASE, "count");
+        final Literal typedCount = ResourceFactory.createTypedLiteral(3);
+
+        db.create(List.of(new DbCreateOperation(subject, RDFS.RDF_TYPE, HQDM.PERSON),
+                new DbCreateOperation(subject, NAME, "old name")));
+        dataset.begin(ReadWrite.WRITE);
+        try {
+            final Model model = dataset.getDefaultModel();
+            model.add(model.createResource(subject.getIri()), model.createProperty(count.getIri()), typedCount);
+            dataset.commit();
+        } finally {
+            dataset.end();
+        }
+
+        final Thing thing = db.get(subject);
+        thing.removeValue(NAME, "old name");
+        thing.addStringValue(NAME, "new name");
+        final DbChangeSet changeSet = db.updateWithDiff(thing);
+
+        assertEquals(List.of(new DbDeleteOperation(subject, NAME, "old name")), changeSet.getDeletes());
+        assertEquals(List.of(new DbCreateOperation(subject, NAME, "new name")), changeSet.getCreates());
+        assertEquals(3, size(dataset));
+
+        dataset.begin(ReadWrite.READ);
+        try {
+            final Model model = dataset.getDefaultModel();
+            final Resource resource = model.createResource(subject.getIri());
+            assertTrue(model.contains(resource, model.createProperty(count.getIri()), typedCount));
+            assertTrue(model.contains(resource, model.createProperty(NAME.getIri()), "new name"));
+        } finally {
+            dataset.end();
+        }
+    }
+
+    /**
+     * Test that the limits must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        new MagmaCoreRemoteSparqlDatabase(RDFConnection.connect(DatasetFactory.createTxnMem()), 0, 1);
+    }
+
+    /**
+     * Count the triples in the default graph.
+     *
+     * @param dataset The {@link Dataset}.
+     * @return The number of triples.
+     */
+    private static long size(final Dataset dataset) {
+        dataset.begin(ReadWrite.READ);
+        try {
+            return dataset.getDefaultModel().size();
+        } finally {
+            dataset.end();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.database.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.jena.query.Query;
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Check that {@link PreparedQuery} binds parameters as RDF terms.
+ */
+public class PreparedQueryTest {
+
+    private static final IriBase TEST_BASE = new IriBase("test", "http://example.com/test#");
+
+    private static final String TEMPLATE = """
+            SELECT ?s
+            WHERE {
+                BIND(<%s> as ?p)
+                BIND("%s" as ?value)
+                ?s ?p ?value.
+            }
+            """;
+
+    /**
+     * Test that a template is parsed once and shared.
+     */
+    @Test
+    public void testTemplateIsCached() {
+        final PreparedQuery prepared = PreparedQuery.of(TEMPLATE);
+
+        assertSame(prepared, PreparedQuery.of(TEMPLATE));
+        assertEquals(2, prepared.getParameterCount());
+    }
+
+    /**
+     * Test that IRI and string parameters are bound to the right kinds of term.
+     */
+    @Test
+    public void testBind() {
+        final Query query = PreparedQuery.of(TEMPLATE).bind(HQDM.ENTITY_NAME, "Person \"One\"");
+        final String text = query.serialize();
+
+        assertTrue(text.contains("<" + HQDM.ENTITY_NAME.getIri() + ">"));
+        assertTrue(text.contains("\"Person \\\"One\\\"\""));
+    }
+
+    /**
+     * Test that binding the wrong number of values is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBindWrongNumberOfValues() {
+        PreparedQuery.of(TEMPLATE).bind(HQDM.ENTITY_NAME);
+    }
+
+    /**
+     * Test that values containing quotes are matched exactly and cannot change the query.
+     */
+    @Test
+    public void testFindByPredicateIriAndValueWithQuotes() {
+        final String name = "Person \"\"\" One";
+        final Person person = SpatioTemporalExtentServices.createPerson(new IRI(TEST_BASE, "person1"));
+        person.addStringValue(HQDM.ENTITY_NAME, name);
+
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        db.beginWrite();
+        db.create(person);
+        db.commit();
+
+        db.beginRead();
+        final List<Thing> found = db.findByPredicateIriAndValue(HQDM.ENTITY_NAME, name);
+        final List<Thing> injected = db.findByPredicateIriAndValue(HQDM.ENTITY_NAME, "x\"\"\". ?s ?p ?o. #");
+        final List<Thing> caseInsensitive = db.findByPredicateIriAndStringCaseInsensitive(HQDM.ENTITY_NAME,
+                name.toLowerCase());
+        db.commit();
+
+        assertEquals(1, found.size());
+        assertEquals(person.getId(), found.get(0).getId());
+        assertTrue(injected.isEmpty());
+        assertEquals(1, caseInsensitive.size());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.service.dto.GroupCommitStats;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+
+/**
+ * Check that {@link GroupCommitWriter} commits writes from many threads in shared transactions.
+ */
+public class GroupCommitWriterTest {
+
+    private static final IriBase TEST_BASE = new IriBase("test", "http://example.com/test#");
+
+    private static DbChangeSet createPerson(final String name) {
+        final IRI iri = new IRI(TEST_BASE, name);
+        return new DbChangeSet(List.of(), List.of(
+                new DbCreateOperation(iri, RDFS.RDF_TYPE, HQDM.PERSON),
+                new DbCreateOperation(iri, HQDM.ENTITY_NAME, name)));
+    }
+
+    /**
+     * Writes submitted by several threads are all committed, in fewer transactions than writes.
+     *
+     * @throws Exception if a write fails.
+     */
+    @Test
+    public void testWritesFromManyThreads() throws Exception {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final int threads = 4;
+        final int writesPerThread = 50;
+
+        final ExecutorService producers = Executors.newFixedThreadPool(threads);
+        try (GroupCommitWriter writer = new GroupCommitWriter(service, 100, Duration.ofMillis(20))) {
+            final List<Future<List<CompletableFuture<Void>>>> submitted = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                submitted.add(producers.submit(() -> {
+                    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+                    for (int i = 0; i < writesPerThread; i++) {
+                        futures.add(writer.submit(createPerson("person" + thread + "_" + i)));
+                    }
+                    return futures;
+                }));
+            }
+            for (final Future<List<CompletableFuture<Void>>> futures : submitted) {
+                futures.get().forEach(CompletableFuture::join);
+            }
+
+            final GroupCommitStats stats = writer.getStats();
+            assertEquals(threads * writesPerThread, stats.writes());
+            assertTrue(stats.batches() < stats.writes());
+            assertTrue(stats.largestBatch() > 1);
+            assertEquals(0, stats.failures());
+            assertTrue(stats.p99Latency().compareTo(stats.medianLatency()) >= 0);
+        } finally {
+            producers.shutdownNow();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < writesPerThread; i++) {
+                assertNotNull(service.getInTransaction(new IRI(TEST_BASE, "person" + t + "_" + i)));
+            }
+        }
+    }
+
+    /**
+     * A failing write does not prevent the other writes in its batch from committing.
+     */
+    @Test
+    public void testFailureIsolated() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final RuntimeException failure = new RuntimeException("Failed write");
+
+        final CompletableFuture<Void> first;
+        final CompletableFuture<Void> failed;
+        final CompletableFuture<Void> last;
+        try (GroupCommitWriter writer = new GroupCommitWriter(service, 3, Duration.ofSeconds(10))) {
+            first = writer.submit(createPerson("person1"));
+            failed = writer.submit(svc -> {
+                svc.update(List.of(), List.of(new DbCreateOperation(new IRI(TEST_BASE, "person2"),
+                        HQDM.ENTITY_NAME, "person2")));
+                throw failure;
+            });
+            last = writer.submit(createPerson("person3"));
+
+            first.join();
+            last.join();
+            final ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+            assertSame(failure, e.getCause());
+            assertEquals(2, writer.getStats().writes());
+            assertEquals(1, writer.getStats().failures());
+        }
+
+        assertNotNull(service.getInTransaction(new IRI(TEST_BASE, "person1")));
+        assertNull(service.getInTransaction(new IRI(TEST_BASE, "person2")));
+        assertNotNull(service.getInTransaction(new IRI(TEST_BASE, "person3")));
+    }
+
+    /**
+     * An {@link Error} thrown by a write fails every uncommitted write and closes the writer.
+     */
+    @Test
+    public void testErrorClosesWriter() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final Error error = new Error("Failed write");
+
+        try (GroupCommitWriter writer = new GroupCommitWriter(service, 3, Duration.ofSeconds(10))) {
+            final CompletableFuture<Void> first = writer.submit(createPerson("person1"));
+            final CompletableFuture<Void> failed = writer.submit(svc -> {
+                throw error;
+            });
+            final CompletableFuture<Void> last = writer.submit(createPerson("person3"));
+
+            for (final CompletableFuture<Void> future : List.of(first, failed, last)) {
+                final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+                assertSame(error, e.getCause());
+            }
+            assertThrows(IllegalStateException.class, () -> writer.submit(createPerson("person4")));
+        }
+
+        assertNull(service.getInTransaction(new IRI(TEST_BASE, "person1")));
+    }
+
+    /**
+     * Closing the writer commits the writes already submitted and rejects any more.
+     */
+    @Test
+    public void testClose() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final GroupCommitWriter writer = new GroupCommitWriter(service, 100, Duration.ofSeconds(10));
+        final CompletableFuture<Void> future = writer.submit(createPerson("person1"));
+
+        writer.close();
+
+        assertTrue(future.isDone());
+        assertNotNull(service.getInTransaction(new IRI(TEST_BASE, "person1")));
+        assertThrows(IllegalStateException.class, () -> writer.submit(createPerson("person2")));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.tdb2.TDB2Factory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.service.dto.BulkLoadProgress;
+
+/**
+ * Check that {@link MagmaCoreService#importBulk} loads every file for both in-memory and TDB2
+ * datasets.
+ */
+public class MagmaCoreServiceBulkImportTest {
+
+    private static final int THINGS_PER_FILE = 500;
+
+    private static final String TEST = "http://example.com/test#";
+
+    /**
+     * Temporary directory for the files to load.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test a bulk import into an in-memory dataset.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    @Test
+    public void testImportBulkInMemory() throws IOException {
+        checkImportBulk(MagmaCoreServiceFactory.createWithJenaDatabase());
+    }
+
+    /**
+     * Test a bulk import into a TDB2 dataset using the TDB2 loader.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    @Test
+    public void testImportBulkTdb2() throws IOException {
+        checkImportBulk(MagmaCoreServiceFactory.create(new MagmaCoreJenaDatabase(TDB2Factory.createDataset())));
+    }
+
+    /**
+     * Import a Turtle file and a gzipped N-Triples file and check that everything was loaded.
+     *
+     * @param service The {@link MagmaCoreService} to import into.
+     * @throws IOException if the files cannot be written.
+     */
+    private void checkImportBulk(final MagmaCoreService service) throws IOException {
+        final Path ttl = folder.getRoot().toPath().resolve("first.ttl");
+        final Path ntGz = folder.getRoot().toPath().resolve("second.nt.gz");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(ttl))) {
+            writeThings(out, "a");
+        }
+        try (OutputStream gz = new GZIPOutputStream(Files.newOutputStream(ntGz));
+                PrintStream out = new PrintStream(gz)) {
+            writeThings(out, "b");
+        }
+
+        final List<BulkLoadProgress> reports = new ArrayList<>();
+        service.importBulk(null, reports::add, ttl, ntGz);
+
+        final BulkLoadProgress last = reports.get(reports.size() - 1);
+        assertTrue(last.finished());
+        assertEquals(4L * THINGS_PER_FILE, last.triples());
+
+        service.beginRead();
+        final Thing a1 = service.findByEntityName("a1");
+        final int count = service.executeQuery("SELECT ?s WHERE { ?s a <" + HQDM.PERSON.getIri() + "> }")
+                .getQueryResults()
+                .size();
+        service.commit();
+
+        assertEquals(TEST + "a1", a1.getId().getIri());
+        assertEquals(2 * THINGS_PER_FILE, count);
+    }
+
+    /**
+     * Write some things with two triples each, in a syntax readable as both Turtle and N-Triples.
+     *
+     * @param out    The {@link PrintStream} to write to.
+     * @param prefix A prefix for the names of the things.
+     */
+    private static void writeThings(final PrintStream out, final String prefix) {
+        for (int i = 0; i < THINGS_PER_FILE; i++) {
+            final String subject = "<" + TEST + prefix + i + ">";
+            out.printf("%s <%s> <%s> .%n", subject, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri());
+            out.printf("%s <%s> \"%s%d\" .%n", subject, HQDM.ENTITY_NAME.getIri(), prefix, i);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.cache.ThingCache;
+import uk.gov.gchq.magmacore.service.cache.ThingCacheStats;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
+
+/**
+ * Check that the {@link ThingCache} used by {@link MagmaCoreService} never serves stale objects.
+ */
+public class MagmaCoreServiceCacheTest {
+
+    private static final IriBase TEST_BASE = new IriBase("test", "http://example.com/test#");
+
+    private static Person createPerson(final MagmaCoreService service, final String name) {
+        final Person person = SpatioTemporalExtentServices.createPerson(new IRI(TEST_BASE, name));
+        person.addStringValue(HQDM.ENTITY_NAME, name);
+        service.runInWriteTransaction(svc -> {
+            svc.create(person);
+            return svc;
+        });
+        return person;
+    }
+
+    /**
+     * Repeated reads are answered from the cache.
+     */
+    @Test
+    public void testReadThrough() {
+        final ThingCache cache = new ThingCache(1000);
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(cache);
+        final Person person = createPerson(service, "person1");
+
+        final Thing first = service.getInTransaction(person.getId());
+        final Thing second = service.getInTransaction(person.getId());
+
+        assertNotSame(first, second);
+        assertEquals(first.getPredicates(), second.getPredicates());
+        final ThingCacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    /**
+     * Changes that a caller makes to an object it has read are not seen by later readers.
+     */
+    @Test
+    public void testCallerChangesNotCached() {
+        final ThingCache cache = new ThingCache(1000);
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(cache);
+        final Person person = createPerson(service, "person1");
+
+        final Thing preview = service.getInTransaction(person.getId());
+        preview.addStringValue(HQDM.ENTITY_NAME, "preview");
+
+        final Thing thing = service.getInTransaction(person.getId());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(Set.of("person1"), thing.values(HQDM.ENTITY_NAME));
+    }
+
+    /**
+     * An object read from a snapshot that a write commits past, after the reader has checked that it is
+     * current but before it loads the object, is not cached.
+     *
+     * @throws Exception if the write fails.
+     */
+    @Test
+    public void testWriteCommittedDuringLoad() throws Exception {
+        final ExecutorService writer = Executors.newSingleThreadExecutor();
+        final AtomicReference<MagmaCoreService> serviceRef = new AtomicReference<>();
+        final AtomicBoolean armed = new AtomicBoolean();
+        final ThingCache cache = new ThingCache(1000) {
+            @Override
+            public Thing get(final IRI iri, final long startEpoch, final Function<IRI, Thing> loader) {
+                if (armed.compareAndSet(true, false)) {
+                    // Commit a whole write transaction on another thread before the reader loads.
+                    try {
+                        writer.submit(() -> rename(serviceRef.get(), iri, "person1", "renamed")).get();
+                    } catch (final InterruptedException | ExecutionException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.get(iri, startEpoch, loader);
+            }
+        };
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(cache);
+        serviceRef.set(service);
+        final Person person = createPerson(service, "person1");
+
+        try (MagmaCoreSession session = service.openReadSession()) {
+            armed.set(true);
+            assertEquals(Set.of("person1"), service.get(person.getId()).values(HQDM.ENTITY_NAME));
+        } finally {
+            writer.shutdown();
+        }
+
+        assertEquals(Set.of("renamed"), service.getInTransaction(person.getId()).values(HQDM.ENTITY_NAME));
+    }
+
+    /**
+     * Change the name of a person in a write transaction.
+     *
+     * @param service The {@link MagmaCoreService}.
+     * @param iri     The {@link IRI} of the person.
+     * @param oldName The current name.
+     * @param newName The new name.
+     */
+    private static void rename(final MagmaCoreService service, final IRI iri, final String oldName,
+            final String newName) {
+        service.runInWriteTransaction(new DbChangeSet(
+                List.of(new DbDeleteOperation(iri, HQDM.ENTITY_NAME, oldName)),
+                List.of(new DbCreateOperation(iri, HQDM.ENTITY_NAME, newName))));
+    }
+
+    /**
+     * Writes through a change set invalidate the cached subject.
+     */
+    @Test
+    public void testInvalidatedByChangeSet() {
+        final ThingCache cache = new ThingCache(1000);
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(cache);
+        final Person person = createPerson(service, "person1");
+        final IRI classIri = new IRI(TEST_BASE, "classOfPerson");
+
+        assertFalse(service.getInTransaction(person.getId()).hasValue(HQDM.MEMBER_OF));
+
+        service.runInWriteTransaction(
+                new DbChangeSet(List.of(), List.of(new DbCreateOperation(person.getId(), HQDM.MEMBER_OF, classIri))));
+
+        assertTrue(service.getInTransaction(person.getId()).hasThisValue(HQDM.MEMBER_OF, classIri));
+    }
+
+    /**
+     * Objects read from uncommitted state are discarded when the transaction aborts.
+     */
+    @Test
+    public void testInvalidatedOnAbort() {
+        final ThingCache cache = new ThingCache(1000);
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(cache);
+        final IRI iri = new IRI(TEST_BASE, "person1");
+
+        service.beginWrite();
+        final Person person = SpatioTemporalExtentServices.createPerson(iri);
+        service.create(person);
+        // Populates the cache with uncommitted state.
+        service.get(iri);
+        service.abort();
+
+        assertNull(service.getInTransaction(iri));
+    }
+
+    /**
+     * The least recently used entries are evicted once the maximum weight is exceeded.
+     */
+    @Test
+    public void testEviction() {
+        // Each person has two triples, so weighs three.
+        final ThingCache cache = new ThingCache(6);
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(cache);
+        final Person person1 = createPerson(service, "person1");
+        final Person person2 = createPerson(service, "person2");
+        final Person person3 = createPerson(service, "person3");
+
+        service.getInTransaction(person1.getId());
+        service.getInTransaction(person2.getId());
+        service.getInTransaction(person3.getId());
+
+        final ThingCacheStats stats = cache.getStats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+        assertEquals(6, stats.weight());
+
+        // person1 was evicted so this is a miss.
+        service.getInTransaction(person1.getId());
+        assertEquals(4, cache.getStats().misses());
+    }
+}
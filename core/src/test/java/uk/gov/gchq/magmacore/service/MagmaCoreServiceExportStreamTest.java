@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+
+/**
+ * Check that {@link MagmaCoreService#exportStream} writes the same triples as {@code exportTtl}.
+ */
+public class MagmaCoreServiceExportStreamTest {
+
+    /**
+     * Temporary directory for exported files.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test that a full N-Triples export matches the Turtle export.
+     */
+    @Test
+    public void testExportAll() {
+        final MagmaCoreService service = createService();
+
+        final ByteArrayOutputStream ttl = new ByteArrayOutputStream();
+        service.exportTtl(new PrintStream(ttl));
+        final Model expected = read(ttl, Lang.TTL);
+
+        final ByteArrayOutputStream nt = new ByteArrayOutputStream();
+        final long count = service.exportStream(nt, Lang.NTRIPLES, null);
+        final Model actual = read(nt, Lang.NTRIPLES);
+
+        assertEquals(expected.size(), count);
+        assertTrue(expected.isIsomorphicWith(actual));
+    }
+
+    /**
+     * Test that a class filter exports each member of the class once, with all of its triples.
+     */
+    @Test
+    public void testExportClass() {
+        final MagmaCoreService service = createService();
+
+        final ByteArrayOutputStream nt = new ByteArrayOutputStream();
+        final long count = service.exportStream(nt, Lang.NTRIPLES, SignPatternTestData.classOfPersonIri);
+        final Model actual = read(nt, Lang.NTRIPLES);
+
+        assertEquals(actual.size(), count);
+        assertEquals(3, actual.listSubjects().toList().size());
+        assertTrue(actual.contains(actual.createResource(SignPatternTestData.person1.getId().getIri()),
+                actual.createProperty(HQDM.MEMBER_OF_KIND.getIri())));
+    }
+
+    /**
+     * Test a gzipped RDF Thrift export to a file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Test
+    public void testExportGzippedThrift() throws IOException {
+        final MagmaCoreService service = createService();
+        final Path path = folder.getRoot().toPath().resolve("export.rt.gz");
+
+        final long count = service.exportStream(path, Lang.RDFTHRIFT, null);
+        final Model actual = RDFDataMgr.loadModel(path.toString(), Lang.RDFTHRIFT);
+
+        assertEquals(actual.size(), count);
+        assertTrue(count > 0);
+    }
+
+    /**
+     * Create a {@link MagmaCoreService} with some test data.
+     *
+     * @return The {@link MagmaCoreService}.
+     */
+    private static MagmaCoreService createService() {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        return MagmaCoreServiceFactory.create(db);
+    }
+
+    /**
+     * Parse exported data into a {@link Model}.
+     *
+     * @param data     The exported data.
+     * @param language The RDF {@link Lang}.
+     * @return The {@link Model}.
+     */
+    private static Model read(final ByteArrayOutputStream data, final Lang language) {
+        final Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, new ByteArrayInputStream(data.toByteArray()), language);
+        return model;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Check the binary RDF import and export and the snapshot and restore methods of
+ * {@link MagmaCoreService}.
+ */
+public class MagmaCoreServiceSnapshotTest {
+
+    private static final IRI EXTRA = new IRI("http://example.com/test#extra");
+
+    /**
+     * Temporary directory for snapshots.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test that each binary syntax round-trips the database exactly.
+     */
+    @Test
+    public void testBinaryRoundTrip() {
+        final MagmaCoreJenaDatabase source = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(source);
+        final MagmaCoreService service = MagmaCoreServiceFactory.create(source);
+
+        for (final Lang language : new Lang[] { Lang.RDFTHRIFT, Lang.RDFPROTO, Lang.TTL }) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            service.exportRdf(out, language);
+
+            final MagmaCoreJenaDatabase target = new MagmaCoreJenaDatabase();
+            MagmaCoreServiceFactory.create(target).importRdf(new ByteArrayInputStream(out.toByteArray()), language);
+
+            assertTrue(language.getName(), isomorphic(source, target));
+        }
+    }
+
+    /**
+     * Test that restoring a gzipped snapshot replaces changes made since it was taken.
+     *
+     * @throws IOException if the snapshot cannot be written or read.
+     */
+    @Test
+    public void testSnapshotAndRestore() throws IOException {
+        final MagmaCoreJenaDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService service = MagmaCoreServiceFactory.create(db);
+        final Model original = model(db);
+
+        final Path path = folder.getRoot().toPath().resolve("snapshot.rt.gz");
+        final long count = service.snapshot(path);
+        assertEquals(RDFDataMgr.loadModel(path.toString(), Lang.RDFTHRIFT).size(), count);
+
+        final Thing extra = SpatioTemporalExtentServices.createPerson(EXTRA);
+        service.runInWriteTransaction(svc -> {
+            svc.create(extra);
+            return svc;
+        });
+        service.runInReadTransaction(svc -> {
+            assertNotNull(svc.get(EXTRA));
+            return svc;
+        });
+
+        service.restore(path);
+
+        db.beginRead();
+        try {
+            assertNull(db.get(EXTRA));
+        } finally {
+            db.abort();
+        }
+        assertTrue(original.isIsomorphicWith(model(db)));
+    }
+
+    /**
+     * Compare the default models of two databases.
+     *
+     * @param expected The expected database.
+     * @param actual   The actual database.
+     * @return True if the models are isomorphic.
+     */
+    private static boolean isomorphic(final MagmaCoreJenaDatabase expected, final MagmaCoreJenaDatabase actual) {
+        return model(expected).isIsomorphicWith(model(actual));
+    }
+
+    /**
+     * Read the contents of a database into a {@link Model} via N-Triples.
+     *
+     * @param db The database.
+     * @return The {@link Model}.
+     */
+    private static Model model(final MagmaCoreJenaDatabase db) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MagmaCoreServiceFactory.create(db).exportRdf(out, Lang.NTRIPLES);
+        final Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, new ByteArrayInputStream(out.toByteArray()), Lang.NTRIPLES);
+        return model;
+    }
+}
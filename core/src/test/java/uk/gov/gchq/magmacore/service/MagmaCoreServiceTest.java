@@ -24,11 +24,14 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
 import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
 import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.database.query.QueryResult;
 import uk.gov.gchq.magmacore.database.query.QueryResultList;
 import uk.gov.gchq.magmacore.exception.MagmaCoreException;
 import uk.gov.gchq.magmacore.hqdm.model.Individual;
@@ -42,6 +45,7 @@ import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
 import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
 import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
 import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
 
 /**
  * Check that {@link MagmaCoreService} works correctly.
@@ -393,6 +397,118 @@ public class MagmaCoreServiceTest {
         assertEquals(5, result.getQueryResults().get(0).getMap().size());
     }
 
+    /**
+     * Check that query results can be streamed rather than materialised.
+     */
+    @Test
+    public void testSparqlQueryAsStream() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+
+        final IRI pred1 = new IRI(TEST_BASE, "pred1");
+        final IRI obj1 = new IRI(TEST_BASE, "obj1");
+
+        new DbChangeSet(
+                List.of(),
+                List.of(
+                        new DbCreateOperation(new IRI(TEST_BASE, "subj1"), pred1, obj1),
+                        new DbCreateOperation(new IRI(TEST_BASE, "subj2"), pred1, obj1),
+                        new DbCreateOperation(new IRI(TEST_BASE, "subj3"), pred1, obj1)))
+                .apply(service);
+
+        service.beginRead();
+        final List<String> subjects;
+        try (Stream<QueryResult> results = service
+                .executeQueryAsStream("SELECT ?s WHERE { ?s <" + pred1 + "> <" + obj1 + ">} ORDER BY ?s")) {
+            subjects = results
+                    .map(qr -> qr.get("s").toString())
+                    .collect(Collectors.toList());
+        }
+        service.commit();
+
+        assertEquals(List.of(
+                TEST_BASE.getNamespace() + "subj1",
+                TEST_BASE.getNamespace() + "subj2",
+                TEST_BASE.getNamespace() + "subj3"), subjects);
+    }
+
+    /**
+     * Check that streaming members of a class assembles the same Things as the materialised query.
+     */
+    @Test
+    public void testFindByClassAsStream() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+
+        final IRI classIri = new IRI(TEST_BASE, "classOfPerson");
+        final IRI otherClassIri = new IRI(TEST_BASE, "otherClass");
+
+        new DbChangeSet(
+                List.of(),
+                List.of(
+                        new DbCreateOperation(new IRI(TEST_BASE, "person1"), RDFS.RDF_TYPE, HQDM.PERSON),
+                        new DbCreateOperation(new IRI(TEST_BASE, "person1"), HQDM.MEMBER_OF, classIri),
+                        new DbCreateOperation(new IRI(TEST_BASE, "person1"), HQDM.MEMBER_OF, otherClassIri),
+                        new DbCreateOperation(new IRI(TEST_BASE, "person2"), RDFS.RDF_TYPE, HQDM.PERSON),
+                        new DbCreateOperation(new IRI(TEST_BASE, "person2"), HQDM.MEMBER_OF, classIri),
+                        new DbCreateOperation(new IRI(TEST_BASE, "person3"), RDFS.RDF_TYPE, HQDM.PERSON),
+                        new DbCreateOperation(new IRI(TEST_BASE, "person3"), HQDM.MEMBER_OF, otherClassIri)))
+                .apply(service);
+
+        service.beginRead();
+        final Set<Thing> expected = Set.copyOf(service.findByClass(classIri));
+        final List<Thing> streamed;
+        try (Stream<? extends Thing> things = service.findByClassAsStream(classIri)) {
+            streamed = things.collect(Collectors.toList());
+        }
+        final List<Thing> byPredicate;
+        try (Stream<Thing> things = service.findByPredicateIriOnlyAsStream(HQDM.MEMBER_OF)) {
+            byPredicate = things.collect(Collectors.toList());
+        }
+        service.commit();
+
+        assertEquals(2, streamed.size());
+        assertEquals(expected, Set.copyOf(streamed));
+        streamed.forEach(t -> assertTrue(t.hasValue(RDFS.RDF_TYPE)));
+        assertEquals(3, byPredicate.size());
+        assertEquals(3, Set.copyOf(byPredicate).size());
+    }
+
+    /**
+     * Check that several Things can be fetched by IRI and by entity name in one call.
+     */
+    @Test
+    public void testGetAllAndFindByEntityNames() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+
+        final IRI person1 = new IRI(TEST_BASE, "person1");
+        final IRI person2 = new IRI(TEST_BASE, "person2");
+
+        new DbChangeSet(
+                List.of(),
+                List.of(
+                        new DbCreateOperation(person1, RDFS.RDF_TYPE, HQDM.PERSON),
+                        new DbCreateOperation(person1, HQDM.ENTITY_NAME, "Person One"),
+                        new DbCreateOperation(person2, RDFS.RDF_TYPE, HQDM.PERSON),
+                        new DbCreateOperation(person2, HQDM.ENTITY_NAME, "Person Two")))
+                .apply(service);
+
+        final Map<IRI, Thing> byIri = service.getAll(List.of(person1, person2, new IRI(TEST_BASE, "missing")));
+        assertEquals(Set.of(person1, person2), byIri.keySet());
+
+        final Map<String, Thing> byName = service
+                .findByEntityNameInTransaction(List.of("Person One", "Person Two"));
+        assertEquals(person1, byName.get("Person One").getId());
+        assertEquals(person2, byName.get("Person Two").getId());
+    }
+
+    /**
+     * Check that findByEntityNames reports names that cannot be found.
+     */
+    @Test(expected = RuntimeException.class)
+    public void testFindByEntityNamesMissing() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        service.findByEntityNames(List.of("No such name"));
+    }
+
     /**
      * Check that it is possible to query for a Set of Things.
      */
@@ -422,4 +538,48 @@ public class MagmaCoreServiceTest {
         assertEquals(2, result.size());
         result.values().forEach(t -> assertTrue(t instanceof Thing));
     }
+
+    /**
+     * Test that updating a {@link Thing} writes only the triples that have changed, and that the
+     * returned {@link DbChangeSet} can be inverted to undo the update.
+     */
+    @Test
+    public void testUpdateWritesOnlyChanges() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final IRI individualIri = new IRI(TEST_BASE, "individual");
+        final IRI class1 = new IRI(TEST_BASE, "class1");
+        final IRI class2 = new IRI(TEST_BASE, "class2");
+
+        final Individual individual = SpatioTemporalExtentServices.createIndividual(individualIri);
+        individual.addValue(HQDM.MEMBER_OF, class1);
+        individual.addStringValue(HQDM.ENTITY_NAME, "individual");
+        service.runInWriteTransaction(svc -> {
+            svc.create(individual);
+            return svc;
+        });
+
+        individual.removeValue(HQDM.MEMBER_OF, class1);
+        individual.addValue(HQDM.MEMBER_OF, class2);
+        service.beginRead();
+        final DbChangeSet diff = service.diff(individual);
+        service.commit();
+        assertEquals(List.of(new DbDeleteOperation(individualIri, HQDM.MEMBER_OF, class1)), diff.getDeletes());
+        assertEquals(List.of(new DbCreateOperation(individualIri, HQDM.MEMBER_OF, class2)), diff.getCreates());
+
+        service.beginWrite();
+        final DbChangeSet changeSet = service.updateWithDiff(individual);
+        service.commit();
+        assertEquals(diff.getDeletes(), changeSet.getDeletes());
+        assertEquals(diff.getCreates(), changeSet.getCreates());
+
+        final Thing updated = service.getInTransaction(individualIri);
+        assertTrue(updated.hasThisValue(HQDM.MEMBER_OF, class2));
+        assertFalse(updated.hasThisValue(HQDM.MEMBER_OF, class1));
+        assertTrue(updated.hasThisValue(HQDM.ENTITY_NAME, "individual"));
+
+        service.runInWriteTransaction(DbChangeSet.invert(changeSet));
+        final Thing restored = service.getInTransaction(individualIri);
+        assertTrue(restored.hasThisValue(HQDM.MEMBER_OF, class1));
+        assertFalse(restored.hasThisValue(HQDM.MEMBER_OF, class2));
+    }
 }
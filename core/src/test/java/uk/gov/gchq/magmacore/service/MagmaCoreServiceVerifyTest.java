@@ -0,0 +1,212 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.hqdm.model.Sign;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbCreateOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
+import uk.gov.gchq.magmacore.service.transformation.DbTransformation;
+import uk.gov.gchq.magmacore.service.verify.DataIntegrityReport;
+
+/**
+ * Check that {@link MagmaCoreService#verifyModel()} runs all or some of the data integrity checks, and
+ * that they can be restricted to the things affected by a change.
+ */
+public class MagmaCoreServiceVerifyTest {
+
+    private static final IRI PERSON = new IRI(SignPatternTestData.TEST_BASE, "person");
+    private static final IRI SIGN = new IRI(SignPatternTestData.TEST_BASE, "sign");
+
+    private MagmaCoreService service;
+
+    /**
+     * Create a person and a sign that are not part of a possible world, where the sign also has no
+     * value and is not a member of a pattern.
+     */
+    @Before
+    public void setUp() {
+        service = MagmaCoreServiceFactory.create(new MagmaCoreJenaDatabase());
+        final Sign sign = SpatioTemporalExtentServices.createSign(SIGN);
+        service.runInWriteTransaction(svc -> {
+            svc.create(SpatioTemporalExtentServices.createPerson(PERSON));
+            svc.create(sign);
+            return svc;
+        });
+    }
+
+    /**
+     * Test that every check runs by default.
+     */
+    @Test
+    public void testVerifyAll() {
+        final List<Thing> errors = service.verifyModel();
+
+        assertEquals(Set.of("error_possible_world", "error_missing_value_", "error_missing_member_of_"),
+                errorNames(errors, SIGN));
+        assertEquals(Set.of("error_possible_world"), errorNames(errors, PERSON));
+    }
+
+    /**
+     * Test that only the named checks run, and that their errors are passed to the consumer.
+     */
+    @Test
+    public void testVerifySubset() {
+        final List<Thing> errors = new ArrayList<>();
+        service.verifyModel(List.of("SIGN_VALUE_", "SIGN_MEMBER_OF_PATTERN"), errors::add);
+
+        assertEquals(Set.of("error_missing_value_", "error_missing_member_of_"), errorNames(errors, SIGN));
+        assertEquals(Set.of(), errorNames(errors, PERSON));
+    }
+
+    /**
+     * Test that an unknown check name is rejected before any check runs.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCheck() {
+        service.verifyModel(List.of("SIGN_VALUE_", "NO_SUCH_CHECK"), error -> {
+        });
+    }
+
+    /**
+     * Test that checking a change set reports errors only for the things it can have affected.
+     */
+    @Test
+    public void testVerifyChangeSet() {
+        final IRI other = new IRI(SignPatternTestData.TEST_BASE, "other");
+        final DbChangeSet changeSet = new DbChangeSet(List.of(), List.of(
+                new DbCreateOperation(other, RDFS.RDF_TYPE, HQDM.PERSON),
+                new DbCreateOperation(PERSON, HQDM.PART_OF_POSSIBLE_WORLD, other)));
+        service.runInWriteTransaction(changeSet);
+
+        final List<Thing> errors = service.verifyChangeSet(changeSet);
+
+        assertEquals(Set.of("error_possible_world"), errorNames(errors, other));
+        assertEquals(Set.of(), errorNames(errors, PERSON));
+        assertEquals(Set.of(), errorNames(errors, SIGN));
+    }
+
+    /**
+     * Test that checking a change set reports errors for things that a changed subject refers to.
+     */
+    @Test
+    public void testVerifyChangeSetReferencedObjects() {
+        final IRI rep = new IRI(SignPatternTestData.TEST_BASE, "rep");
+        final IRI stateOfSign = new IRI(SignPatternTestData.TEST_BASE, "stateOfSign");
+        service.runInWriteTransaction(new DbChangeSet(List.of(), List.of(
+                new DbCreateOperation(rep, RDFS.RDF_TYPE, HQDM.REPRESENTATION_BY_SIGN),
+                new DbCreateOperation(stateOfSign, RDFS.RDF_TYPE, HQDM.STATE_OF_SIGN),
+                new DbCreateOperation(stateOfSign, HQDM.PARTICIPANT_IN, rep))));
+
+        final DbChangeSet changeSet = new DbChangeSet(List.of(
+                new DbDeleteOperation(stateOfSign, RDFS.RDF_TYPE, HQDM.STATE_OF_SIGN)), List.of());
+        service.runInWriteTransaction(changeSet);
+
+        final List<Thing> errors = service.verifyChangeSet(changeSet);
+
+        assertTrue(errorNames(service.verifyModel(), rep).contains("error_missing_sign"));
+        assertTrue(errorNames(errors, rep).contains("error_missing_sign"));
+        assertEquals(Set.of(), errorNames(errors, SIGN));
+    }
+
+    /**
+     * Test that a change set that can affect more than {@link DataIntegrityReport#MAX_SCOPE} things is
+     * checked in full.
+     */
+    @Test
+    public void testVerifyChangeSetAboveMaxScope() {
+        final IRI kind = new IRI(SignPatternTestData.TEST_BASE, "kind");
+        final List<DbCreateOperation> members = new ArrayList<>();
+        for (int i = 0; i <= DataIntegrityReport.MAX_SCOPE; i++) {
+            members.add(new DbCreateOperation(new IRI(SignPatternTestData.TEST_BASE, "member" + i),
+                    HQDM.MEMBER_OF_KIND, kind));
+        }
+        service.runInWriteTransaction(new DbChangeSet(List.of(), members));
+
+        final DbChangeSet changeSet = new DbChangeSet(List.of(), List.of(
+                new DbCreateOperation(kind, RDFS.RDF_TYPE, HQDM.KIND_OF_PERSON)));
+        service.runInWriteTransaction(changeSet);
+
+        final List<Thing> errors = service.verifyChangeSet(changeSet);
+
+        assertEquals(Set.of("error_possible_world", "error_missing_value_", "error_missing_member_of_"),
+                errorNames(errors, SIGN));
+    }
+
+    /**
+     * Test that checking a transformation reports errors for things that refer to a changed subject.
+     */
+    @Test
+    public void testVerifyIncrementalReferrers() {
+        final IRI participant = new IRI(SignPatternTestData.TEST_BASE, "participant");
+        final IRI association = new IRI(SignPatternTestData.TEST_BASE, "association");
+        service.runInWriteTransaction(new DbChangeSet(List.of(), List.of(
+                new DbCreateOperation(participant, RDFS.RDF_TYPE, HQDM.PARTICIPANT),
+                new DbCreateOperation(participant, HQDM.PARTICIPANT_IN, association))));
+
+        final DbTransformation transformation = new DbTransformation();
+        transformation.add(new DbChangeSet(List.of(), List.of(
+                new DbCreateOperation(association, RDFS.RDF_TYPE, HQDM.ASSOCIATION))));
+        service.runInWriteTransaction(transformation);
+
+        final List<Thing> errors = service.verifyIncremental(transformation);
+
+        assertTrue(errorNames(errors, participant).contains("error_participant_with_no_role"));
+        assertTrue(errorNames(errors, association).contains("error_missing_kind_of_association"));
+        assertEquals(Set.of(), errorNames(errors, SIGN));
+    }
+
+    /**
+     * Test that the check names are published.
+     */
+    @Test
+    public void testCheckNames() {
+        assertEquals(17, DataIntegrityReport.getCheckNames().size());
+        assertTrue(DataIntegrityReport.getCheckNames().contains("POSSIBLE_WORLD_MEMBERSHIP"));
+    }
+
+    /**
+     * Collect the local names of the error predicates reported for a subject.
+     *
+     * @param errors  The errors.
+     * @param subject The subject.
+     * @return The error predicate names.
+     */
+    private static Set<String> errorNames(final List<Thing> errors, final IRI subject) {
+        return errors.stream()
+                .filter(error -> error.getId().equals(subject))
+                .flatMap(error -> error.getPredicates().keySet().stream())
+                .map(IRI::getResource)
+                .filter(name -> name.startsWith("error_"))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.cache.ThingCache;
+
+/**
+ * Check that a {@link MagmaCoreService} can be shared by threads using {@link MagmaCoreSession}.
+ */
+public class MagmaCoreSessionTest {
+
+    private static final IriBase TEST_BASE = new IriBase("test", "http://example.com/test#");
+
+    private static final int THREADS = 4;
+
+    private static Person createPerson(final MagmaCoreService service, final String name) {
+        final Person person = SpatioTemporalExtentServices.createPerson(new IRI(TEST_BASE, name));
+        person.addStringValue(HQDM.ENTITY_NAME, name);
+        try (MagmaCoreSession session = service.openWriteSession()) {
+            service.create(person);
+            session.commit();
+        }
+        return person;
+    }
+
+    /**
+     * Several threads can hold read sessions at the same time.
+     *
+     * @throws Exception if a reader fails.
+     */
+    @Test
+    public void testConcurrentReadSessions() throws Exception {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(new ThingCache(1000));
+        final Person person = createPerson(service, "person1");
+
+        // Every reader waits inside its session until all of them are inside theirs.
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Thing>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    try (MagmaCoreSession session = service.openReadSession()) {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        return service.get(person.getId());
+                    }
+                }));
+            }
+            for (final Future<Thing> result : results) {
+                assertEquals(person.getId(), result.get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A reader does not see a write until it is committed, even through the cache.
+     *
+     * @throws Exception if the reader fails.
+     */
+    @Test
+    public void testUncommittedWriteNotVisible() throws Exception {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase(new ThingCache(1000));
+        final Person person = SpatioTemporalExtentServices.createPerson(new IRI(TEST_BASE, "person1"));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            try (MagmaCoreSession session = service.openWriteSession()) {
+                service.create(person);
+                assertNotNull(service.get(person.getId()));
+
+                assertNull(executor.submit(() -> service.getInTransaction(person.getId())).get());
+                session.commit();
+            }
+            assertNotNull(executor.submit(() -> service.getInTransaction(person.getId())).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Closing a session without committing aborts it.
+     */
+    @Test
+    public void testCloseAborts() {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final Person person = SpatioTemporalExtentServices.createPerson(new IRI(TEST_BASE, "person1"));
+
+        try (MagmaCoreSession session = service.openWriteSession()) {
+            service.create(person);
+        }
+        assertNull(service.getInTransaction(person.getId()));
+    }
+
+    /**
+     * A session can only be ended by the thread that opened it.
+     *
+     * @throws Exception if the other thread fails unexpectedly.
+     */
+    @Test
+    public void testBoundToThread() throws Exception {
+        final MagmaCoreService service = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (MagmaCoreSession session = service.openReadSession()) {
+            executor.submit(() -> assertThrows(IllegalStateException.class, session::close)).get();
+            executor.submit(() -> assertThrows(IllegalStateException.class, session::commit)).get();
+            assertTrue(session.isOpen());
+            session.commit();
+            assertFalse(session.isOpen());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.exception.MagmaCoreException;
+import uk.gov.gchq.magmacore.hqdm.model.PointInTime;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.dto.SignPatternDto;
+import uk.gov.gchq.magmacore.service.transformation.DbChangeSet;
+import uk.gov.gchq.magmacore.service.transformation.DbDeleteOperation;
+
+/**
+ * Check that the {@link SignResolutionIndex} gives the same results as the sign queries, and follows
+ * writes through the service.
+ */
+public class SignResolutionIndexTest {
+
+    private static final IRI SIGN1 = new IRI(SignPatternTestData.TEST_BASE, "sign1");
+    private static final IRI REP_BY_SIGN1 = new IRI(SignPatternTestData.TEST_BASE, "repBySign1");
+
+    /**
+     * Test that findBySignValue finds the same objects with and without the index.
+     *
+     * @throws MagmaCoreException if the query fails.
+     */
+    @Test
+    public void testFindBySignValueMatchesQuery() throws MagmaCoreException {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService queried = new MagmaCoreService(db);
+        final MagmaCoreService indexed = new MagmaCoreService(db);
+        indexed.enableSignResolutionIndex();
+
+        final Instant now = Instant.now();
+        final Instant later = now.plus(Duration.ofDays(2));
+
+        db.beginRead();
+        for (final Instant when : List.of(now, later)) {
+            for (final String value : List.of("person1", "person2", "person3", "nobody")) {
+                assertEquals(ids(find(queried, value, when)), ids(find(indexed, value, when)));
+            }
+        }
+        final List<? extends Thing> found = find(indexed, "person1", now);
+        db.commit();
+
+        assertEquals(1, found.size());
+        assertEquals(SignPatternTestData.stateOfPerson1.getId(), found.get(0).getId());
+    }
+
+    /**
+     * Test that findSignsForEntity finds the same signs with and without the index, once the patterns
+     * have been named through the service.
+     */
+    @Test
+    public void testFindSignsForEntityMatchesQuery() {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService queried = new MagmaCoreService(db);
+        final MagmaCoreService indexed = new MagmaCoreService(db);
+        indexed.enableSignResolutionIndex();
+        final PointInTime now = pointInTime(Instant.now());
+
+        db.beginRead();
+        assertTrue(indexed.findSignsForEntity(SignPatternTestData.person1.getId(), now).isEmpty());
+        db.commit();
+
+        indexed.runInWriteTransaction(svc -> {
+            final Thing pattern1 = svc.get(SignPatternTestData.pattern1.getId());
+            pattern1.addStringValue(HQDM.ENTITY_NAME, "Pattern 1");
+            svc.update(pattern1);
+            final Thing repByPattern1 = svc.get(new IRI(SignPatternTestData.TEST_BASE, "repByPattern1"));
+            repByPattern1.addStringValue(HQDM.ENTITY_NAME, "Representation 1");
+            svc.update(repByPattern1);
+            return svc;
+        });
+
+        db.beginRead();
+        final List<SignPatternDto> expected = queried.findSignsForEntity(SignPatternTestData.person1.getId(), now);
+        final List<SignPatternDto> actual = indexed.findSignsForEntity(SignPatternTestData.person1.getId(), now);
+        db.commit();
+
+        assertEquals(List.of(new SignPatternDto("person1", "Pattern 1", "Representation 1")), actual);
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    /**
+     * Test that the index follows a changed sign value and a deleted representation.
+     *
+     * @throws MagmaCoreException if the query fails.
+     */
+    @Test
+    public void testIndexFollowsWrites() throws MagmaCoreException {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService service = new MagmaCoreService(db);
+        service.enableSignResolutionIndex();
+        final Instant now = Instant.now();
+
+        db.beginRead();
+        assertEquals(1, find(service, "person1", now).size());
+        db.commit();
+
+        service.runInWriteTransaction(svc -> {
+            final Thing sign1 = svc.get(SIGN1);
+            sign1.removeValue(HQDM.VALUE_, "person1");
+            sign1.addStringValue(HQDM.VALUE_, "agent1");
+            svc.update(sign1);
+            return svc;
+        });
+
+        db.beginRead();
+        assertTrue(find(service, "person1", now).isEmpty());
+        assertEquals(1, find(service, "agent1", now).size());
+        db.commit();
+
+        service.runInWriteTransaction(new DbChangeSet(
+                List.of(new DbDeleteOperation(REP_BY_SIGN1, HQDM.REPRESENTS,
+                        SignPatternTestData.stateOfPerson1.getId())),
+                List.of())::apply);
+
+        db.beginRead();
+        assertTrue(find(service, "agent1", now).isEmpty());
+        db.commit();
+    }
+
+    /**
+     * Find the things represented by a sign value of pattern1 for community1.
+     *
+     * @param service The {@link MagmaCoreService}.
+     * @param value   The sign value.
+     * @param when    The {@link Instant}.
+     * @return A {@link List} of {@link Thing}.
+     * @throws MagmaCoreException if the query fails.
+     */
+    private static List<? extends Thing> find(final MagmaCoreService service, final String value,
+            final Instant when) throws MagmaCoreException {
+        return service.findBySignValue(SignPatternTestData.community1, SignPatternTestData.pattern1, value,
+                pointInTime(when));
+    }
+
+    /**
+     * Create a {@link PointInTime} for an {@link Instant}.
+     *
+     * @param when The {@link Instant}.
+     * @return The {@link PointInTime}.
+     */
+    private static PointInTime pointInTime(final Instant when) {
+        final PointInTime pointInTime = SpatioTemporalExtentServices
+                .createPointInTime(new IRI(SignPatternTestData.TEST_BASE, "when"));
+        pointInTime.addStringValue(HQDM.ENTITY_NAME, when.toString());
+        return pointInTime;
+    }
+
+    /**
+     * Get the ids of some {@link Thing} objects.
+     *
+     * @param things The {@link Thing} objects.
+     * @return A {@link Set} of {@link IRI}.
+     */
+    private static Set<IRI> ids(final List<? extends Thing> things) {
+        return things.stream().map(Thing::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.jena.query.Query;
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
+import uk.gov.gchq.magmacore.exception.MagmaCoreException;
+import uk.gov.gchq.magmacore.hqdm.model.PointInTime;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.sparql.MagmaCoreServiceQueries;
+
+/**
+ * Check that the {@link SignTextIndex} finds the same signs as the partial sign queries.
+ */
+public class SignTextIndexTest {
+
+    private static final IRI SIGN1 = new IRI(SignPatternTestData.TEST_BASE, "sign1");
+
+    /**
+     * Test case sensitive and insensitive searches, including text too short to probe the index.
+     */
+    @Test
+    public void testFind() {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+
+        db.beginRead();
+        final SignTextIndex index = SignTextIndex.build(db);
+        db.commit();
+
+        assertEquals(3, index.find("ERSON", false).size());
+        assertTrue(index.find("ERSON", true).isEmpty());
+        assertEquals(Set.of(SIGN1), index.find("son1", true));
+        assertEquals(Set.of(SIGN1), index.find("1", true));
+        assertTrue(index.find("nobody", false).isEmpty());
+
+        index.remove(SIGN1);
+        assertEquals(2, index.find("person", true).size());
+    }
+
+    /**
+     * Test that case insensitive searches do not depend on the default locale, as SPARQL {@code lcase}
+     * does not.
+     */
+    @Test
+    public void testFindInTurkishLocale() {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final IRI infoSign = new IRI(SignPatternTestData.TEST_BASE, "infoSign");
+
+        db.beginRead();
+        final SignTextIndex index = SignTextIndex.build(db);
+        db.commit();
+        index.add(infoSign, "info");
+
+        final Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr"));
+            assertEquals(Set.of(infoSign), index.find("INFO", false));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    /**
+     * Test that a partial sign query is restricted to the matching signs.
+     */
+    @Test
+    public void testRestrict() {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+
+        db.beginRead();
+        final SignTextIndex index = SignTextIndex.build(db);
+        db.commit();
+
+        final Query query = PreparedQuery.of(MagmaCoreServiceQueries.FIND_BY_PARTIAL_SIGN_VALUE_CASE_INSENSITIVE_QUERY)
+                .bind("SON1", SignPatternTestData.community1.getId(), SignPatternTestData.pattern1.getId());
+        final String restricted = index.restrict(query, "SON1", false).serialize();
+
+        assertTrue(restricted.contains("VALUES ?sign"));
+        assertTrue(restricted.contains(SIGN1.getIri()));
+        assertFalse(restricted.contains("sign2"));
+    }
+
+    /**
+     * Test that the index follows a sign value updated through the service.
+     *
+     * @throws MagmaCoreException if the query fails.
+     */
+    @Test
+    public void testIndexFollowsUpdates() throws MagmaCoreException {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService service = new MagmaCoreService(db);
+        service.enableSignTextIndex();
+
+        db.beginRead();
+        assertEquals(1, findPartial(service, "ERSON").size());
+        db.commit();
+
+        service.runInWriteTransaction(svc -> {
+            final Thing sign1 = svc.get(SIGN1);
+            sign1.removeValue(HQDM.VALUE_, "person1");
+            sign1.addStringValue(HQDM.VALUE_, "agent1");
+            svc.update(sign1);
+            return svc;
+        });
+
+        db.beginRead();
+        final List<? extends Thing> oldValue = findPartial(service, "ERSON");
+        final List<? extends Thing> newValue = findPartial(service, "GENT");
+        db.commit();
+
+        assertTrue(oldValue.isEmpty());
+        assertEquals(1, newValue.size());
+    }
+
+    /**
+     * Find the things represented by a partial sign value of pattern1 now.
+     *
+     * @param service The {@link MagmaCoreService}.
+     * @param text    The partial sign value.
+     * @return A {@link List} of {@link Thing}.
+     * @throws MagmaCoreException if the query fails.
+     */
+    private static List<? extends Thing> findPartial(final MagmaCoreService service, final String text)
+            throws MagmaCoreException {
+        final PointInTime pointInTime = SpatioTemporalExtentServices
+                .createPointInTime(new IRI(SignPatternTestData.TEST_BASE, "now"));
+        pointInTime.addStringValue(HQDM.ENTITY_NAME, Instant.now().toString());
+        return service.findByPartialSignValue(SignPatternTestData.community1, SignPatternTestData.pattern1, text,
+                pointInTime);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.query.Query;
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.database.MagmaCoreDatabase;
+import uk.gov.gchq.magmacore.database.MagmaCoreJenaDatabase;
+import uk.gov.gchq.magmacore.database.query.PreparedQuery;
+import uk.gov.gchq.magmacore.exception.MagmaCoreException;
+import uk.gov.gchq.magmacore.hqdm.model.PointInTime;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
+import uk.gov.gchq.magmacore.service.sparql.MagmaCoreServiceQueries;
+
+/**
+ * Check that the {@link TemporalIndex} restricts point-in-time queries without changing their results.
+ */
+public class TemporalIndexTest {
+
+    /**
+     * Test that the objects that are not valid at an instant are excluded from a query.
+     */
+    @Test
+    public void testRestrict() {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+
+        db.beginRead();
+        final TemporalIndex index = TemporalIndex.build(db);
+        db.commit();
+
+        final Instant now = Instant.now();
+        final Instant later = now.plus(Duration.ofDays(2));
+        final Query query = PreparedQuery.of(MagmaCoreServiceQueries.FIND_BY_SIGN_VALUE_QUERY)
+                .bind("person1", SignPatternTestData.community1.getId(), SignPatternTestData.pattern1.getId());
+
+        assertTrue(index.invalidAt(now).isEmpty());
+        assertSame(query, index.restrict(query, now));
+
+        final Set<IRI> invalid = index.invalidAt(later);
+        assertEquals(3, invalid.size());
+        assertTrue(invalid.contains(new IRI(SignPatternTestData.TEST_BASE, "repBySign1")));
+
+        final String restricted = index.restrict(query, later).serialize();
+        assertTrue(restricted.contains("MINUS"));
+        assertTrue(restricted.contains(SignPatternTestData.TEST_BASE.getNamespace() + "repBySign1"));
+    }
+
+    /**
+     * Test that findBySignValue only finds objects whose representation is valid at the point in time.
+     *
+     * @throws MagmaCoreException if the query fails.
+     */
+    @Test
+    public void testFindBySignValueOutsideInterval() throws MagmaCoreException {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService service = new MagmaCoreService(db);
+        service.enableTemporalIndex();
+
+        db.beginRead();
+        final List<? extends Thing> found = findPerson1(service, Instant.now());
+        final List<? extends Thing> notFound = findPerson1(service, Instant.now().plus(Duration.ofDays(2)));
+        db.commit();
+
+        assertEquals(1, found.size());
+        assertTrue(notFound.isEmpty());
+    }
+
+    /**
+     * Test that the index is discarded when an update through the service moves an ending later.
+     *
+     * @throws MagmaCoreException if the query fails.
+     */
+    @Test
+    public void testIndexDiscardedWhenEndingChanges() throws MagmaCoreException {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService service = new MagmaCoreService(db);
+        service.enableTemporalIndex();
+        final Instant later = Instant.now().plus(Duration.ofDays(2));
+
+        db.beginRead();
+        assertTrue(findPerson1(service, later).isEmpty());
+        db.commit();
+
+        moveEnding(service);
+
+        db.beginRead();
+        final List<? extends Thing> found = findPerson1(service, later);
+        db.commit();
+
+        assertFalse(found.isEmpty());
+    }
+
+    /**
+     * Test that the index is not used unless it is enabled, so that a service sees writes made through
+     * another service on the same database.
+     *
+     * @throws MagmaCoreException if the query fails.
+     */
+    @Test
+    public void testIndexNotUsedByDefault() throws MagmaCoreException {
+        final MagmaCoreDatabase db = new MagmaCoreJenaDatabase();
+        SignPatternTestData.createSignPattern(db);
+        final MagmaCoreService reader = new MagmaCoreService(db);
+        final MagmaCoreService writer = new MagmaCoreService(db);
+        final Instant later = Instant.now().plus(Duration.ofDays(2));
+
+        db.beginRead();
+        assertTrue(findPerson1(reader, later).isEmpty());
+        db.commit();
+
+        moveEnding(writer);
+
+        db.beginRead();
+        final List<? extends Thing> found = findPerson1(reader, later);
+        db.commit();
+
+        assertEquals(1, found.size());
+    }
+
+    /**
+     * Move the ending of the representation of person1 three days into the future.
+     *
+     * @param service The {@link MagmaCoreService} to write through.
+     */
+    private static void moveEnding(final MagmaCoreService service) {
+        final PointInTime newEnd = SpatioTemporalExtentServices
+                .createPointInTime(new IRI(SignPatternTestData.TEST_BASE, "newEnd"));
+        newEnd.addValue(RDFS.RDF_TYPE, HQDM.POINT_IN_TIME);
+        newEnd.addStringValue(HQDM.ENTITY_NAME, Instant.now().plus(Duration.ofDays(3)).toString());
+
+        service.runInWriteTransaction(svc -> {
+            final Thing repBySign1 = svc.get(new IRI(SignPatternTestData.TEST_BASE, "repBySign1"));
+            repBySign1.removeValue(HQDM.ENDING, repBySign1.oneValue(HQDM.ENDING));
+            repBySign1.addValue(HQDM.ENDING, newEnd.getId());
+            svc.create(newEnd);
+            svc.update(repBySign1);
+            return svc;
+        });
+    }
+
+    /**
+     * Find the things represented by the sign value person1 at an {@link Instant}.
+     *
+     * @param service The {@link MagmaCoreService}.
+     * @param when    The {@link Instant}.
+     * @return A {@link List} of {@link Thing}.
+     * @throws MagmaCoreException if the query fails.
+     */
+    private static List<? extends Thing> findPerson1(final MagmaCoreService service, final Instant when)
+            throws MagmaCoreException {
+        final PointInTime pointInTime = SpatioTemporalExtentServices
+                .createPointInTime(new IRI(SignPatternTestData.TEST_BASE, "when"));
+        pointInTime.addStringValue(HQDM.ENTITY_NAME, when.toString());
+        return service.findBySignValue(SignPatternTestData.community1, SignPatternTestData.pattern1, "person1",
+                pointInTime);
+    }
+}
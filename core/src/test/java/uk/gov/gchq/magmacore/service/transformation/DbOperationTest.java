@@ -18,8 +18,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
 import org.junit.Test;
 
 import uk.gov.gchq.magmacore.exception.DbTransformationException;
@@ -144,6 +147,85 @@ public class DbOperationTest {
         mcService.runInWriteTransaction(deleteIndividual);
     }
 
+    /**
+     * Test that lists of operations can be applied together and only change the triples they name.
+     */
+    @Test
+    public void testApplyAll() {
+        final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+
+        final IRI individualIri = new IRI(TEST_BASE, "individual");
+        final List<DbCreateOperation> creates = List.of(
+                new DbCreateOperation(individualIri, RDFS.RDF_TYPE, HQDM.INDIVIDUAL),
+                new DbCreateOperation(individualIri, HQDM.MEMBER_OF, "classOfIndividual"),
+                new DbCreateOperation(individualIri, HQDM.PART_OF_POSSIBLE_WORLD, "possible world"));
+
+        mcService.runInWriteTransaction(svc -> DbCreateOperation.applyAll(svc, creates));
+
+        final Thing individual = mcService.getInTransaction(individualIri);
+        assertTrue(individual.hasThisValue(RDFS.RDF_TYPE, HQDM.INDIVIDUAL));
+        assertTrue(individual.hasThisValue(HQDM.MEMBER_OF, "classOfIndividual"));
+        assertTrue(individual.hasThisValue(HQDM.PART_OF_POSSIBLE_WORLD, "possible world"));
+
+        final List<DbDeleteOperation> deletes = creates.subList(1, 3)
+                .stream()
+                .map(DbCreateOperation::invert)
+                .toList();
+        mcService.runInWriteTransaction(svc -> DbDeleteOperation.applyAll(svc, deletes));
+
+        final Thing individualFromDb = mcService.getInTransaction(individualIri);
+        assertTrue(individualFromDb.hasThisValue(RDFS.RDF_TYPE, HQDM.INDIVIDUAL));
+        assertFalse(individualFromDb.hasThisValue(HQDM.MEMBER_OF, "classOfIndividual"));
+        assertFalse(individualFromDb.hasThisValue(HQDM.PART_OF_POSSIBLE_WORLD, "possible world"));
+    }
+
+    /**
+     * Test that a triple can be deleted and created again by the same set of operations.
+     */
+    @Test
+    public void testApplyOperationsDeleteThenCreate() {
+        final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+
+        final IRI individualIri = new IRI(TEST_BASE, "individual");
+        final DbCreateOperation createIndividual = new DbCreateOperation(individualIri, RDFS.RDF_TYPE, HQDM.INDIVIDUAL);
+        mcService.runInWriteTransaction(createIndividual);
+
+        mcService.runInWriteTransaction(svc -> {
+            svc.applyOperations(List.of(DbCreateOperation.invert(createIndividual)), List.of(createIndividual));
+            return svc;
+        });
+
+        assertTrue(mcService.getInTransaction(individualIri).hasThisValue(RDFS.RDF_TYPE, HQDM.INDIVIDUAL));
+    }
+
+    /**
+     * Test that all of the conflicts in a list of operations are reported together, and that nothing is
+     * written.
+     */
+    @Test
+    public void testApplyAllReportsAllConflicts() {
+        final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+
+        final IRI individualIri = new IRI(TEST_BASE, "individual");
+        final DbCreateOperation createIndividual = new DbCreateOperation(individualIri, RDFS.RDF_TYPE, HQDM.INDIVIDUAL);
+        final DbCreateOperation createMemberOf = new DbCreateOperation(individualIri, HQDM.MEMBER_OF,
+                "classOfIndividual");
+        final DbCreateOperation createPartOf = new DbCreateOperation(individualIri, HQDM.PART_OF_POSSIBLE_WORLD,
+                "possible world");
+        mcService.runInWriteTransaction(createIndividual);
+
+        final DbTransformationException e = assertThrows(DbTransformationException.class,
+                () -> mcService.runInWriteTransaction(svc -> DbCreateOperation.applyAll(svc,
+                        List.of(createIndividual, createMemberOf, createPartOf, createPartOf))));
+
+        assertTrue(e.getMessage().startsWith("2 operations conflict"));
+        assertTrue(e.getMessage().contains(
+                String.format("Triple already exists: %s, %s, %s", individualIri, RDFS.RDF_TYPE, HQDM.INDIVIDUAL)));
+        assertTrue(e.getMessage().contains(String.format("Triple already exists: %s, %s, %s", individualIri,
+                HQDM.PART_OF_POSSIBLE_WORLD, "possible world")));
+        assertFalse(mcService.getInTransaction(individualIri).hasThisValue(HQDM.MEMBER_OF, "classOfIndividual"));
+    }
+
     /**
      * Test the equals method for {@link DbCreateOperation}.
      */
@@ -14,11 +14,21 @@
 
 package uk.gov.gchq.magmacore.service.transformation;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -87,4 +97,130 @@ public class DbTransformationTest {
         assertNull(mcService.getInTransaction(individualIri));
         assertNull(mcService.getInTransaction(personIri));
     }
+
+    /**
+     * Test that change sets can be applied in chunks from an {@link Iterator}, with a checkpoint after
+     * each chunk, and that an interrupted run can be resumed from its last checkpoint.
+     */
+    @Test
+    public void testApplyInChunksAndResume() {
+        final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final List<DbChangeSet> changeSets = createPeople(10);
+
+        // Fail while reading the sixth change set, after two chunks of two have committed.
+        final Iterator<DbChangeSet> failing = changeSets.stream()
+                .map(changeSet -> {
+                    if (changeSet == changeSets.get(5)) {
+                        throw new IllegalStateException("Interrupted");
+                    }
+                    return changeSet;
+                })
+                .iterator();
+        final List<Long> checkpoints = new ArrayList<>();
+        assertThrows(IllegalStateException.class,
+                () -> DbTransformation.applyInChunks(mcService, failing, 2, -1, checkpoints::add));
+        assertEquals(List.of(1L, 3L), checkpoints);
+        assertNotNull(mcService.getInTransaction(new IRI(TEST_BASE, "person3")));
+        assertNull(mcService.getInTransaction(new IRI(TEST_BASE, "person4")));
+
+        final long applied = DbTransformation.applyInChunks(mcService, changeSets.iterator(), 4, 3,
+                checkpoints::add);
+        assertEquals(6, applied);
+        assertEquals(List.of(1L, 3L, 7L, 9L), checkpoints);
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(mcService.getInTransaction(new IRI(TEST_BASE, "person" + i)));
+        }
+    }
+
+    /**
+     * Test that a triple created by one change set and deleted by a later one is absent whatever the
+     * chunk size.
+     */
+    @Test
+    public void testApplyInChunksPreservesOrder() {
+        final IRI personIri = new IRI(TEST_BASE, "person");
+        final List<DbChangeSet> changeSets = List.of(
+                new DbChangeSet(List.of(), List.of(new DbCreateOperation(personIri, RDFS.RDF_TYPE, HQDM.PERSON),
+                        new DbCreateOperation(personIri, HQDM.ENTITY_NAME, "old name"))),
+                new DbChangeSet(List.of(new DbDeleteOperation(personIri, HQDM.ENTITY_NAME, "old name")),
+                        List.of(new DbCreateOperation(personIri, HQDM.ENTITY_NAME, "new name"))));
+
+        for (final int chunkSize : new int[] { 1, 2 }) {
+            final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+            DbTransformation.applyInChunks(mcService, changeSets.iterator(), chunkSize, -1, null);
+
+            assertEquals("chunkSize " + chunkSize, Set.of("new name"),
+                    mcService.getInTransaction(personIri).values(HQDM.ENTITY_NAME));
+        }
+    }
+
+    /**
+     * Test that the checkpoint can be kept in a file, so that a second run applies nothing more.
+     *
+     * @throws IOException if the checkpoint file cannot be used.
+     */
+    @Test
+    public void testApplyInChunksWithCheckpointFile() throws IOException {
+        final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final List<DbChangeSet> changeSets = createPeople(5);
+        final Path directory = Files.createTempDirectory("checkpoint");
+        final Path checkpointFile = directory.resolve("migration.checkpoint");
+        try {
+            assertEquals(5, DbTransformation.applyInChunks(mcService, changeSets.iterator(), 2, checkpointFile));
+            assertEquals("4", Files.readString(checkpointFile));
+            assertEquals(0, DbTransformation.applyInChunks(mcService, changeSets.iterator(), 2, checkpointFile));
+            assertNotNull(mcService.getInTransaction(new IRI(TEST_BASE, "person4")));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Test that an {@link UncheckedIOException} from reading the change sets is not reported as a
+     * failure of the checkpoint file.
+     *
+     * @throws IOException if the checkpoint file cannot be used.
+     */
+    @Test
+    public void testApplyInChunksWithCheckpointFileKeepsOtherFailures() throws IOException {
+        final MagmaCoreService mcService = MagmaCoreServiceFactory.createWithJenaDatabase();
+        final UncheckedIOException failure = new UncheckedIOException(new IOException("Source failed"));
+        final Iterator<DbChangeSet> failing = createPeople(3).stream()
+                .map(changeSet -> {
+                    if (changeSet.getCreates().get(0).subject.getIri().endsWith("person2")) {
+                        throw failure;
+                    }
+                    return changeSet;
+                })
+                .iterator();
+        final Path directory = Files.createTempDirectory("checkpoint");
+        final Path checkpointFile = directory.resolve("migration.checkpoint");
+        try {
+            final UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                    () -> DbTransformation.applyInChunks(mcService, failing, 1, checkpointFile));
+            assertSame(failure, e);
+            assertEquals("1", Files.readString(checkpointFile));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Create a change set for each of a number of people.
+     *
+     * @param count The number of people.
+     * @return A {@link List} of {@link DbChangeSet}.
+     */
+    private static List<DbChangeSet> createPeople(final int count) {
+        final List<DbChangeSet> changeSets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final IRI personIri = new IRI(TEST_BASE, "person" + i);
+            changeSets.add(new DbChangeSet(List.of(),
+                    List.of(new DbCreateOperation(personIri, RDFS.RDF_TYPE, HQDM.PERSON),
+                            new DbCreateOperation(personIri, HQDM.ENTITY_NAME, "person " + i))));
+        }
+        return changeSets;
+    }
 }
@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import uk.gov.gchq.magmacore.hqdm.exception.HqdmException;
@@ -42,25 +44,9 @@ import uk.gov.gchq.magmacore.hqdm.services.SpatioTemporalExtentServices;
  */
 public final class HqdmObjectFactory {
 
-    private static List<ExtensionService> providers = null;
-
     private HqdmObjectFactory() {
     }
 
-    private static List<ExtensionService> getExtensionServices() {
-        if (providers == null) {
-            providers = new ArrayList<>();
-
-            ServiceLoader
-                .load(ExtensionServiceProvider.class)
-                .iterator()
-                .forEachRemaining(p -> {
-                    providers.add(p.createService(iriToClassMap));
-                });
-        }
-        return providers;
-    }
-
     /**
      * Create a new HQDM object from a HQDM entity type and IRI.
      *
@@ -72,7 +58,7 @@ public final class HqdmObjectFactory {
      * @throws HqdmException If the HqdmObject could not be built.
      */
     public static <T extends Thing> T create(final HqdmIri hqdmType, final IRI iri) throws HqdmException {
-        return (T) mapToThing(hqdmType.getResource(), iri);
+        return (T) mapToThing(hqdmType, iri);
     }
 
     /**
@@ -97,9 +83,9 @@ public final class HqdmObjectFactory {
                 final Thing result;
 
                 if (iris.size() == 1) {
-                    result = mapToThing(iris.iterator().next().getResource(), iri);
+                    result = mapToThing(iris.iterator().next(), iri);
                 } else {
-                    result = DynamicObjects.create(iri, Thing.class, irisToClasses(iris));
+                    result = typeSetFactories.computeIfAbsent(iris, HqdmObjectFactory::typeSetFactory).apply(iri);
                 }
 
                 for (final Pair<IRI, Object> pair : pairs) {
@@ -118,6 +104,17 @@ public final class HqdmObjectFactory {
         }
     }
 
+    /**
+     * Resolve the classes for a set of HQDM type IRIs and the factory that creates objects
+     * implementing all of them. This is called once per distinct set of types.
+     *
+     * @param iris Set of {@link IRI}.
+     * @return A function from the {@link IRI} of a new object to the object.
+     */
+    private static Function<IRI, Thing> typeSetFactory(final Set<IRI> iris) {
+        return DynamicObjects.factory(Thing.class, irisToClasses(iris));
+    }
+
     /**
      * Convert a list of IRI Strings to class names.
      *
@@ -125,17 +122,23 @@ public final class HqdmObjectFactory {
      * @return Array of Class.
      */
     private static <T extends Thing> java.lang.Class<T>[] irisToClasses(final Set<IRI> iris) {
+        final Map<IRI, java.lang.Class<? extends Thing>> classMap = Extensions.classes;
         final Set<java.lang.Class<? extends Thing>> classes = new HashSet<>(3);
 
         // It will be a small list so just iterate it.
         for (final IRI iri : iris) {
-            classes.add(iriToClassMap.getOrDefault(iri, Thing.class));
+            classes.add(classMap.getOrDefault(iri, Thing.class));
         }
 
         return (java.lang.Class<T>[]) classes.toArray(new java.lang.Class<?>[] {});
     }
 
-    // A statically initialized Map of IRIs to HQDM classes.
+    // Object factories for entities with more than one HQDM type, keyed by their set of type IRIs.
+    // The number of distinct combinations in a dataset is small, so the map is not bounded.
+    private static final Map<Set<IRI>, Function<IRI, Thing>> typeSetFactories = new ConcurrentHashMap<>();
+
+    // A statically initialized Map of IRIs to HQDM classes, which extensions add to in a copy held
+    // by Extensions.
     private static final Map<IRI, java.lang.Class<? extends Thing>> iriToClassMap = new HashMap<>(250);
 
     static {
@@ -380,486 +383,372 @@ public final class HqdmObjectFactory {
         iriToClassMap.put(HQDM.UNIT_OF_MEASURE, UnitOfMeasure.class);
     }
 
+    // A statically initialized, immutable Map of HQDM type IRIs to the factory for that type.
+    private static final Map<IRI, Function<IRI, Thing>> typeFactories;
+
+    static {
+        final Map<IRI, Function<IRI, Thing>> factories = new HashMap<>(250);
+        factories.put(HQDM.ABSTRACT_OBJECT, SpatioTemporalExtentServices::createAbstractObject);
+        factories.put(HQDM.ACCEPTANCE_OF_OFFER, SpatioTemporalExtentServices::createAcceptanceOfOffer);
+        factories.put(HQDM.ACCEPTANCE_OF_OFFER_FOR_GOODS,
+                SpatioTemporalExtentServices::createAcceptanceOfOfferForGoods);
+        factories.put(HQDM.ACTIVITY, SpatioTemporalExtentServices::createActivity);
+        factories.put(HQDM.AGGREGATION, RelationshipServices::createAggregation);
+        factories.put(HQDM.AGREE_CONTRACT, SpatioTemporalExtentServices::createAgreeContract);
+        factories.put(HQDM.AGREEMENT_EXECUTION, SpatioTemporalExtentServices::createAgreementExecution);
+        factories.put(HQDM.AGREEMENT_PROCESS, SpatioTemporalExtentServices::createAgreementProcess);
+        factories.put(HQDM.AMOUNT_OF_MONEY, SpatioTemporalExtentServices::createAmountOfMoney);
+        factories.put(HQDM.ASSET, SpatioTemporalExtentServices::createAsset);
+        factories.put(HQDM.ASSOCIATION, SpatioTemporalExtentServices::createAssociation);
+        factories.put(HQDM.BEGINNING_OF_OWNERSHIP, SpatioTemporalExtentServices::createBeginningOfOwnership);
+        factories.put(HQDM.BIOLOGICAL_OBJECT, SpatioTemporalExtentServices::createBiologicalObject);
+        factories.put(HQDM.BIOLOGICAL_SYSTEM, SpatioTemporalExtentServices::createBiologicalSystem);
+        factories.put(HQDM.BIOLOGICAL_SYSTEM_COMPONENT, SpatioTemporalExtentServices::createBiologicalSystemComponent);
+        factories.put(HQDM.CLASS, ClassServices::createClass);
+        factories.put(HQDM.CLASSIFICATION, RelationshipServices::createClassification);
+        factories.put(HQDM.CLASS_OF_ABSTRACT_OBJECT, ClassServices::createClassOfAbstractObject);
+        factories.put(HQDM.CLASS_OF_ACTIVITY, ClassServices::createClassOfActivity);
+        factories.put(HQDM.CLASS_OF_AGREE_CONTRACT, ClassServices::createClassOfAgreeContract);
+        factories.put(HQDM.CLASS_OF_AGREEMENT_EXECUTION, ClassServices::createClassOfAgreementExecution);
+        factories.put(HQDM.CLASS_OF_AGREEMENT_PROCESS, ClassServices::createClassOfAgreementProcess);
+        factories.put(HQDM.CLASS_OF_AMOUNT_OF_MONEY, ClassServices::createClassOfAmountOfMoney);
+        factories.put(HQDM.CLASS_OF_ASSOCIATION, ClassServices::createClassOfAssociation);
+        factories.put(HQDM.CLASS_OF_BIOLOGICAL_OBJECT, ClassServices::createClassOfBiologicalObject);
+        factories.put(HQDM.CLASS_OF_BIOLOGICAL_SYSTEM, ClassServices::createClassOfBiologicalSystem);
+        factories.put(HQDM.CLASS_OF_BIOLOGICAL_SYSTEM_COMPONENT, ClassServices::createClassOfBiologicalSystemComponent);
+        factories.put(HQDM.CLASS_OF_CLASS, ClassServices::createClassOfClass);
+        factories.put(HQDM.CLASS_OF_CLASS_OF_SPATIO_TEMPORAL_EXTENT,
+                ClassServices::createClassOfClassOfSpatioTemporalExtent);
+        factories.put(HQDM.CLASS_OF_CONTRACT_EXECUTION, ClassServices::createClassOfContractExecution);
+        factories.put(HQDM.CLASS_OF_CONTRACT_PROCESS, ClassServices::createClassOfContractProcess);
+        factories.put(HQDM.CLASS_OF_EVENT, ClassServices::createClassOfEvent);
+        factories.put(HQDM.CLASS_OF_FUNCTIONAL_OBJECT, ClassServices::createClassOfFunctionalObject);
+        factories.put(HQDM.CLASS_OF_FUNCTIONAL_SYSTEM, ClassServices::createClassOfFunctionalSystem);
+        factories.put(HQDM.CLASS_OF_FUNCTIONAL_SYSTEM_COMPONENT, ClassServices::createClassOfFunctionalSystemComponent);
+        factories.put(HQDM.CLASS_OF_INDIVIDUAL, ClassServices::createClassOfIndividual);
+        factories.put(HQDM.CLASS_OF_IN_PLACE_BIOLOGICAL_COMPONENT,
+                ClassServices::createClassOfInPlaceBiologicalComponent);
+        factories.put(HQDM.CLASS_OF_INSTALLED_FUNCTIONAL_SYSTEM_COMPONENT,
+                ClassServices::createClassOfInstalledFunctionalSystemComponent);
+        factories.put(HQDM.CLASS_OF_INSTALLED_OBJECT, ClassServices::createClassOfInstalledObject);
+        factories.put(HQDM.CLASS_OF_INTENTIONALLY_CONSTRUCTED_OBJECT,
+                ClassServices::createClassOfIntentionallyConstructedObject);
+        factories.put(HQDM.CLASS_OF_OFFER, ClassServices::createClassOfOffer);
+        factories.put(HQDM.CLASS_OF_ORDINARY_BIOLOGICAL_OBJECT, ClassServices::createClassOfOrdinaryBiologicalObject);
+        factories.put(HQDM.CLASS_OF_ORDINARY_FUNCTIONAL_OBJECT, ClassServices::createClassOfOrdinaryFunctionalObject);
+        factories.put(HQDM.CLASS_OF_ORDINARY_PHYSICAL_OBJECT, ClassServices::createClassOfOrdinaryPhysicalObject);
+        factories.put(HQDM.CLASS_OF_ORGANIZATION, ClassServices::createClassOfOrganization);
+        factories.put(HQDM.CLASS_OF_ORGANIZATION_COMPONENT, ClassServices::createClassOfOrganizationComponent);
+        factories.put(HQDM.CLASS_OF_PARTICIPANT, ClassServices::createClassOfParticipant);
+        factories.put(HQDM.CLASS_OF_PARTY, ClassServices::createClassOfParty);
+        factories.put(HQDM.CLASS_OF_PERIOD_OF_TIME, ClassServices::createClassOfPeriodOfTime);
+        factories.put(HQDM.CLASS_OF_PERSON, ClassServices::createClassOfPerson);
+        factories.put(HQDM.CLASS_OF_PERSON_IN_POSITION, ClassServices::createClassOfPersonInPosition);
+        factories.put(HQDM.CLASS_OF_PHYSICAL_OBJECT, ClassServices::createClassOfPhysicalObject);
+        factories.put(HQDM.CLASS_OF_PHYSICAL_PROPERTY, ClassServices::createClassOfPhysicalProperty);
+        factories.put(HQDM.CLASS_OF_PHYSICAL_QUANTITY, ClassServices::createClassOfPhysicalQuantity);
+        factories.put(HQDM.CLASS_OF_POINT_IN_TIME, ClassServices::createClassOfPointInTime);
+        factories.put(HQDM.CLASS_OF_POSITION, ClassServices::createClassOfPosition);
+        factories.put(HQDM.CLASS_OF_POSSIBLE_WORLD, ClassServices::createClassOfPossibleWorld);
+        factories.put(HQDM.CLASS_OF_REACHING_AGREEMENT, ClassServices::createClassOfReachingAgreement);
+        factories.put(HQDM.CLASS_OF_RELATIONSHIP, ClassServices::createClassOfRelationship);
+        factories.put(HQDM.CLASS_OF_REPRESENTATION, ClassServices::createClassOfRepresentation);
+        factories.put(HQDM.CLASS_OF_SALES_PRODUCT_INSTANCE, ClassServices::createClassOfSalesProductInstance);
+        factories.put(HQDM.CLASS_OF_SIGN, ClassServices::createClassOfSign);
+        factories.put(HQDM.CLASS_OF_SOCIALLY_CONSTRUCTED_ACTIVITY,
+                ClassServices::createClassOfSociallyConstructedActivity);
+        factories.put(HQDM.CLASS_OF_SOCIALLY_CONSTRUCTED_OBJECT, ClassServices::createClassOfSociallyConstructedObject);
+        factories.put(HQDM.CLASS_OF_SPATIO_TEMPORAL_EXTENT, ClassServices::createClassOfSpatioTemporalExtent);
+        factories.put(HQDM.CLASS_OF_STATE, ClassServices::createClassOfState);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ACTIVITY, ClassServices::createClassOfStateOfActivity);
+        factories.put(HQDM.CLASS_OF_STATE_OF_AMOUNT_OF_MONEY, ClassServices::createClassOfStateOfAmountOfMoney);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ASSOCIATION, ClassServices::createClassOfStateOfAssociation);
+        factories.put(HQDM.CLASS_OF_STATE_OF_BIOLOGICAL_OBJECT, ClassServices::createClassOfStateOfBiologicalObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_BIOLOGICAL_SYSTEM, ClassServices::createClassOfStateOfBiologicalSystem);
+        factories.put(HQDM.CLASS_OF_STATE_OF_BIOLOGICAL_SYSTEM_COMPONENT,
+                ClassServices::createClassOfStateOfBiologicalSystemComponent);
+        factories.put(HQDM.CLASS_OF_STATE_OF_FUNCTIONAL_OBJECT, ClassServices::createClassOfStateOfFunctionalObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_FUNCTIONAL_SYSTEM, ClassServices::createClassOfStateOfFunctionalSystem);
+        factories.put(HQDM.CLASS_OF_STATE_OF_FUNCTIONAL_SYSTEM_COMPONENT,
+                ClassServices::createClassOfStateOfFunctionalSystemComponent);
+        factories.put(HQDM.CLASS_OF_STATE_OF_INTENTIONALLY_CONSTRUCTED_OBJECT,
+                ClassServices::createClassOfStateOfIntentionallyConstructedObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ORDINARY_BIOLOGICAL_OBJECT,
+                ClassServices::createClassOfStateOfOrdinaryBiologicalObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ORDINARY_FUNCTIONAL_OBJECT,
+                ClassServices::createClassOfStateOfOrdinaryFunctionalObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ORDINARY_PHYSICAL_OBJECT,
+                ClassServices::createClassOfStateOfOrdinaryPhysicalObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ORGANIZATION, ClassServices::createClassOfStateOfOrganization);
+        factories.put(HQDM.CLASS_OF_STATE_OF_ORGANIZATION_COMPONENT,
+                ClassServices::createClassOfStateOfOrganizationComponent);
+        factories.put(HQDM.CLASS_OF_STATE_OF_PARTY, ClassServices::createClassOfStateOfParty);
+        factories.put(HQDM.CLASS_OF_STATE_OF_PERSON, ClassServices::createClassOfStateOfPerson);
+        factories.put(HQDM.CLASS_OF_STATE_OF_PHYSICAL_OBJECT, ClassServices::createClassOfStateOfPhysicalObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_POSITION, ClassServices::createClassOfStateOfPosition);
+        factories.put(HQDM.CLASS_OF_STATE_OF_SALES_PRODUCT_INSTANCE,
+                ClassServices::createClassOfStateOfSalesProductInstance);
+        factories.put(HQDM.CLASS_OF_STATE_OF_SIGN, ClassServices::createClassOfStateOfSign);
+        factories.put(HQDM.CLASS_OF_STATE_OF_SOCIALLY_CONSTRUCTED_ACTIVITY,
+                ClassServices::createClassOfStateOfSociallyConstructedActivity);
+        factories.put(HQDM.CLASS_OF_STATE_OF_SOCIALLY_CONSTRUCTED_OBJECT,
+                ClassServices::createClassOfStateOfSociallyConstructedObject);
+        factories.put(HQDM.CLASS_OF_STATE_OF_SYSTEM, ClassServices::createClassOfStateOfSystem);
+        factories.put(HQDM.CLASS_OF_STATE_OF_SYSTEM_COMPONENT, ClassServices::createClassOfStateOfSystemComponent);
+        factories.put(HQDM.CLASS_OF_SYSTEM, ClassServices::createClassOfSystem);
+        factories.put(HQDM.CLASS_OF_SYSTEM_COMPONENT, ClassServices::createClassOfSystemComponent);
+        factories.put(HQDM.COMPOSITION, RelationshipServices::createComposition);
+        factories.put(HQDM.CONTRACT_EXECUTION, SpatioTemporalExtentServices::createContractExecution);
+        factories.put(HQDM.CONTRACT_PROCESS, SpatioTemporalExtentServices::createContractProcess);
+        factories.put(HQDM.CURRENCY, SpatioTemporalExtentServices::createCurrency);
+        factories.put(HQDM.DEFINED_RELATIONSHIP, RelationshipServices::createDefinedRelationship);
+        factories.put(HQDM.DEFINITION, ClassServices::createDefinition);
+        factories.put(HQDM.DESCRIPTION, ClassServices::createDescription);
+        factories.put(HQDM.EMPLOYEE, SpatioTemporalExtentServices::createEmployee);
+        factories.put(HQDM.EMPLOYER, SpatioTemporalExtentServices::createEmployer);
+        factories.put(HQDM.EMPLOYMENT, SpatioTemporalExtentServices::createEmployment);
+        factories.put(HQDM.ENDING_OF_OWNERSHIP, SpatioTemporalExtentServices::createEndingOfOwnership);
+        factories.put(HQDM.ENUMERATED_CLASS, ClassServices::createEnumeratedClass);
+        factories.put(HQDM.EVENT, SpatioTemporalExtentServices::createEvent);
+        factories.put(HQDM.EXCHANGE_OF_GOODS_AND_MONEY, SpatioTemporalExtentServices::createExchangeOfGoodsAndMoney);
+        factories.put(HQDM.FUNCTION_, RelationshipServices::createFunction);
+        factories.put(HQDM.FUNCTIONAL_OBJECT, SpatioTemporalExtentServices::createFunctionalObject);
+        factories.put(HQDM.FUNCTIONAL_SYSTEM, SpatioTemporalExtentServices::createFunctionalSystem);
+        factories.put(HQDM.FUNCTIONAL_SYSTEM_COMPONENT, SpatioTemporalExtentServices::createFunctionalSystemComponent);
+        factories.put(HQDM.IDENTIFICATION, ClassServices::createIdentification);
+        factories.put(HQDM.IDENTIFICATION_OF_PHYSICAL_QUANTITY,
+                SpatioTemporalExtentServices::createIdentificationOfPhysicalQuantity);
+        factories.put(HQDM.INDIVIDUAL, SpatioTemporalExtentServices::createIndividual);
+        factories.put(HQDM.IN_PLACE_BIOLOGICAL_COMPONENT,
+                SpatioTemporalExtentServices::createInPlaceBiologicalComponent);
+        factories.put(HQDM.INSTALLED_FUNCTIONAL_SYSTEM_COMPONENT,
+                SpatioTemporalExtentServices::createInstalledFunctionalSystemComponent);
+        factories.put(HQDM.INSTALLED_OBJECT, SpatioTemporalExtentServices::createInstalledObject);
+        factories.put(HQDM.INTENTIONALLY_CONSTRUCTED_OBJECT,
+                SpatioTemporalExtentServices::createIntentionallyConstructedObject);
+        factories.put(HQDM.KIND_OF_ACTIVITY, ClassServices::createKindOfActivity);
+        factories.put(HQDM.KIND_OF_ASSOCIATION, ClassServices::createKindOfAssociation);
+        factories.put(HQDM.KIND_OF_BIOLOGICAL_OBJECT, ClassServices::createKindOfBiologicalObject);
+        factories.put(HQDM.KIND_OF_BIOLOGICAL_SYSTEM, ClassServices::createKindOfBiologicalSystem);
+        factories.put(HQDM.KIND_OF_BIOLOGICAL_SYSTEM_COMPONENT, ClassServices::createKindOfBiologicalSystemComponent);
+        factories.put(HQDM.KIND_OF_FUNCTIONAL_OBJECT, ClassServices::createKindOfFunctionalObject);
+        factories.put(HQDM.KIND_OF_FUNCTIONAL_SYSTEM, ClassServices::createKindOfFunctionalSystem);
+        factories.put(HQDM.KIND_OF_FUNCTIONAL_SYSTEM_COMPONENT, ClassServices::createKindOfFunctionalSystemComponent);
+        factories.put(HQDM.KIND_OF_INDIVIDUAL, ClassServices::createKindOfIndividual);
+        factories.put(HQDM.KIND_OF_INTENTIONALLY_CONSTRUCTED_OBJECT,
+                ClassServices::createKindOfIntentionallyConstructedObject);
+        factories.put(HQDM.KIND_OF_ORDINARY_BIOLOGICAL_OBJECT, ClassServices::createKindOfOrdinaryBiologicalObject);
+        factories.put(HQDM.KIND_OF_ORDINARY_FUNCTIONAL_OBJECT, ClassServices::createKindOfOrdinaryFunctionalObject);
+        factories.put(HQDM.KIND_OF_ORDINARY_PHYSICAL_OBJECT, ClassServices::createKindOfOrdinaryPhysicalObject);
+        factories.put(HQDM.KIND_OF_ORGANIZATION, ClassServices::createKindOfOrganization);
+        factories.put(HQDM.KIND_OF_ORGANIZATION_COMPONENT, ClassServices::createKindOfOrganizationComponent);
+        factories.put(HQDM.KIND_OF_PARTY, ClassServices::createKindOfParty);
+        factories.put(HQDM.KIND_OF_PERSON, ClassServices::createKindOfPerson);
+        factories.put(HQDM.KIND_OF_PHYSICAL_OBJECT, ClassServices::createKindOfPhysicalObject);
+        factories.put(HQDM.KIND_OF_PHYSICAL_PROPERTY, ClassServices::createKindOfPhysicalProperty);
+        factories.put(HQDM.KIND_OF_PHYSICAL_QUANTITY, ClassServices::createKindOfPhysicalQuantity);
+        factories.put(HQDM.KIND_OF_POSITION, ClassServices::createKindOfPosition);
+        factories.put(HQDM.KIND_OF_RELATIONSHIP_WITH_RESTRICTION,
+                ClassServices::createKindOfRelationshipWithRestriction);
+        factories.put(HQDM.KIND_OF_RELATIONSHIP_WITH_SIGNATURE, ClassServices::createKindOfRelationshipWithSignature);
+        factories.put(HQDM.KIND_OF_SOCIALLY_CONSTRUCTED_OBJECT, ClassServices::createKindOfSociallyConstructedObject);
+        factories.put(HQDM.KIND_OF_SYSTEM, ClassServices::createKindOfSystem);
+        factories.put(HQDM.KIND_OF_SYSTEM_COMPONENT, ClassServices::createKindOfSystemComponent);
+        factories.put(HQDM.LANGUAGE_COMMUNITY, SpatioTemporalExtentServices::createLanguageCommunity);
+        factories.put(HQDM.MONEY_ASSET, SpatioTemporalExtentServices::createMoneyAsset);
+        factories.put(HQDM.OFFER, SpatioTemporalExtentServices::createOffer);
+        factories.put(HQDM.OFFER_AND_ACCEPTANCE_FOR_GOODS,
+                SpatioTemporalExtentServices::createOfferAndAcceptanceForGoods);
+        factories.put(HQDM.OFFER_FOR_GOODS, SpatioTemporalExtentServices::createOfferForGoods);
+        factories.put(HQDM.OFFERING, SpatioTemporalExtentServices::createOffering);
+        factories.put(HQDM.ORDINARY_BIOLOGICAL_OBJECT, SpatioTemporalExtentServices::createOrdinaryBiologicalObject);
+        factories.put(HQDM.ORDINARY_FUNCTIONAL_OBJECT, SpatioTemporalExtentServices::createOrdinaryFunctionalObject);
+        factories.put(HQDM.ORDINARY_PHYSICAL_OBJECT, SpatioTemporalExtentServices::createOrdinaryPhysicalObject);
+        factories.put(HQDM.ORGANIZATION, SpatioTemporalExtentServices::createOrganization);
+        factories.put(HQDM.ORGANIZATION_COMPONENT, SpatioTemporalExtentServices::createOrganizationComponent);
+        factories.put(HQDM.OWNER, SpatioTemporalExtentServices::createOwner);
+        factories.put(HQDM.OWNERSHIP, SpatioTemporalExtentServices::createOwnership);
+        factories.put(HQDM.PARTICIPANT, SpatioTemporalExtentServices::createParticipant);
+        factories.put(HQDM.PARTY, SpatioTemporalExtentServices::createParty);
+        factories.put(HQDM.PATTERN, ClassServices::createPattern);
+        factories.put(HQDM.PERIOD_OF_TIME, SpatioTemporalExtentServices::createPeriodOfTime);
+        factories.put(HQDM.PERSON, SpatioTemporalExtentServices::createPerson);
+        factories.put(HQDM.PERSON_IN_POSITION, SpatioTemporalExtentServices::createPersonInPosition);
+        factories.put(HQDM.PHYSICAL_OBJECT, SpatioTemporalExtentServices::createPhysicalObject);
+        factories.put(HQDM.PHYSICAL_PROPERTY, SpatioTemporalExtentServices::createPhysicalProperty);
+        factories.put(HQDM.PHYSICAL_PROPERTY_RANGE, SpatioTemporalExtentServices::createPhysicalPropertyRange);
+        factories.put(HQDM.PHYSICAL_QUANTITY, SpatioTemporalExtentServices::createPhysicalQuantity);
+        factories.put(HQDM.PHYSICAL_QUANTITY_RANGE, SpatioTemporalExtentServices::createPhysicalQuantityRange);
+        factories.put(HQDM.PLAN, SpatioTemporalExtentServices::createPlan);
+        factories.put(HQDM.POINT_IN_TIME, SpatioTemporalExtentServices::createPointInTime);
+        factories.put(HQDM.POSITION, SpatioTemporalExtentServices::createPosition);
+        factories.put(HQDM.POSSIBLE_WORLD, SpatioTemporalExtentServices::createPossibleWorld);
+        factories.put(HQDM.PRICE, SpatioTemporalExtentServices::createPrice);
+        factories.put(HQDM.PRODUCT_BRAND, SpatioTemporalExtentServices::createProductBrand);
+        factories.put(HQDM.PRODUCT_OFFERING, SpatioTemporalExtentServices::createProductOffering);
+        factories.put(HQDM.REACHING_AGREEMENT, SpatioTemporalExtentServices::createReachingAgreement);
+        factories.put(HQDM.RECOGNIZING_LANGUAGE_COMMUNITY,
+                SpatioTemporalExtentServices::createRecognizingLanguageCommunity);
+        factories.put(HQDM.RELATIONSHIP, RelationshipServices::createRelationship);
+        factories.put(HQDM.REPRESENTATION_BY_PATTERN, ClassServices::createRepresentationByPattern);
+        factories.put(HQDM.REPRESENTATION_BY_SIGN, SpatioTemporalExtentServices::createRepresentationBySign);
+        factories.put(HQDM.REQUIREMENT, SpatioTemporalExtentServices::createRequirement);
+        factories.put(HQDM.REQUIREMENT_SPECIFICATION, SpatioTemporalExtentServices::createRequirementSpecification);
+        factories.put(HQDM.ROLE, ClassServices::createRole);
+        factories.put(HQDM.SALE_OF_GOODS, SpatioTemporalExtentServices::createSaleOfGoods);
+        factories.put(HQDM.SALES_PRODUCT, SpatioTemporalExtentServices::createSalesProduct);
+        factories.put(HQDM.SALES_PRODUCT_INSTANCE, SpatioTemporalExtentServices::createSalesProductInstance);
+        factories.put(HQDM.SALES_PRODUCT_VERSION, SpatioTemporalExtentServices::createSalesProductVersion);
+        factories.put(HQDM.SCALE, RelationshipServices::createScale);
+        factories.put(HQDM.SIGN, SpatioTemporalExtentServices::createSign);
+        factories.put(HQDM.SOCIALLY_CONSTRUCTED_ACTIVITY,
+                SpatioTemporalExtentServices::createSociallyConstructedActivity);
+        factories.put(HQDM.SOCIALLY_CONSTRUCTED_OBJECT, SpatioTemporalExtentServices::createSociallyConstructedObject);
+        factories.put(HQDM.SPATIO_TEMPORAL_EXTENT, SpatioTemporalExtentServices::createSpatioTemporalExtent);
+        factories.put(HQDM.SPECIALIZATION, RelationshipServices::createSpecialization);
+        factories.put(HQDM.STATE, SpatioTemporalExtentServices::createState);
+        factories.put(HQDM.STATE_OF_ACTIVITY, SpatioTemporalExtentServices::createStateOfActivity);
+        factories.put(HQDM.STATE_OF_AMOUNT_OF_MONEY, SpatioTemporalExtentServices::createStateOfAmountOfMoney);
+        factories.put(HQDM.STATE_OF_ASSOCIATION, SpatioTemporalExtentServices::createStateOfAssociation);
+        factories.put(HQDM.STATE_OF_BIOLOGICAL_OBJECT, SpatioTemporalExtentServices::createStateOfBiologicalObject);
+        factories.put(HQDM.STATE_OF_BIOLOGICAL_SYSTEM, SpatioTemporalExtentServices::createStateOfBiologicalSystem);
+        factories.put(HQDM.STATE_OF_BIOLOGICAL_SYSTEM_COMPONENT,
+                SpatioTemporalExtentServices::createStateOfBiologicalSystemComponent);
+        factories.put(HQDM.STATE_OF_FUNCTIONAL_OBJECT, SpatioTemporalExtentServices::createStateOfFunctionalObject);
+        factories.put(HQDM.STATE_OF_FUNCTIONAL_SYSTEM, SpatioTemporalExtentServices::createStateOfFunctionalSystem);
+        factories.put(HQDM.STATE_OF_FUNCTIONAL_SYSTEM_COMPONENT,
+                SpatioTemporalExtentServices::createStateOfFunctionalSystemComponent);
+        factories.put(HQDM.STATE_OF_INTENTIONALLY_CONSTRUCTED_OBJECT,
+                SpatioTemporalExtentServices::createStateOfIntentionallyConstructedObject);
+        factories.put(HQDM.STATE_OF_LANGUAGE_COMMUNITY, SpatioTemporalExtentServices::createStateOfLanguageCommunity);
+        factories.put(HQDM.STATE_OF_ORDINARY_BIOLOGICAL_OBJECT,
+                SpatioTemporalExtentServices::createStateOfOrdinaryBiologicalObject);
+        factories.put(HQDM.STATE_OF_ORDINARY_FUNCTIONAL_OBJECT,
+                SpatioTemporalExtentServices::createStateOfOrdinaryFunctionalObject);
+        factories.put(HQDM.STATE_OF_ORDINARY_PHYSICAL_OBJECT,
+                SpatioTemporalExtentServices::createStateOfOrdinaryPhysicalObject);
+        factories.put(HQDM.STATE_OF_ORGANIZATION, SpatioTemporalExtentServices::createStateOfOrganization);
+        factories.put(HQDM.STATE_OF_ORGANIZATION_COMPONENT,
+                SpatioTemporalExtentServices::createStateOfOrganizationComponent);
+        factories.put(HQDM.STATE_OF_PARTY, SpatioTemporalExtentServices::createStateOfParty);
+        factories.put(HQDM.STATE_OF_PERSON, SpatioTemporalExtentServices::createStateOfPerson);
+        factories.put(HQDM.STATE_OF_PHYSICAL_OBJECT, SpatioTemporalExtentServices::createStateOfPhysicalObject);
+        factories.put(HQDM.STATE_OF_POSITION, SpatioTemporalExtentServices::createStateOfPosition);
+        factories.put(HQDM.STATE_OF_SALES_PRODUCT_INSTANCE,
+                SpatioTemporalExtentServices::createStateOfSalesProductInstance);
+        factories.put(HQDM.STATE_OF_SIGN, SpatioTemporalExtentServices::createStateOfSign);
+        factories.put(HQDM.STATE_OF_SOCIALLY_CONSTRUCTED_ACTIVITY,
+                SpatioTemporalExtentServices::createStateOfSociallyConstructedActivity);
+        factories.put(HQDM.STATE_OF_SOCIALLY_CONSTRUCTED_OBJECT,
+                SpatioTemporalExtentServices::createStateOfSociallyConstructedObject);
+        factories.put(HQDM.STATE_OF_SYSTEM, SpatioTemporalExtentServices::createStateOfSystem);
+        factories.put(HQDM.STATE_OF_SYSTEM_COMPONENT, SpatioTemporalExtentServices::createStateOfSystemComponent);
+        factories.put(HQDM.SYSTEM, SpatioTemporalExtentServices::createSystem);
+        factories.put(HQDM.SYSTEM_COMPONENT, SpatioTemporalExtentServices::createSystemComponent);
+        factories.put(HQDM.TEMPORAL_COMPOSITION, RelationshipServices::createTemporalComposition);
+        factories.put(HQDM.THING, SpatioTemporalExtentServices::createThing);
+        factories.put(HQDM.TRANSFEREE, SpatioTemporalExtentServices::createTransferee);
+        factories.put(HQDM.TRANSFER_OF_OWNERSHIP, SpatioTemporalExtentServices::createTransferOfOwnership);
+        factories.put(HQDM.TRANSFER_OF_OWNERSHIP_OF_MONEY,
+                SpatioTemporalExtentServices::createTransferOfOwnershipOfMoney);
+        factories.put(HQDM.TRANSFEROR, SpatioTemporalExtentServices::createTransferor);
+        factories.put(HQDM.UNIT_OF_MEASURE, RelationshipServices::createUnitOfMeasure);
+        typeFactories = Map.copyOf(factories);
+    }
+
+    // Factories for types that extensions create without registering a class for them, found the
+    // first time each type is seen.
+    private static final Map<IRI, Function<IRI, Thing>> resolvedTypeFactories = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link ExtensionService}s and the types that they register. This is loaded the first time an
+     * extension type is needed, and class initialization guarantees that it happens exactly once.
+     */
+    private static final class Extensions {
+
+        private static final List<ExtensionService> services;
+
+        private static final Map<IRI, java.lang.Class<? extends Thing>> classes;
+
+        private static final Map<IRI, Function<IRI, Thing>> factories;
+
+        static {
+            final List<ExtensionService> loadedServices = new ArrayList<>();
+            final Map<IRI, java.lang.Class<? extends Thing>> classMap = new HashMap<>(iriToClassMap);
+            final Map<IRI, Function<IRI, Thing>> factoryMap = new HashMap<>();
+
+            for (final ExtensionServiceProvider provider : ServiceLoader.load(ExtensionServiceProvider.class)) {
+                final Set<IRI> knownTypes = new HashSet<>(classMap.keySet());
+                final ExtensionService service = provider.createService(classMap);
+                loadedServices.add(service);
+
+                // Register a factory for each type that this provider added.
+                for (final IRI type : classMap.keySet()) {
+                    if (!knownTypes.contains(type) && !typeFactories.containsKey(type)) {
+                        final String typeName = type.getResource();
+                        factoryMap.putIfAbsent(type, id -> orThing(service.createEntity(typeName, id), id));
+                    }
+                }
+            }
+            services = List.copyOf(loadedServices);
+            classes = Map.copyOf(classMap);
+            factories = Map.copyOf(factoryMap);
+        }
+    }
+
     /**
      * Create a {@link Thing} of the specified type.
      *
-     * @param typeName The HQDM type name, e.g. spatio_temporal_extent
-     * @param iri      The {@link IRI} of the object.
+     * @param type The HQDM type IRI, e.g. {@link HQDM#SPATIO_TEMPORAL_EXTENT}.
+     * @param iri  The {@link IRI} of the object.
      * @return A {@link Thing}.
-     * @throws HqdmException If the typeName is invalid.
      */
-    private static Thing mapToThing(final String typeName, final IRI iri) {
-
-        switch (typeName) {
-            case "abstract_object":
-                return SpatioTemporalExtentServices.createAbstractObject(iri);
-            case "acceptance_of_offer":
-                return SpatioTemporalExtentServices.createAcceptanceOfOffer(iri);
-            case "acceptance_of_offer_for_goods":
-                return SpatioTemporalExtentServices.createAcceptanceOfOfferForGoods(iri);
-            case "activity":
-                return SpatioTemporalExtentServices.createActivity(iri);
-            case "aggregation":
-                return RelationshipServices.createAggregation(iri);
-            case "agree_contract":
-                return SpatioTemporalExtentServices.createAgreeContract(iri);
-            case "agreement_execution":
-                return SpatioTemporalExtentServices.createAgreementExecution(iri);
-            case "agreement_process":
-                return SpatioTemporalExtentServices.createAgreementProcess(iri);
-            case "amount_of_money":
-                return SpatioTemporalExtentServices.createAmountOfMoney(iri);
-            case "asset":
-                return SpatioTemporalExtentServices.createAsset(iri);
-            case "association":
-                return SpatioTemporalExtentServices.createAssociation(iri);
-            case "beginning_of_ownership":
-                return SpatioTemporalExtentServices.createBeginningOfOwnership(iri);
-            case "biological_object":
-                return SpatioTemporalExtentServices.createBiologicalObject(iri);
-            case "biological_system":
-                return SpatioTemporalExtentServices.createBiologicalSystem(iri);
-            case "biological_system_component":
-                return SpatioTemporalExtentServices.createBiologicalSystemComponent(iri);
-            case "class":
-                return ClassServices.createClass(iri);
-            case "classification":
-                return RelationshipServices.createClassification(iri);
-            case "class_of_abstract_object":
-                return ClassServices.createClassOfAbstractObject(iri);
-            case "class_of_activity":
-                return ClassServices.createClassOfActivity(iri);
-            case "class_of_agree_contract":
-                return ClassServices.createClassOfAgreeContract(iri);
-            case "class_of_agreement_execution":
-                return ClassServices.createClassOfAgreementExecution(iri);
-            case "class_of_agreement_process":
-                return ClassServices.createClassOfAgreementProcess(iri);
-            case "class_of_amount_of_money":
-                return ClassServices.createClassOfAmountOfMoney(iri);
-            case "class_of_association":
-                return ClassServices.createClassOfAssociation(iri);
-            case "class_of_biological_object":
-                return ClassServices.createClassOfBiologicalObject(iri);
-            case "class_of_biological_system":
-                return ClassServices.createClassOfBiologicalSystem(iri);
-            case "class_of_biological_system_component":
-                return ClassServices.createClassOfBiologicalSystemComponent(iri);
-            case "class_of_class":
-                return ClassServices.createClassOfClass(iri);
-            case "class_of_class_of_spatio_temporal_extent":
-                return ClassServices.createClassOfClassOfSpatioTemporalExtent(iri);
-            case "class_of_contract_execution":
-                return ClassServices.createClassOfContractExecution(iri);
-            case "class_of_contract_process":
-                return ClassServices.createClassOfContractProcess(iri);
-            case "class_of_event":
-                return ClassServices.createClassOfEvent(iri);
-            case "class_of_functional_object":
-                return ClassServices.createClassOfFunctionalObject(iri);
-            case "class_of_functional_system":
-                return ClassServices.createClassOfFunctionalSystem(iri);
-            case "class_of_functional_system_component":
-                return ClassServices.createClassOfFunctionalSystemComponent(iri);
-            case "class_of_individual":
-                return ClassServices.createClassOfIndividual(iri);
-            case "class_of_in_place_biological_component":
-                return ClassServices.createClassOfInPlaceBiologicalComponent(iri);
-            case "class_of_installed_functional_system_component":
-                return ClassServices.createClassOfInstalledFunctionalSystemComponent(iri);
-            case "class_of_installed_object":
-                return ClassServices.createClassOfInstalledObject(iri);
-            case "class_of_intentionally_constructed_object":
-                return ClassServices.createClassOfIntentionallyConstructedObject(iri);
-            case "class_of_offer":
-                return ClassServices.createClassOfOffer(iri);
-            case "class_of_ordinary_biological_object":
-                return ClassServices.createClassOfOrdinaryBiologicalObject(iri);
-            case "class_of_ordinary_functional_object":
-                return ClassServices.createClassOfOrdinaryFunctionalObject(iri);
-            case "class_of_ordinary_physical_object":
-                return ClassServices.createClassOfOrdinaryPhysicalObject(iri);
-            case "class_of_organization":
-                return ClassServices.createClassOfOrganization(iri);
-            case "class_of_organization_component":
-                return ClassServices.createClassOfOrganizationComponent(iri);
-            case "class_of_participant":
-                return ClassServices.createClassOfParticipant(iri);
-            case "class_of_party":
-                return ClassServices.createClassOfParty(iri);
-            case "class_of_period_of_time":
-                return ClassServices.createClassOfPeriodOfTime(iri);
-            case "class_of_person":
-                return ClassServices.createClassOfPerson(iri);
-            case "class_of_person_in_position":
-                return ClassServices.createClassOfPersonInPosition(iri);
-            case "class_of_physical_object":
-                return ClassServices.createClassOfPhysicalObject(iri);
-            case "class_of_physical_property":
-                return ClassServices.createClassOfPhysicalProperty(iri);
-            case "class_of_physical_quantity":
-                return ClassServices.createClassOfPhysicalQuantity(iri);
-            case "class_of_point_in_time":
-                return ClassServices.createClassOfPointInTime(iri);
-            case "class_of_position":
-                return ClassServices.createClassOfPosition(iri);
-            case "class_of_possible_world":
-                return ClassServices.createClassOfPossibleWorld(iri);
-            case "class_of_reaching_agreement":
-                return ClassServices.createClassOfReachingAgreement(iri);
-            case "class_of_relationship":
-                return ClassServices.createClassOfRelationship(iri);
-            case "class_of_representation":
-                return ClassServices.createClassOfRepresentation(iri);
-            case "class_of_sales_product_instance":
-                return ClassServices.createClassOfSalesProductInstance(iri);
-            case "class_of_sign":
-                return ClassServices.createClassOfSign(iri);
-            case "class_of_socially_constructed_activity":
-                return ClassServices.createClassOfSociallyConstructedActivity(iri);
-            case "class_of_socially_constructed_object":
-                return ClassServices.createClassOfSociallyConstructedObject(iri);
-            case "class_of_spatio_temporal_extent":
-                return ClassServices.createClassOfSpatioTemporalExtent(iri);
-            case "class_of_state":
-                return ClassServices.createClassOfState(iri);
-            case "class_of_state_of_activity":
-                return ClassServices.createClassOfStateOfActivity(iri);
-            case "class_of_state_of_amount_of_money":
-                return ClassServices.createClassOfStateOfAmountOfMoney(iri);
-            case "class_of_state_of_association":
-                return ClassServices.createClassOfStateOfAssociation(iri);
-            case "class_of_state_of_biological_object":
-                return ClassServices.createClassOfStateOfBiologicalObject(iri);
-            case "class_of_state_of_biological_system":
-                return ClassServices.createClassOfStateOfBiologicalSystem(iri);
-            case "class_of_state_of_biological_system_component":
-                return ClassServices.createClassOfStateOfBiologicalSystemComponent(iri);
-            case "class_of_state_of_functional_object":
-                return ClassServices.createClassOfStateOfFunctionalObject(iri);
-            case "class_of_state_of_functional_system":
-                return ClassServices.createClassOfStateOfFunctionalSystem(iri);
-            case "class_of_state_of_functional_system_component":
-                return ClassServices.createClassOfStateOfFunctionalSystemComponent(iri);
-            case "class_of_state_of_intentionally_constructed_object":
-                return ClassServices.createClassOfStateOfIntentionallyConstructedObject(iri);
-            case "class_of_state_of_ordinary_biological_object":
-                return ClassServices.createClassOfStateOfOrdinaryBiologicalObject(iri);
-            case "class_of_state_of_ordinary_functional_object":
-                return ClassServices.createClassOfStateOfOrdinaryFunctionalObject(iri);
-            case "class_of_state_of_ordinary_physical_object":
-                return ClassServices.createClassOfStateOfOrdinaryPhysicalObject(iri);
-            case "class_of_state_of_organization":
-                return ClassServices.createClassOfStateOfOrganization(iri);
-            case "class_of_state_of_organization_component":
-                return ClassServices.createClassOfStateOfOrganizationComponent(iri);
-            case "class_of_state_of_party":
-                return ClassServices.createClassOfStateOfParty(iri);
-            case "class_of_state_of_person":
-                return ClassServices.createClassOfStateOfPerson(iri);
-            case "class_of_state_of_physical_object":
-                return ClassServices.createClassOfStateOfPhysicalObject(iri);
-            case "class_of_state_of_position":
-                return ClassServices.createClassOfStateOfPosition(iri);
-            case "class_of_state_of_sales_product_instance":
-                return ClassServices.createClassOfStateOfSalesProductInstance(iri);
-            case "class_of_state_of_sign":
-                return ClassServices.createClassOfStateOfSign(iri);
-            case "class_of_state_of_socially_constructed_activity":
-                return ClassServices.createClassOfStateOfSociallyConstructedActivity(iri);
-            case "class_of_state_of_socially_constructed_object":
-                return ClassServices.createClassOfStateOfSociallyConstructedObject(iri);
-            case "class_of_state_of_system":
-                return ClassServices.createClassOfStateOfSystem(iri);
-            case "class_of_state_of_system_component":
-                return ClassServices.createClassOfStateOfSystemComponent(iri);
-            case "class_of_system":
-                return ClassServices.createClassOfSystem(iri);
-            case "class_of_system_component":
-                return ClassServices.createClassOfSystemComponent(iri);
-            case "composition":
-                return RelationshipServices.createComposition(iri);
-            case "contract_execution":
-                return SpatioTemporalExtentServices.createContractExecution(iri);
-            case "contract_process":
-                return SpatioTemporalExtentServices.createContractProcess(iri);
-            case "currency":
-                return SpatioTemporalExtentServices.createCurrency(iri);
-            case "defined_relationship":
-                return RelationshipServices.createDefinedRelationship(iri);
-            case "definition":
-                return ClassServices.createDefinition(iri);
-            case "description":
-                return ClassServices.createDescription(iri);
-            case "employee":
-                return SpatioTemporalExtentServices.createEmployee(iri);
-            case "employer":
-                return SpatioTemporalExtentServices.createEmployer(iri);
-            case "employment":
-                return SpatioTemporalExtentServices.createEmployment(iri);
-            case "ending_of_ownership":
-                return SpatioTemporalExtentServices.createEndingOfOwnership(iri);
-            case "enumerated_class":
-                return ClassServices.createEnumeratedClass(iri);
-            case "event":
-                return SpatioTemporalExtentServices.createEvent(iri);
-            case "exchange_of_goods_and_money":
-                return SpatioTemporalExtentServices.createExchangeOfGoodsAndMoney(iri);
-            case "function_":
-                return RelationshipServices.createFunction(iri);
-            case "functional_object":
-                return SpatioTemporalExtentServices.createFunctionalObject(iri);
-            case "functional_system":
-                return SpatioTemporalExtentServices.createFunctionalSystem(iri);
-            case "functional_system_component":
-                return SpatioTemporalExtentServices.createFunctionalSystemComponent(iri);
-            case "identification":
-                return ClassServices.createIdentification(iri);
-            case "identification_of_physical_quantity":
-                return SpatioTemporalExtentServices.createIdentificationOfPhysicalQuantity(iri);
-            case "individual":
-                return SpatioTemporalExtentServices.createIndividual(iri);
-            case "in_place_biological_component":
-                return SpatioTemporalExtentServices.createInPlaceBiologicalComponent(iri);
-            case "installed_functional_system_component":
-                return SpatioTemporalExtentServices.createInstalledFunctionalSystemComponent(iri);
-            case "installed_object":
-                return SpatioTemporalExtentServices.createInstalledObject(iri);
-            case "intentionally_constructed_object":
-                return SpatioTemporalExtentServices.createIntentionallyConstructedObject(iri);
-            case "kind_of_activity":
-                return ClassServices.createKindOfActivity(iri);
-            case "kind_of_association":
-                return ClassServices.createKindOfAssociation(iri);
-            case "kind_of_biological_object":
-                return ClassServices.createKindOfBiologicalObject(iri);
-            case "kind_of_biological_system":
-                return ClassServices.createKindOfBiologicalSystem(iri);
-            case "kind_of_biological_system_component":
-                return ClassServices.createKindOfBiologicalSystemComponent(iri);
-            case "kind_of_functional_object":
-                return ClassServices.createKindOfFunctionalObject(iri);
-            case "kind_of_functional_system":
-                return ClassServices.createKindOfFunctionalSystem(iri);
-            case "kind_of_functional_system_component":
-                return ClassServices.createKindOfFunctionalSystemComponent(iri);
-            case "kind_of_individual":
-                return ClassServices.createKindOfIndividual(iri);
-            case "kind_of_intentionally_constructed_object":
-                return ClassServices.createKindOfIntentionallyConstructedObject(iri);
-            case "kind_of_ordinary_biological_object":
-                return ClassServices.createKindOfOrdinaryBiologicalObject(iri);
-            case "kind_of_ordinary_functional_object":
-                return ClassServices.createKindOfOrdinaryFunctionalObject(iri);
-            case "kind_of_ordinary_physical_object":
-                return ClassServices.createKindOfOrdinaryPhysicalObject(iri);
-            case "kind_of_organization":
-                return ClassServices.createKindOfOrganization(iri);
-            case "kind_of_organization_component":
-                return ClassServices.createKindOfOrganizationComponent(iri);
-            case "kind_of_party":
-                return ClassServices.createKindOfParty(iri);
-            case "kind_of_person":
-                return ClassServices.createKindOfPerson(iri);
-            case "kind_of_physical_object":
-                return ClassServices.createKindOfPhysicalObject(iri);
-            case "kind_of_physical_property":
-                return ClassServices.createKindOfPhysicalProperty(iri);
-            case "kind_of_physical_quantity":
-                return ClassServices.createKindOfPhysicalQuantity(iri);
-            case "kind_of_position":
-                return ClassServices.createKindOfPosition(iri);
-            case "kind_of_relationship_with_restriction":
-                return ClassServices.createKindOfRelationshipWithRestriction(iri);
-            case "kind_of_relationship_with_signature":
-                return ClassServices.createKindOfRelationshipWithSignature(iri);
-            case "kind_of_socially_constructed_object":
-                return ClassServices.createKindOfSociallyConstructedObject(iri);
-            case "kind_of_system":
-                return ClassServices.createKindOfSystem(iri);
-            case "kind_of_system_component":
-                return ClassServices.createKindOfSystemComponent(iri);
-            case "language_community":
-                return SpatioTemporalExtentServices.createLanguageCommunity(iri);
-            case "money_asset":
-                return SpatioTemporalExtentServices.createMoneyAsset(iri);
-            case "offer":
-                return SpatioTemporalExtentServices.createOffer(iri);
-            case "offer_and_acceptance_for_goods":
-                return SpatioTemporalExtentServices.createOfferAndAcceptanceForGoods(iri);
-            case "offer_for_goods":
-                return SpatioTemporalExtentServices.createOfferForGoods(iri);
-            case "offering":
-                return SpatioTemporalExtentServices.createOffering(iri);
-            case "ordinary_biological_object":
-                return SpatioTemporalExtentServices.createOrdinaryBiologicalObject(iri);
-            case "ordinary_functional_object":
-                return SpatioTemporalExtentServices.createOrdinaryFunctionalObject(iri);
-            case "ordinary_physical_object":
-                return SpatioTemporalExtentServices.createOrdinaryPhysicalObject(iri);
-            case "organization":
-                return SpatioTemporalExtentServices.createOrganization(iri);
-            case "organization_component":
-                return SpatioTemporalExtentServices.createOrganizationComponent(iri);
-            case "owner":
-                return SpatioTemporalExtentServices.createOwner(iri);
-            case "ownership":
-                return SpatioTemporalExtentServices.createOwnership(iri);
-            case "participant":
-                return SpatioTemporalExtentServices.createParticipant(iri);
-            case "party":
-                return SpatioTemporalExtentServices.createParty(iri);
-            case "pattern":
-                return ClassServices.createPattern(iri);
-            case "period_of_time":
-                return SpatioTemporalExtentServices.createPeriodOfTime(iri);
-            case "person":
-                return SpatioTemporalExtentServices.createPerson(iri);
-            case "person_in_position":
-                return SpatioTemporalExtentServices.createPersonInPosition(iri);
-            case "physical_object":
-                return SpatioTemporalExtentServices.createPhysicalObject(iri);
-            case "physical_property":
-                return SpatioTemporalExtentServices.createPhysicalProperty(iri);
-            case "physical_property_range":
-                return SpatioTemporalExtentServices.createPhysicalPropertyRange(iri);
-            case "physical_quantity":
-                return SpatioTemporalExtentServices.createPhysicalQuantity(iri);
-            case "physical_quantity_range":
-                return SpatioTemporalExtentServices.createPhysicalQuantityRange(iri);
-            case "plan":
-                return SpatioTemporalExtentServices.createPlan(iri);
-            case "point_in_time":
-                return SpatioTemporalExtentServices.createPointInTime(iri);
-            case "position":
-                return SpatioTemporalExtentServices.createPosition(iri);
-            case "possible_world":
-                return SpatioTemporalExtentServices.createPossibleWorld(iri);
-            case "price":
-                return SpatioTemporalExtentServices.createPrice(iri);
-            case "product_brand":
-                return SpatioTemporalExtentServices.createProductBrand(iri);
-            case "product_offering":
-                return SpatioTemporalExtentServices.createProductOffering(iri);
-            case "reaching_agreement":
-                return SpatioTemporalExtentServices.createReachingAgreement(iri);
-            case "recognizing_language_community":
-                return SpatioTemporalExtentServices.createRecognizingLanguageCommunity(iri);
-            case "relationship":
-                return RelationshipServices.createRelationship(iri);
-            case "representation_by_pattern":
-                return ClassServices.createRepresentationByPattern(iri);
-            case "representation_by_sign":
-                return SpatioTemporalExtentServices.createRepresentationBySign(iri);
-            case "requirement":
-                return SpatioTemporalExtentServices.createRequirement(iri);
-            case "requirement_specification":
-                return SpatioTemporalExtentServices.createRequirementSpecification(iri);
-            case "role":
-                return ClassServices.createRole(iri);
-            case "sale_of_goods":
-                return SpatioTemporalExtentServices.createSaleOfGoods(iri);
-            case "sales_product":
-                return SpatioTemporalExtentServices.createSalesProduct(iri);
-            case "sales_product_instance":
-                return SpatioTemporalExtentServices.createSalesProductInstance(iri);
-            case "sales_product_version":
-                return SpatioTemporalExtentServices.createSalesProductVersion(iri);
-            case "scale":
-                return RelationshipServices.createScale(iri);
-            case "sign":
-                return SpatioTemporalExtentServices.createSign(iri);
-            case "socially_constructed_activity":
-                return SpatioTemporalExtentServices.createSociallyConstructedActivity(iri);
-            case "socially_constructed_object":
-                return SpatioTemporalExtentServices.createSociallyConstructedObject(iri);
-            case "spatio_temporal_extent":
-                return SpatioTemporalExtentServices.createSpatioTemporalExtent(iri);
-            case "specialization":
-                return RelationshipServices.createSpecialization(iri);
-            case "state":
-                return SpatioTemporalExtentServices.createState(iri);
-            case "state_of_activity":
-                return SpatioTemporalExtentServices.createStateOfActivity(iri);
-            case "state_of_amount_of_money":
-                return SpatioTemporalExtentServices.createStateOfAmountOfMoney(iri);
-            case "state_of_association":
-                return SpatioTemporalExtentServices.createStateOfAssociation(iri);
-            case "state_of_biological_object":
-                return SpatioTemporalExtentServices.createStateOfBiologicalObject(iri);
-            case "state_of_biological_system":
-                return SpatioTemporalExtentServices.createStateOfBiologicalSystem(iri);
-            case "state_of_biological_system_component":
-                return SpatioTemporalExtentServices.createStateOfBiologicalSystemComponent(iri);
-            case "state_of_functional_object":
-                return SpatioTemporalExtentServices.createStateOfFunctionalObject(iri);
-            case "state_of_functional_system":
-                return SpatioTemporalExtentServices.createStateOfFunctionalSystem(iri);
-            case "state_of_functional_system_component":
-                return SpatioTemporalExtentServices.createStateOfFunctionalSystemComponent(iri);
-            case "state_of_intentionally_constructed_object":
-                return SpatioTemporalExtentServices.createStateOfIntentionallyConstructedObject(iri);
-            case "state_of_language_community":
-                return SpatioTemporalExtentServices.createStateOfLanguageCommunity(iri);
-            case "state_of_ordinary_biological_object":
-                return SpatioTemporalExtentServices.createStateOfOrdinaryBiologicalObject(iri);
-            case "state_of_ordinary_functional_object":
-                return SpatioTemporalExtentServices.createStateOfOrdinaryFunctionalObject(iri);
-            case "state_of_ordinary_physical_object":
-                return SpatioTemporalExtentServices.createStateOfOrdinaryPhysicalObject(iri);
-            case "state_of_organization":
-                return SpatioTemporalExtentServices.createStateOfOrganization(iri);
-            case "state_of_organization_component":
-                return SpatioTemporalExtentServices.createStateOfOrganizationComponent(iri);
-            case "state_of_party":
-                return SpatioTemporalExtentServices.createStateOfParty(iri);
-            case "state_of_person":
-                return SpatioTemporalExtentServices.createStateOfPerson(iri);
-            case "state_of_physical_object":
-                return SpatioTemporalExtentServices.createStateOfPhysicalObject(iri);
-            case "state_of_position":
-                return SpatioTemporalExtentServices.createStateOfPosition(iri);
-            case "state_of_sales_product_instance":
-                return SpatioTemporalExtentServices.createStateOfSalesProductInstance(iri);
-            case "state_of_sign":
-                return SpatioTemporalExtentServices.createStateOfSign(iri);
-            case "state_of_socially_constructed_activity":
-                return SpatioTemporalExtentServices.createStateOfSociallyConstructedActivity(iri);
-            case "state_of_socially_constructed_object":
-                return SpatioTemporalExtentServices.createStateOfSociallyConstructedObject(iri);
-            case "state_of_system":
-                return SpatioTemporalExtentServices.createStateOfSystem(iri);
-            case "state_of_system_component":
-                return SpatioTemporalExtentServices.createStateOfSystemComponent(iri);
-            case "system":
-                return SpatioTemporalExtentServices.createSystem(iri);
-            case "system_component":
-                return SpatioTemporalExtentServices.createSystemComponent(iri);
-            case "temporal_composition":
-                return RelationshipServices.createTemporalComposition(iri);
-            case "thing":
-                return SpatioTemporalExtentServices.createThing(iri);
-            case "transferee":
-                return SpatioTemporalExtentServices.createTransferee(iri);
-            case "transfer_of_ownership":
-                return SpatioTemporalExtentServices.createTransferOfOwnership(iri);
-            case "transfer_of_ownership_of_money":
-                return SpatioTemporalExtentServices.createTransferOfOwnershipOfMoney(iri);
-            case "transferor":
-                return SpatioTemporalExtentServices.createTransferor(iri);
-            case "unit_of_measure":
-                return RelationshipServices.createUnitOfMeasure(iri);
-            case "participant_in_activity_or_association":
-            default:
-                // Check whether any extensions can handle the type.
-                for (final var service : getExtensionServices()) {
-                    final Thing t = service.createEntity(typeName, iri);
-                    if (t != null) {
-                        return t;
-                    }
-                }
-                // We still don't recognise the type so just create a Thing to represent it.
-                return SpatioTemporalExtentServices.createThing(iri);
+    private static Thing mapToThing(final IRI type, final IRI iri) {
+        Function<IRI, Thing> factory = typeFactories.get(type);
+        if (factory == null) {
+            factory = Extensions.factories.get(type);
+        }
+        if (factory == null) {
+            factory = resolvedTypeFactories.get(type);
+        }
+        if (factory != null) {
+            return factory.apply(iri);
+        }
+        return resolveType(type, iri);
+    }
+
+    /**
+     * Find an {@link ExtensionService} that can create an unregistered type, and remember it for
+     * subsequent objects of the same type.
+     *
+     * @param type The type IRI.
+     * @param iri  The {@link IRI} of the object.
+     * @return A {@link Thing}.
+     */
+    private static Thing resolveType(final IRI type, final IRI iri) {
+        final String typeName = type.getResource();
+
+        // Check whether any extensions can handle the type.
+        for (final ExtensionService service : Extensions.services) {
+            final Thing t = service.createEntity(typeName, iri);
+            if (t != null) {
+                resolvedTypeFactories.putIfAbsent(type, id -> orThing(service.createEntity(typeName, id), id));
+                return t;
+            }
         }
+        // We still don't recognise the type so just create a Thing to represent it.
+        resolvedTypeFactories.putIfAbsent(type, SpatioTemporalExtentServices::createThing);
+        return SpatioTemporalExtentServices.createThing(iri);
+    }
+
+    /**
+     * Return the {@link Thing} created by an extension, or a plain {@link Thing} if it returned null.
+     *
+     * @param thing The {@link Thing} created by an extension, or null.
+     * @param iri   The {@link IRI} of the object.
+     * @return A {@link Thing}.
+     */
+    private static Thing orThing(final Thing thing, final IRI iri) {
+        return thing != null ? thing : SpatioTemporalExtentServices.createThing(iri);
     }
 }
@@ -30,6 +30,7 @@ public class HqdmIri extends IRI {
      */
     public HqdmIri(final IriBase base, final String resource) {
         super(base, resource);
+        canonical(this);
     }
 
     /**
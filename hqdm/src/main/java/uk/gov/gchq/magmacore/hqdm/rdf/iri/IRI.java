@@ -16,7 +16,9 @@ package uk.gov.gchq.magmacore.hqdm.rdf.iri;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import uk.gov.gchq.magmacore.hqdm.rdf.exception.IriException;
 
@@ -25,6 +27,18 @@ import uk.gov.gchq.magmacore.hqdm.rdf.exception.IriException;
  */
 public class IRI {
 
+    /**
+     * The maximum number of non-canonical IRIs held by {@link #of(String)} before the pool is
+     * cleared.
+     */
+    static final int MAX_POOL_SIZE = 100_000;
+
+    /** IRIs that are always shared, such as the {@link HQDM} and {@link RDFS} constants. */
+    private static final Map<String, IRI> CANONICAL = new ConcurrentHashMap<>();
+
+    /** Bounded pool of other IRIs that have already been validated. */
+    private static final Map<String, IRI> POOL = new ConcurrentHashMap<>();
+
     private String resource;
 
     private String iri;
@@ -49,12 +63,55 @@ public class IRI {
         fromString(iri);
     }
 
+    /**
+     * Get a shared, validated IRI for a string. Each distinct string is only validated once while it
+     * remains in the pool, and the {@link HQDM} and {@link RDFS} constants are returned for their own
+     * IRI strings, so this should be preferred to the constructor when converting many strings, e.g.
+     * query results.
+     *
+     * @param iri IRI string.
+     * @return The shared {@link IRI}.
+     * @throws IriException If the IRI string is malformed.
+     */
+    public static IRI of(final String iri) throws IriException {
+        final IRI canonical = CANONICAL.get(iri);
+        if (canonical != null) {
+            return canonical;
+        }
+        final IRI pooled = POOL.get(iri);
+        if (pooled != null) {
+            return pooled;
+        }
+
+        final IRI result = new IRI(iri);
+        if (POOL.size() >= MAX_POOL_SIZE) {
+            POOL.clear();
+        }
+        final IRI existing = POOL.putIfAbsent(iri, result);
+        return existing != null ? existing : result;
+    }
+
+    /**
+     * Register an IRI as the canonical instance returned by {@link #of(String)} for its string.
+     *
+     * @param <T> The {@link IRI} type.
+     * @param iri The {@link IRI} to register.
+     * @return The registered {@link IRI}.
+     */
+    static <T extends IRI> T canonical(final T iri) {
+        CANONICAL.putIfAbsent(iri.getIri(), iri);
+        return iri;
+    }
+
     /**
      * The name of the resource.
      *
      * @return Resource name.
      */
     public String getResource() {
+        if (resource == null) {
+            resource = iri.substring(resourceIndex(iri) + 1);
+        }
         return resource;
     }
 
@@ -83,16 +140,23 @@ public class IRI {
             throw new IriException("Cannot parse IRI: " + iri);
         }
 
-        int index = iri.lastIndexOf('#');
-        if (index < 0) {
-            index = iri.lastIndexOf('/');
-        }
-        if (index < 0) {
+        if (resourceIndex(iri) < 0) {
             throw new IriException("Cannot parse IRI: " + iri);
-        } else {
-            this.resource = iri.substring(index + 1);
         }
+    }
 
+    /**
+     * Find the index of the separator before the resource name.
+     *
+     * @param iri IRI string.
+     * @return The index of the last '#', or of the last '/' if there is no '#', or -1.
+     */
+    private static int resourceIndex(final String iri) {
+        final int index = iri.lastIndexOf('#');
+        if (index < 0) {
+            return iri.lastIndexOf('/');
+        }
+        return index;
     }
 
     /**
@@ -37,7 +37,7 @@ public final class RDFS {
      * {@code rdf:type} is an instance of {@code rdf:Property} that is used to state that a resource is
      * an instance of a class.
      */
-    public static final IRI RDF_TYPE = new IRI(RDF, "type");
+    public static final IRI RDF_TYPE = IRI.canonical(new IRI(RDF, "type"));
 
     /**
      * Base namespace of the RDF Schema vocabulary (RDFS).
@@ -54,18 +54,18 @@ public final class RDFS {
     /**
      * This is the class of resources that are RDF classes.
      */
-    public static final IRI RDFS_CLASS = new IRI(RDFS, "class");
+    public static final IRI RDFS_CLASS = IRI.canonical(new IRI(RDFS, "class"));
 
     /**
      * The class {@code rdfs:Literal} is the class of literal values such as strings and integers.
      * Property values such as textual strings are examples of RDF literals.
      */
-    public static final IRI RDFS_LITERAL = new IRI(RDFS, "Literal");
+    public static final IRI RDFS_LITERAL = IRI.canonical(new IRI(RDFS, "Literal"));
 
     /**
      * The property {@code rdfs:subClassOf} is an instance of {@code rdf:Property} that is used to state
      * that all the instances of one class are instances of another.
      */
-    public static final IRI RDFS_SUB_CLASS_OF = new IRI(RDFS, "subClassOf");
+    public static final IRI RDFS_SUB_CLASS_OF = IRI.canonical(new IRI(RDFS, "subClassOf"));
 
 }
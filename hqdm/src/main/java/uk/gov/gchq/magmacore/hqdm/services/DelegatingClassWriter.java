@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.hqdm.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+
+/**
+ * Writes the class file for a subclass of {@link DelegatingThing} that implements a set of
+ * interfaces. The generated class has no methods other than a constructor that passes the delegate
+ * to {@link DelegatingThing}, since the HQDM interfaces only inherit the methods of
+ * {@link uk.gov.gchq.magmacore.hqdm.pojo.Top}.
+ */
+final class DelegatingClassWriter {
+
+    private static final int CLASS_FILE_VERSION = 61;
+
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int RETURN = 0xb1;
+
+    private static final String CONSTRUCTOR_DESCRIPTOR = "(" + descriptorOf(Thing.class) + ")V";
+
+    private final ByteArrayOutputStream constants = new ByteArrayOutputStream();
+    private final DataOutputStream constantPool = new DataOutputStream(constants);
+    private int constantCount = 1;
+
+    private DelegatingClassWriter() {
+    }
+
+    /**
+     * Create the class file bytes.
+     *
+     * @param className  The internal name of the class, which must be in the same package as
+     *                   {@link DelegatingThing}.
+     * @param interfaces The interfaces the class implements.
+     * @return The class file as a byte array.
+     */
+    static byte[] write(final String className, final Collection<java.lang.Class<?>> interfaces) {
+        try {
+            return new DelegatingClassWriter().toByteArray(className, interfaces);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] toByteArray(final String className, final Collection<java.lang.Class<?>> interfaces)
+            throws IOException {
+        final int thisClass = addClass(className);
+        final int superClass = addClass(internalNameOf(DelegatingThing.class));
+        final List<Integer> interfaceIndexes = new ArrayList<>(interfaces.size());
+        for (final java.lang.Class<?> iface : interfaces) {
+            interfaceIndexes.add(addClass(internalNameOf(iface)));
+        }
+        final int constructorName = addUtf8("<init>");
+        final int constructorDescriptor = addUtf8(CONSTRUCTOR_DESCRIPTOR);
+        final int superConstructor = addMethodref(superClass, constructorName, constructorDescriptor);
+        final int code = addUtf8("Code");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_FILE_VERSION);
+        out.writeShort(constantCount);
+        constantPool.flush();
+        constants.writeTo(out);
+
+        out.writeShort(ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(interfaceIndexes.size());
+        for (final int index : interfaceIndexes) {
+            out.writeShort(index);
+        }
+
+        // No fields.
+        out.writeShort(0);
+
+        // A single package-private constructor: super(delegate); return;
+        out.writeShort(1);
+        out.writeShort(0);
+        out.writeShort(constructorName);
+        out.writeShort(constructorDescriptor);
+        out.writeShort(1);
+        out.writeShort(code);
+        out.writeInt(18);
+        out.writeShort(2);
+        out.writeShort(2);
+        out.writeInt(6);
+        out.writeByte(ALOAD_0);
+        out.writeByte(ALOAD_1);
+        out.writeByte(INVOKESPECIAL);
+        out.writeShort(superConstructor);
+        out.writeByte(RETURN);
+        out.writeShort(0);
+        out.writeShort(0);
+
+        // No class attributes.
+        out.writeShort(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private int addUtf8(final String value) throws IOException {
+        constantPool.writeByte(CONSTANT_UTF8);
+        constantPool.writeUTF(value);
+        return constantCount++;
+    }
+
+    private int addClass(final String internalName) throws IOException {
+        final int name = addUtf8(internalName);
+        constantPool.writeByte(CONSTANT_CLASS);
+        constantPool.writeShort(name);
+        return constantCount++;
+    }
+
+    private int addMethodref(final int owner, final int name, final int descriptor) throws IOException {
+        constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+        constantPool.writeShort(name);
+        constantPool.writeShort(descriptor);
+        final int nameAndType = constantCount++;
+        constantPool.writeByte(CONSTANT_METHODREF);
+        constantPool.writeShort(owner);
+        constantPool.writeShort(nameAndType);
+        return constantCount++;
+    }
+
+    private static String internalNameOf(final java.lang.Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptorOf(final java.lang.Class<?> type) {
+        return "L" + internalNameOf(type) + ";";
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.hqdm.services;
+
+import java.util.Map;
+import java.util.Set;
+
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+
+/**
+ * Base class for the classes generated by {@link DynamicObjects}. Every method forwards directly to
+ * the wrapped {@link Thing}, so a generated class only needs to add the HQDM interfaces it
+ * implements and a constructor.
+ */
+abstract class DelegatingThing implements Thing {
+
+    /** The object that all calls are forwarded to. */
+    private final Thing delegate;
+
+    /**
+     * Constructor accepting the {@link Thing} to delegate to.
+     *
+     * @param delegate The {@link Thing} to delegate to.
+     */
+    DelegatingThing(final Thing delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Get the {@link Thing} that calls are forwarded to.
+     *
+     * @return The delegate {@link Thing}.
+     */
+    Thing getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public IRI getId() {
+        return delegate.getId();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setId(final IRI id) {
+        delegate.setId(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Map<IRI, Set<Object>> getPredicates() {
+        return delegate.getPredicates();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setPredicates(final Map<IRI, Set<Object>> predicates) {
+        delegate.setPredicates(predicates);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> Set<T> values(final IRI predicateId) {
+        return delegate.values(predicateId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T oneValue(final IRI predicateId) {
+        return delegate.oneValue(predicateId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addValue(final IRI predicateId, final IRI objectId) {
+        delegate.addValue(predicateId, objectId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addStringValue(final IRI predicateId, final String value) {
+        delegate.addStringValue(predicateId, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addRealValue(final IRI predicateId, final double value) {
+        delegate.addRealValue(predicateId, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void removeValue(final IRI predicateId, final Object value) {
+        delegate.removeValue(predicateId, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasValue(final IRI predicateId) {
+        return delegate.hasValue(predicateId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisValue(final IRI predicateId, final Object objectId) {
+        return delegate.hasThisValue(predicateId, objectId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisStringValue(final IRI predicateId, final String value) {
+        return delegate.hasThisStringValue(predicateId, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisStringValueIgnoreCase(final IRI predicateId, final String value) {
+        return delegate.hasThisStringValueIgnoreCase(predicateId, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisStringValueFuzzy(final IRI predicateId, final String value) {
+        return delegate.hasThisStringValueFuzzy(predicateId, value);
+    }
+
+    /**
+     * Output the delegate as a string.
+     *
+     * @return Formatted string output of the delegate.
+     */
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" the delegate.
+     *
+     * @param object The reference object with which to compare.
+     * @return {@code true} if the delegate is equal to the object; false otherwise.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        return delegate.equals(object);
+    }
+
+    /**
+     * Returns the hash code of the delegate.
+     *
+     * @return A hash code value for the delegate.
+     */
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+}
@@ -14,24 +14,49 @@
 
 package uk.gov.gchq.magmacore.hqdm.services;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import uk.gov.gchq.magmacore.hqdm.model.Thing;
 import uk.gov.gchq.magmacore.hqdm.model.impl.ThingImpl;
-import uk.gov.gchq.magmacore.hqdm.pojo.HqdmObject;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
 
 /**
- * Service for creating dynamic proxies.
+ * Service for creating objects that implement several HQDM interfaces at once.
+ *
+ * <p>
+ * For each distinct set of interfaces a hidden class extending {@link DelegatingThing} is generated
+ * once and cached, so creating an object is a constructor call and each method call is a direct
+ * call on the wrapped {@link Thing}. If a class cannot be generated for a set of interfaces (for
+ * example because one of them is not visible from this module) a {@link Proxy} is used instead.
+ * </p>
  */
 public class DynamicObjects {
 
+    /** Internal name of the generated classes, which must be in this package. */
+    private static final String GENERATED_CLASS_NAME = DynamicObjects.class.getPackageName().replace('.', '/')
+            + "/DelegatingThing$Generated";
+
+    /** The type of the cached constructors. */
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Thing.class, Thing.class);
+
+    /** Constructors of the generated classes, keyed by the set of interfaces they implement. */
+    private static final Map<Set<java.lang.Class<?>>, Optional<MethodHandle>> CONSTRUCTORS =
+            new ConcurrentHashMap<>();
+
     /**
-     * Create a Proxy that implements the set of specified interfaces.
+     * Create an object that implements the set of specified interfaces.
      *
      * @param <T>        The subtypes of {@link Thing} to implement.
      * @param <U>        The subtype of {@link Thing} to return.
@@ -47,7 +72,7 @@ public class DynamicObjects {
     }
 
     /**
-     * Create a Proxy that implements the set of specified interfaces, for an existing object.
+     * Create an object that implements the set of specified interfaces, for an existing object.
      *
      * @param <T>        The subtypes of {@link Thing} to implement.
      * @param <U>        The subtype of {@link Thing} to return.
@@ -58,19 +83,109 @@ public class DynamicObjects {
      */
     public static <T extends Thing, U extends Thing> U implementInterfaces(final T thing,
             final java.lang.Class<U> returnType, final java.lang.Class<T>[] classes) {
+        final Thing target = thing instanceof DelegatingThing d ? d.getDelegate() : thing;
+        return wrapper(returnType, classes).apply(target);
+    }
+
+    /**
+     * Resolve, once, a function that creates objects implementing the set of specified interfaces.
+     * Callers that create many objects with the same interfaces can hold on to the function rather
+     * than looking up the interfaces for every object.
+     *
+     * @param <U>        The subtype of {@link Thing} to return.
+     * @param returnType The type to cast the return value to.
+     * @param classes    The array of classes to implement.
+     * @return A function from the {@link IRI} of a new {@link Thing} to an object of type U.
+     */
+    public static <U extends Thing> Function<IRI, U> factory(final java.lang.Class<U> returnType,
+            final java.lang.Class<? extends Thing>[] classes) {
+        final Function<Thing, U> wrapper = wrapper(returnType, classes);
+        return id -> wrapper.apply(new ThingImpl(id));
+    }
+
+    /**
+     * Resolve a function that wraps a {@link Thing} in an object implementing the specified
+     * interfaces, using a generated class where possible.
+     *
+     * @param <U>        The subtype of {@link Thing} to return.
+     * @param returnType The type to cast the return value to.
+     * @param classes    The array of classes to implement.
+     * @return A function that wraps a {@link Thing}.
+     */
+    private static <U extends Thing> Function<Thing, U> wrapper(final java.lang.Class<U> returnType,
+            final java.lang.Class<?>[] classes) {
+        final Optional<MethodHandle> constructor = CONSTRUCTORS.computeIfAbsent(
+                Set.copyOf(Arrays.asList(classes)),
+                key -> defineClass(classes));
+
+        if (constructor.isPresent()) {
+            final MethodHandle handle = constructor.get();
+            return thing -> {
+                try {
+                    return (U) (Thing) handle.invokeExact(thing);
+                } catch (final RuntimeException | Error e) {
+                    throw e;
+                } catch (final Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+        final java.lang.Class<?>[] interfaces = classes.clone();
+        return thing -> implementInterfacesWithProxy(thing, returnType, interfaces);
+    }
+
+    /**
+     * Create a {@link Proxy} that implements the set of specified interfaces, for an existing object.
+     *
+     * @param <U>        The subtype of {@link Thing} to return.
+     * @param thing      The {@link Thing} to delegate the interfaces to.
+     * @param returnType The type to cast the return value to.
+     * @param classes    The array of classes to implement.
+     * @return An object of type U.
+     */
+    static <U extends Thing> U implementInterfacesWithProxy(final Thing thing,
+            final java.lang.Class<U> returnType, final java.lang.Class<?>[] classes) {
         return (U) Proxy.newProxyInstance(ClassServices.class.getClassLoader(), classes, new ThingHandler(thing));
     }
 
+    /**
+     * Generate a hidden class implementing the given interfaces and look up its constructor.
+     *
+     * @param classes The interfaces to implement.
+     * @return The constructor, or empty if the class could not be defined.
+     */
+    private static Optional<MethodHandle> defineClass(final java.lang.Class<?>[] classes) {
+        final Set<java.lang.Class<?>> interfaces = new LinkedHashSet<>(Arrays.asList(classes));
+        for (final java.lang.Class<?> iface : interfaces) {
+            if (!iface.isInterface()) {
+                throw new IllegalArgumentException(iface.getName() + " is not an interface");
+            }
+        }
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClass(DelegatingClassWriter.write(GENERATED_CLASS_NAME, interfaces), true);
+            return Optional.of(lookup
+                    .findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Thing.class))
+                    .asType(CONSTRUCTOR_TYPE));
+        } catch (final ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Proxy method calls to {@link Object}.
      */
     private static class ThingHandler implements InvocationHandler {
 
-        /** The methods to be proxied. */
-        private final Map<String, Method> methods = new HashMap<>();
+        /** The type that every dispatch {@link MethodHandle} is adapted to. */
+        private static final MethodType DISPATCH_TYPE = MethodType.methodType(Object.class, Object.class,
+                Object[].class);
+
+        /** The methods to be proxied, shared by all instances and resolved on first use. */
+        private static final Map<Method, MethodHandle> METHODS = new ConcurrentHashMap<>();
 
         /** The object to be proxied. */
-        private Object target;
+        private final Object target;
 
         /**
          * Constructor accepting the thing to be proxied.
@@ -79,11 +194,6 @@ public class DynamicObjects {
          */
         public ThingHandler(final Object target) {
             this.target = target;
-
-            // Cache the methods to be proxied.
-            for (final Method method : HqdmObject.class.getMethods()) {
-                this.methods.put(method.getName(), method);
-            }
         }
 
         /**
@@ -91,7 +201,24 @@ public class DynamicObjects {
          */
         @Override
         public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-            return methods.get(method.getName()).invoke(target, args);
+            return METHODS.computeIfAbsent(method, ThingHandler::dispatcher).invokeExact(target, args);
+        }
+
+        /**
+         * Create a {@link MethodHandle} that calls the method on a target with an array of arguments.
+         *
+         * @param method The {@link Method} to call.
+         * @return A {@link MethodHandle} of type {@code (Object, Object[])Object}.
+         */
+        private static MethodHandle dispatcher(final Method method) {
+            try {
+                return MethodHandles.publicLookup()
+                        .unreflect(method)
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(DISPATCH_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
         }
     }
 }
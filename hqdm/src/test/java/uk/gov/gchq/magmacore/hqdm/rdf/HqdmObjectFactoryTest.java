@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.hqdm.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.hqdm.model.Participant;
+import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.PossibleWorld;
+import uk.gov.gchq.magmacore.hqdm.model.Thing;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.magmacore.hqdm.rdf.util.Pair;
+
+/**
+ * Test the construction of HQDM objects from their types.
+ */
+public class HqdmObjectFactoryTest {
+    static final IriBase TEST_BASE = new IriBase("test", "http://example.com/test#");
+
+    /**
+     * Test that an object with one type is created with the class registered for that type.
+     */
+    @Test
+    public void testCreateWithType() {
+        final IRI iri = new IRI(TEST_BASE, "world");
+        final Thing thing = HqdmObjectFactory.create(HQDM.POSSIBLE_WORLD, iri);
+
+        assertTrue(thing instanceof PossibleWorld);
+        assertEquals(iri, thing.getId());
+    }
+
+    /**
+     * Test that objects with the same set of types share a class and keep their predicates.
+     */
+    @Test
+    public void testCreateWithMultipleTypes() {
+        final Thing person1 = HqdmObjectFactory.create(new IRI(TEST_BASE, "person1"), List.of(
+                new Pair<>(RDFS.RDF_TYPE, HQDM.PERSON),
+                new Pair<>(RDFS.RDF_TYPE, HQDM.PARTICIPANT),
+                new Pair<>(HQDM.ENTITY_NAME, "Person One")));
+        final Thing person2 = HqdmObjectFactory.create(new IRI(TEST_BASE, "person2"), List.of(
+                new Pair<>(RDFS.RDF_TYPE, HQDM.PARTICIPANT),
+                new Pair<>(RDFS.RDF_TYPE, HQDM.PERSON)));
+
+        assertTrue(person1 instanceof Person);
+        assertTrue(person1 instanceof Participant);
+        assertTrue(person1.hasThisStringValue(HQDM.ENTITY_NAME, "Person One"));
+        assertSame(person1.getClass(), person2.getClass());
+    }
+
+    /**
+     * Test that an unrecognised HQDM type is represented as a plain {@link Thing}.
+     */
+    @Test
+    public void testCreateWithUnknownType() {
+        final IRI unknownType = new IRI(HQDM.HQDM, "not_a_type");
+        final Thing thing = HqdmObjectFactory.create(new IRI(TEST_BASE, "unknown"), List.of(
+                new Pair<>(RDFS.RDF_TYPE, unknownType)));
+
+        assertFalse(thing instanceof PossibleWorld);
+        assertTrue(thing.hasThisValue(RDFS.RDF_TYPE, unknownType));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.magmacore.hqdm.rdf.iri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import uk.gov.gchq.magmacore.hqdm.rdf.exception.IriException;
+
+/**
+ * IRI tests.
+ */
+public class IriTest {
+
+    /**
+     * IRI.of returns the HQDM and RDFS constants for their own IRI strings.
+     */
+    @Test
+    public void testOfReturnsCanonicalConstants() {
+        assertSame(HQDM.PERSON, IRI.of(HQDM.PERSON.getIri()));
+        assertSame(HQDM.ENTITY_NAME, IRI.of("https://hqdmtop.github.io/hqdm#data_EntityName"));
+        assertSame(RDFS.RDF_TYPE, IRI.of("http://www.w3.org/1999/02/22-rdf-syntax-ns#type"));
+    }
+
+    /**
+     * IRI.of shares instances for the same string and they behave like constructed IRIs.
+     */
+    @Test
+    public void testOfSharesInstances() {
+        final IRI first = IRI.of("http://example.com/test#thing1");
+        final IRI second = IRI.of("http://example.com/test#thing1");
+
+        assertSame(first, second);
+        assertEquals(new IRI("http://example.com/test#thing1"), first);
+        assertEquals("thing1", first.getResource());
+        assertEquals("thing2", IRI.of("http://example.com/test/thing2").getResource());
+    }
+
+    /**
+     * IRI.of still validates strings that are not yet pooled.
+     */
+    @Test(expected = IriException.class)
+    public void testOfRejectsMalformedIri() {
+        IRI.of("not an iri");
+    }
+}
@@ -16,13 +16,19 @@ package uk.gov.gchq.magmacore.hqdm.services;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
 import org.junit.Test;
 
 import uk.gov.gchq.magmacore.hqdm.model.Participant;
 import uk.gov.gchq.magmacore.hqdm.model.Party;
 import uk.gov.gchq.magmacore.hqdm.model.Person;
+import uk.gov.gchq.magmacore.hqdm.model.impl.ThingImpl;
+import uk.gov.gchq.magmacore.hqdm.rdf.iri.HQDM;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IRI;
 import uk.gov.gchq.magmacore.hqdm.rdf.iri.IriBase;
 
@@ -76,4 +82,83 @@ public class DynamicObjectsTest {
         assertTrue(person2 instanceof Party);
         assertEquals(person1Iri, person2.getId());
     }
+
+    /**
+     * Test that objects with the same interfaces share a generated class and delegate their calls.
+     */
+    @Test
+    public void testGeneratedClassIsShared() {
+        final Person person1 = DynamicObjects.create(new IRI(TEST_BASE, "person1"), Person.class,
+                new Class[] { Person.class, Participant.class });
+        final Person person2 = DynamicObjects.create(new IRI(TEST_BASE, "person2"), Person.class,
+                new Class[] { Participant.class, Person.class });
+
+        assertSame(person1.getClass(), person2.getClass());
+        assertFalse(Proxy.isProxyClass(person1.getClass()));
+
+        person1.addStringValue(HQDM.ENTITY_NAME, "Person One");
+        assertTrue(person1.hasThisStringValue(HQDM.ENTITY_NAME, "Person One"));
+        assertFalse(person2.hasValue(HQDM.ENTITY_NAME));
+    }
+
+    /**
+     * Test that adding interfaces to a generated object delegates to the original {@link Thing}.
+     */
+    @Test
+    public void testAddInterfaceToGeneratedObject() {
+        final ThingImpl thing = new ThingImpl(new IRI(TEST_BASE, "person3"));
+        final Person person = DynamicObjects.implementInterfaces(thing, Person.class,
+                new Class[] { Person.class, Participant.class });
+        final Party party = DynamicObjects.implementInterfaces(person, Party.class,
+                new Class[] { Person.class, Party.class });
+
+        party.addStringValue(HQDM.ENTITY_NAME, "Person Three");
+        assertTrue(thing.hasThisStringValue(HQDM.ENTITY_NAME, "Person Three"));
+        assertTrue(party.equals(thing));
+        assertEquals(thing.hashCode(), party.hashCode());
+    }
+
+    /**
+     * Test that classes which are not interfaces are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithClass() {
+        DynamicObjects.create(new IRI(TEST_BASE, "thing"), Person.class,
+                new Class[] { Person.class, ThingImpl.class });
+    }
+
+    /**
+     * Test that a factory resolved once creates objects with the requested interfaces.
+     */
+    @Test
+    public void testFactory() {
+        final Function<IRI, Person> factory = DynamicObjects.factory(Person.class,
+                new Class[] { Person.class, Participant.class, Party.class });
+
+        final IRI personIri = new IRI(TEST_BASE, "person4");
+        final Person person = factory.apply(personIri);
+
+        assertTrue(person instanceof Participant);
+        assertTrue(person instanceof Party);
+        assertEquals(personIri, person.getId());
+        assertSame(person.getClass(), factory.apply(new IRI(TEST_BASE, "person5")).getClass());
+    }
+
+    /**
+     * Test that the {@link Proxy} fallback dispatches calls to the target.
+     */
+    @Test
+    public void testProxyDispatch() {
+        final ThingImpl thing = new ThingImpl(new IRI(TEST_BASE, "person6"));
+        final Person person = DynamicObjects.implementInterfacesWithProxy(thing, Person.class,
+                new Class[] { Person.class, Participant.class });
+
+        assertTrue(Proxy.isProxyClass(person.getClass()));
+        person.addStringValue(HQDM.ENTITY_NAME, "Person Six");
+        assertTrue(person.hasThisStringValue(HQDM.ENTITY_NAME, "Person Six"));
+        assertEquals("Person Six", person.oneValue(HQDM.ENTITY_NAME));
+        assertEquals(thing.getId(), person.getId());
+        assertEquals(thing.hashCode(), person.hashCode());
+        assertEquals(thing.toString(), person.toString());
+    }
 }